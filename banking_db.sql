@@ -8,6 +8,40 @@ CREATE TABLE IF NOT EXISTS accounts (
   balance DECIMAL(15,2) NOT NULL DEFAULT 0
 );
 
+-- deposit slots of hot accounts (banking.hot-accounts.ids); unused otherwise
+CREATE TABLE IF NOT EXISTS account_balance_slots (
+  account_number INT NOT NULL,
+  slot INT NOT NULL,
+  balance DECIMAL(15,2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (account_number, slot)
+);
+
+-- interest/fee accrual runs (POST /api/accruals), their planned ranges and committed checkpoints
+CREATE TABLE IF NOT EXISTS accrual_runs (
+  run_id VARCHAR(64) PRIMARY KEY,
+  interest_rate_micros BIGINT NOT NULL,
+  fee_cents BIGINT NOT NULL,
+  range_size INT NOT NULL,
+  started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  completed_at TIMESTAMP NULL
+);
+
+CREATE TABLE IF NOT EXISTS accrual_ranges (
+  run_id VARCHAR(64) NOT NULL,
+  range_start INT NOT NULL,
+  range_end INT NOT NULL,
+  PRIMARY KEY (run_id, range_start)
+);
+
+CREATE TABLE IF NOT EXISTS accrual_checkpoints (
+  run_id VARCHAR(64) NOT NULL,
+  range_start INT NOT NULL,
+  accounts BIGINT NOT NULL,
+  interest_cents BIGINT NOT NULL,
+  fee_cents BIGINT NOT NULL,
+  PRIMARY KEY (run_id, range_start)
+);
+
 -- select * from accounts; 
 -- desc accounts;
 
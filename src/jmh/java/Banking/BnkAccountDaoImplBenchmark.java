@@ -0,0 +1,130 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// BnkAccountDaoImpl SQL against embedded H2 in MySQL mode behind a Hikari pool, as the app runs it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class BnkAccountDaoImplBenchmark {
+
+    static final int ACCOUNTS = 1024;
+    static final long OPENING_BALANCE_CENTS = 100_000_000L;
+    // Transfers stay among a few accounts, so concurrent pairs overlap and lock the same rows from both ends.
+    static final int TRANSFER_ACCOUNTS = 16;
+    // Operations per applyBatch call, well under banking.batch.chunk-size so each call is one transaction.
+    static final int BATCH_SIZE = 100;
+
+    private HikariDataSource dataSource;
+    private BnkAccountDaoImpl dao;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(8);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS accounts");
+        jdbcTemplate.execute("CREATE TABLE accounts ("
+                + "account_number INT PRIMARY KEY, "
+                + "customer_name VARCHAR(255) NOT NULL, "
+                + "balance DECIMAL(15,2) NOT NULL DEFAULT 0)");
+        dao = new BnkAccountDaoImpl(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+        for (int i = 0; i < ACCOUNTS; i++) {
+            dao.createAccount(new Account(i, "Bench " + i, OPENING_BALANCE_CENTS));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Account getAccount() {
+        return dao.getAccount(nextAccount());
+    }
+
+    @Benchmark
+    public Account deposit() {
+        return dao.applyDelta(nextAccount(), 1, AccountDAO.NO_MIN_BALANCE);
+    }
+
+    @Benchmark
+    public Account withdraw() {
+        return dao.applyDelta(nextAccount(), -1, 0);
+    }
+
+    // Scored per deposit, so it reads directly against deposit(). H2 has no equivalent of Connector/J's
+    // rewriteBatchedStatements, so MySQL gains more from the batch than this shows.
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchStatus[] batchDeposits() {
+        List<BatchTransactionDTO> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new BatchTransactionDTO(TransactionType.DEPOSIT, nextAccount(), 1));
+        }
+        return dao.applyBatch(batch);
+    }
+
+    // Deposits and withdrawals interleaved at random over random accounts, as real batches arrive; also scored
+    // per operation.
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchStatus[] batchMixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<BatchTransactionDTO> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            TransactionType type = random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAW;
+            batch.add(new BatchTransactionDTO(type, nextAccount(), 1));
+        }
+        return dao.applyBatch(batch);
+    }
+
+    @Benchmark
+    public TransferResultDTO transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(TRANSFER_ACCOUNTS);
+        int to = (from + 1 + random.nextInt(TRANSFER_ACCOUNTS - 1)) % TRANSFER_ACCOUNTS;
+        return dao.transfer(from, to, 1);
+    }
+
+    private static int nextAccount() {
+        return ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends BnkAccountDaoImplBenchmark {
+    }
+
+    // Four threads share the 8-connection pool; deltas only collide when two pick the same account, while
+    // transfers and batches regularly wait on each other's row locks.
+    @Threads(4)
+    public static class MultiThreaded extends BnkAccountDaoImplBenchmark {
+    }
+}
@@ -0,0 +1,82 @@
+package Banking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// Jackson binding of the request/response payloads, including the cents <-> decimal amount conversion.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class JsonBindingBenchmark {
+
+    private static final byte[] ACCOUNT_JSON =
+            "{\"accountNumber\":1042,\"customerName\":\"Alice Example\",\"balance\":12345.67}"
+                    .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TRANSACTION_JSON =
+            "{\"accountNumber\":1042,\"amount\":50.25}".getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader accountReader;
+    private ObjectWriter accountWriter;
+    private ObjectReader transactionReader;
+    private ObjectWriter transactionWriter;
+    private Account account;
+    private TransactionDTO transaction;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        accountReader = mapper.readerFor(Account.class);
+        accountWriter = mapper.writerFor(Account.class);
+        transactionReader = mapper.readerFor(TransactionDTO.class);
+        transactionWriter = mapper.writerFor(TransactionDTO.class);
+        account = new Account(1042, "Alice Example", 1_234_567);
+        transaction = new TransactionDTO(1042, 5025);
+    }
+
+    @Benchmark
+    public Account readAccount() throws Exception {
+        return accountReader.readValue(ACCOUNT_JSON);
+    }
+
+    @Benchmark
+    public byte[] writeAccount() throws Exception {
+        return accountWriter.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public TransactionDTO readTransaction() throws Exception {
+        return transactionReader.readValue(TRANSACTION_JSON);
+    }
+
+    @Benchmark
+    public byte[] writeTransaction() throws Exception {
+        return transactionWriter.writeValueAsBytes(transaction);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends JsonBindingBenchmark {
+    }
+
+    @Threads(4)
+    public static class MultiThreaded extends JsonBindingBenchmark {
+    }
+}
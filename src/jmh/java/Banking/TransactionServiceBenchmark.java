@@ -0,0 +1,69 @@
+package Banking;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// TransactionService over an in-memory DAO: measures validation, stripe locking and dispatch without I/O.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class TransactionServiceBenchmark {
+
+    static final int ACCOUNTS = 1024;
+    // Large enough that withdrawals never run an account dry during a run.
+    static final long OPENING_BALANCE_CENTS = 1_000_000_000_00L;
+
+    private TransactionService service;
+
+    @Setup
+    public void setUp() {
+        InMemoryAccountDao dao = new InMemoryAccountDao();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            dao.createAccount(new Account(i, "Bench " + i, OPENING_BALANCE_CENTS));
+        }
+        service = new TransactionService(dao);
+    }
+
+    @Benchmark
+    public Account deposit() {
+        return service.deposit(nextAccount(), 1);
+    }
+
+    @Benchmark
+    public Account withdraw() {
+        return service.withdraw(nextAccount(), 1);
+    }
+
+    @Benchmark
+    public Account viewAccount() {
+        return service.viewAccount(nextAccount());
+    }
+
+    private static int nextAccount() {
+        return ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends TransactionServiceBenchmark {
+    }
+
+    // Four threads over 1024 accounts: some stripe contention, mostly parallel; use -t to change.
+    @Threads(4)
+    public static class MultiThreaded extends TransactionServiceBenchmark {
+    }
+}
@@ -0,0 +1,105 @@
+package Banking;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// The whole app over HTTP on Tomcat platform threads versus the virtual profile, with more clients than threads.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(256)
+public class VirtualThreadBenchmark {
+
+    static final int ACCOUNTS = 10_000;
+
+    // Account store: jdbc against spring.datasource.url, or the name of a store profile such as memory. Virtual
+    // threads only pay off when requests block, so memory only checks that the benchmark runs.
+    @Param("jdbc")
+    public String store;
+
+    @Param({"false", "true"})
+    public boolean virtual;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        String storeProfile = "jdbc".equals(store) ? "" : store;
+        String profiles = virtual ? (storeProfile.isEmpty() ? "virtual" : storeProfile + ",virtual") : storeProfile;
+        context = new SpringApplicationBuilder(BankingApplication.class)
+                .properties("server.port=0", "spring.profiles.active=" + profiles, "logging.level.root=WARN")
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/accounts";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            // Accounts left in the database by an earlier run answer 400 and are reused as they are.
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"accountNumber\":" + i
+                            + ",\"customerName\":\"Load " + i + "\",\"balance\":0}"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int deposit() throws IOException, InterruptedException {
+        return sendDeposit();
+    }
+
+    // Same request, reported as sampled per-deposit latency (percentiles) instead of deposits per second.
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int depositLatency() throws IOException, InterruptedException {
+        return sendDeposit();
+    }
+
+    private int sendDeposit() throws IOException, InterruptedException {
+        int accountNumber = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        HttpResponse<Void> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/" + accountNumber + "/deposit"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1}"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Deposit to " + accountNumber + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -1,21 +1,26 @@
 package Banking;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 	
 	
 	// Domain model for a bank account record.
 	public class Account {
 	    private int accountNumber;
 	    private String customerName;
-	    private double balance;
+	    // Minor units (cents); exposed to JSON as a decimal "balance" such as 123.45.
+	    private long balanceCents;
 
 	    public Account() {
 	    }
 
 	    // Constructor
-	    public Account(int accountNumber, String customerName, double balance) {
+	    public Account(int accountNumber, String customerName, long balanceCents) {
 	        this.accountNumber = accountNumber;
 	        this.customerName = customerName;
-	        this.balance = balance;
+	        this.balanceCents = balanceCents;
 	    }
 
 	    // Getters and setters
@@ -35,12 +40,16 @@ package Banking;
 	        this.customerName = customerName;
 	    }
 
-	    public double getBalance() {
-	        return balance;
+	    @JsonProperty("balance")
+	    @JsonSerialize(using = Money.AmountSerializer.class)
+	    public long getBalanceCents() {
+	        return balanceCents;
 	    }
 
-	    public void setBalance(double balance) {
-	        this.balance = balance;
+	    @JsonProperty("balance")
+	    @JsonDeserialize(using = Money.AmountDeserializer.class)
+	    public void setBalanceCents(long balanceCents) {
+	        this.balanceCents = balanceCents;
 	    }
 
 	    // toString method for easy printing of account details
@@ -49,7 +58,7 @@ package Banking;
 	        return "Account{" +
 	                "accountNumber=" + accountNumber +
 	                ", customerName='" + customerName + '\'' +
-	                ", balance=" + balance +
+	                ", balance=" + Money.format(balanceCents) +
 	                '}';
 	    }
 	}
@@ -0,0 +1,161 @@
+package Banking;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded LRU cache of accounts with a per-entry TTL, in independently locked segments.
+public class AccountCache {
+
+    private static final int SEGMENTS = 16;
+    // Write counters per segment, by account hash: a fill is only dropped for a write to an account sharing its
+    // counter, not for any write to the segment.
+    private static final int WRITE_STRIPES = 64;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AccountCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size and TTL must be positive");
+        }
+        int perSegment = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    // Returns a private copy of the cached account, or null on a miss or expired entry.
+    public Account get(int accountNumber) {
+        Segment segment = segmentFor(accountNumber);
+        Entry entry;
+        segment.lock();
+        try {
+            entry = segment.entries.get(accountNumber);
+            if (entry != null && System.nanoTime() - entry.loadedAt > ttlNanos) {
+                segment.entries.remove(accountNumber);
+                evictions.increment();
+                entry = null;
+            }
+        } finally {
+            segment.unlock();
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new Account(accountNumber, entry.customerName, entry.balanceCents);
+    }
+
+    // Captures the account's write count before loading from the store; pass it to fill().
+    public long fillToken(int accountNumber) {
+        Segment segment = segmentFor(accountNumber);
+        segment.lock();
+        try {
+            return segment.writes[writeStripeOf(accountNumber)];
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    // Caches a freshly loaded account unless a write to it (or to an account sharing its write counter) came
+    // after fillToken() was taken, so a slow load never puts back a balance that a write has already replaced.
+    public void fill(Account account, long token) {
+        Segment segment = segmentFor(account.getAccountNumber());
+        segment.lock();
+        try {
+            if (segment.writes[writeStripeOf(account.getAccountNumber())] == token) {
+                segment.entries.put(account.getAccountNumber(), new Entry(account, System.nanoTime()));
+            }
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    // Drops the entry and fences out in-flight fills; call after the write reached the store.
+    public void invalidate(int accountNumber) {
+        Segment segment = segmentFor(accountNumber);
+        segment.lock();
+        try {
+            segment.writes[writeStripeOf(accountNumber)]++;
+            segment.entries.remove(accountNumber);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(int accountNumber) {
+        // Spread sequential account numbers across segments.
+        int h = accountNumber * 0x9E3779B9;
+        return segments[(h >>> 28) & (SEGMENTS - 1)];
+    }
+
+    // The hash bits just below the segment's, so accounts of one segment spread over its counters.
+    private static int writeStripeOf(int accountNumber) {
+        int h = accountNumber * 0x9E3779B9;
+        return (h >>> 22) & (WRITE_STRIPES - 1);
+    }
+
+    private static final class Entry {
+        final String customerName;
+        final long balanceCents;
+        final long loadedAt;
+
+        Entry(Account account, long loadedAt) {
+            this.customerName = account.getCustomerName();
+            this.balanceCents = account.getBalanceCents();
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // ReentrantLock rather than a monitor so a contended segment never pins a virtual thread.
+    private final class Segment extends ReentrantLock {
+        final long[] writes = new long[WRITE_STRIPES];
+        final Map<Integer, Entry> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -1,10 +1,87 @@
 package Banking;
 
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.dao.DuplicateKeyException;
+
 // Persistence contract for account CRUD/balance operations.
 public interface AccountDAO {
+    // Pass as minBalanceCents to applyDelta when the result may go arbitrarily low (e.g. deposits).
+    long NO_MIN_BALANCE = Long.MIN_VALUE;
+
+    // All balances and amounts are in minor units (cents).
     void createAccount(Account account);
-    void updateBalance(int accountNumber, double newBalance);
-    double getBalance(int accountNumber);
+    void updateBalance(int accountNumber, long newBalanceCents);
+    long getBalance(int accountNumber);
     Account getAccount(int accountNumber);
-}
 
+    // Atomically adds delta to the balance when the result stays >= minBalance and returns the row as of this
+    // delta or later (a concurrent write may already be included).
+    Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents);
+
+    // Creates the accounts in order and returns, per account, whether it was created; false means the account
+    // number already existed or repeats an earlier entry. Implementations backed by a database insert the
+    // whole list in one transaction with multi-row INSERTs; this default calls createAccount per account.
+    default boolean[] createAccounts(List<Account> accounts) {
+        boolean[] created = new boolean[accounts.size()];
+        for (int i = 0; i < created.length; i++) {
+            try {
+                createAccount(accounts.get(i));
+                created[i] = true;
+            } catch (DuplicateKeyException e) {
+                created[i] = false;
+            }
+        }
+        return created;
+    }
+
+    // Returns up to limit accounts with account numbers greater than afterAccountNumber (null for the first
+    // page), in account-number order.
+    List<Account> listAccounts(Integer afterAccountNumber, int limit);
+
+    // Streams every account matching the filter to sink in account-number order and returns how many were
+    // sent. The Account passed to sink may be reused for the next row, so copy it to keep it.
+    long exportAccounts(AccountExportFilter filter, Consumer<Account> sink);
+
+    // Applies the operations in order and returns one outcome per operation. Implementations backed by a
+    // database run the whole list in one transaction; this default simply replays the single-row calls.
+    default BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        BatchStatus[] outcomes = new BatchStatus[operations.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            BatchTransactionDTO op = operations.get(i);
+            try {
+                switch (op.getType()) {
+                    case DEPOSIT -> applyDelta(op.getAccountNumber(), op.getAmountCents(), NO_MIN_BALANCE);
+                    case WITHDRAW -> applyDelta(op.getAccountNumber(), -op.getAmountCents(), 0);
+                    case SET_BALANCE -> updateBalance(op.getAccountNumber(), op.getAmountCents());
+                }
+                outcomes[i] = BatchStatus.APPLIED;
+            } catch (InsufficientFundsException e) {
+                outcomes[i] = BatchStatus.INSUFFICIENT_FUNDS;
+            } catch (AccountNotFoundException e) {
+                outcomes[i] = BatchStatus.NOT_FOUND;
+            }
+        }
+        return outcomes;
+    }
+
+    // Called after an account was written behind this DAO's back (the accrual job's range UPDATEs), so
+    // decorators that cache or share reads drop what they hold for it; the stores have nothing to forget.
+    default void invalidate(int accountNumber) {
+    }
+
+    // Moves amountCents between two accounts without letting the source go negative. Implementations backed
+    // by a database or the ledger commit both legs together; this default debits first and compensates the
+    // debit if the credit cannot be applied.
+    default TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        getAccount(toAccountNumber);
+        Account from = applyDelta(fromAccountNumber, -amountCents, 0);
+        try {
+            return new TransferResultDTO(from, applyDelta(toAccountNumber, amountCents, NO_MIN_BALANCE));
+        } catch (RuntimeException e) {
+            applyDelta(fromAccountNumber, amountCents, NO_MIN_BALANCE);
+            throw e;
+        }
+    }
+}
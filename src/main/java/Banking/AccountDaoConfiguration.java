@@ -0,0 +1,131 @@
+package Banking;
+
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+// Assembles the AccountDAO the service layer sees: the selected storage engine wrapped in optional decorators.
+public class AccountDaoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDaoConfiguration.class);
+
+    @Bean
+    @Primary
+    public AccountDAO accountDAO(ObjectProvider<BnkAccountDaoImpl> jdbcAccountDao,
+                                 ObjectProvider<LedgerAccountDao> ledgerAccountDao,
+                                 ObjectProvider<MappedFileAccountDao> mappedFileAccountDao,
+                                 ObjectProvider<InMemoryAccountDao> inMemoryAccountDao,
+                                 ObjectProvider<TransactionJournal> transactionJournal,
+                                 ObjectProvider<AccountCache> accountCache,
+                                 ObjectProvider<CustomerNameIndex> customerNameIndex,
+                                 BankingMetrics metrics,
+                                 ReplicaRouting replicaRouting,
+                                 HotAccounts hotAccounts,
+                                 ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                 ObjectProvider<PlatformTransactionManager> transactionManager,
+                                 @Value("${banking.coalescing.enabled:true}") boolean coalescing) {
+        AccountDAO dao = ledgerAccountDao.getIfAvailable();
+        if (dao == null) {
+            // The embedded and memory profiles have no DataSource at all; their store replaces the jdbc one.
+            dao = mappedFileAccountDao.getIfAvailable();
+        }
+        if (dao == null) {
+            dao = inMemoryAccountDao.getIfAvailable();
+        }
+        // Only the jdbc store has transactions for the journal to append inside; the others are ordered by stripes.
+        PlatformTransactionManager journalTransactions = null;
+        if (dao == null) {
+            dao = jdbcAccountDao.getObject();
+            journalTransactions = transactionManager.getObject();
+            // The ledger already applies each account's writes on one thread and answers reads from memory,
+            // and the embedded and memory stores never leave the process; split balances and read coalescing
+            // only pay off against the database.
+            if (hotAccounts.isEnabled()) {
+                dao = new HotAccountDao(dao, hotAccounts, jdbcTemplate.getObject(), transactionManager.getObject());
+            }
+            if (coalescing) {
+                dao = new CoalescingAccountDao(dao, replicaRouting, metrics);
+            }
+        }
+        TransactionJournal journal = transactionJournal.getIfAvailable();
+        if (journal != null) {
+            dao = new JournalingAccountDao(dao, journal, journalTransactions);
+        }
+        CustomerNameIndex index = customerNameIndex.getIfAvailable();
+        if (index != null) {
+            dao = new IndexingAccountDao(dao, index);
+        }
+        AccountCache cache = accountCache.getIfAvailable();
+        if (cache != null) {
+            dao = new CachingAccountDao(dao, cache);
+        }
+        // Outermost, so the timings are what the service layer actually waits for, cache hits included.
+        return new TimedAccountDao(dao, metrics);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.cache.enabled", havingValue = "true")
+    public AccountCache accountCache(@Value("${banking.cache.max-size:100000}") int maxSize,
+                                     @Value("${banking.cache.ttl-ms:5000}") long ttlMillis) {
+        return new AccountCache(maxSize, ttlMillis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+    public TransactionJournal transactionJournal(@Value("${banking.journal.dir:journal}") String directory,
+                                                 @Value("${banking.journal.segment-size-mb:64}") int segmentSizeMb,
+                                                 @Value("${banking.journal.fsync-every:256}") int fsyncEvery,
+                                                 @Value("${banking.journal.fsync-interval-ms:100}") long fsyncIntervalMillis) {
+        return new TransactionJournal(Path.of(directory), segmentSizeMb * 1024L * 1024L, fsyncEvery, fsyncIntervalMillis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.search.enabled", havingValue = "true")
+    public CustomerNameIndex customerNameIndex(@Value("${banking.search.max-memory-mb:256}") int maxMemoryMb) {
+        return new CustomerNameIndex(maxMemoryMb * 1024L * 1024L);
+    }
+
+    // Fills the search index from the account store off the startup path; accounts created meanwhile are
+    // indexed by IndexingAccountDao, and searches report the index as incomplete until the load finishes.
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCustomerNameIndex(ApplicationReadyEvent event) {
+        CustomerNameIndex index = event.getApplicationContext().getBeanProvider(CustomerNameIndex.class).getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        AccountDAO store = baseStore(event.getApplicationContext());
+        Thread loader = new Thread(() -> {
+            try {
+                index.load(store);
+            } catch (RuntimeException ex) {
+                // Searches keep working over the accounts created since startup and report complete=false.
+                log.warn("Could not load the customer name index: {}", ex.getMessage());
+            }
+        }, "customer-name-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // The storage engine under the decorators and the ledger: the embedded or memory store, else the database.
+    private static AccountDAO baseStore(ApplicationContext context) {
+        AccountDAO embedded = context.getBeanProvider(MappedFileAccountDao.class).getIfAvailable();
+        if (embedded != null) {
+            return embedded;
+        }
+        AccountDAO memory = context.getBeanProvider(InMemoryAccountDao.class).getIfAvailable();
+        return memory != null ? memory : context.getBean(BnkAccountDaoImpl.class);
+    }
+}
@@ -0,0 +1,64 @@
+package Banking;
+
+// Optional restrictions for an account export; null fields do not filter.
+public class AccountExportFilter {
+    private Long minBalanceCents;
+    private Long maxBalanceCents;
+    // Matches names containing this text (case sensitivity follows the column collation).
+    private String customerName;
+
+    public AccountExportFilter() {
+    }
+
+    // Constructor
+    public AccountExportFilter(Long minBalanceCents, Long maxBalanceCents, String customerName) {
+        this.minBalanceCents = minBalanceCents;
+        this.maxBalanceCents = maxBalanceCents;
+        this.customerName = customerName;
+    }
+
+    // Getters and setters
+    public Long getMinBalanceCents() {
+        return minBalanceCents;
+    }
+
+    public void setMinBalanceCents(Long minBalanceCents) {
+        this.minBalanceCents = minBalanceCents;
+    }
+
+    public Long getMaxBalanceCents() {
+        return maxBalanceCents;
+    }
+
+    public void setMaxBalanceCents(Long maxBalanceCents) {
+        this.maxBalanceCents = maxBalanceCents;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    // For stores without SQL: the same test as the database's WHERE clause, with a case-insensitive LIKE '%name%'.
+    boolean matches(Account account) {
+        if (minBalanceCents != null && account.getBalanceCents() < minBalanceCents) {
+            return false;
+        }
+        if (maxBalanceCents != null && account.getBalanceCents() > maxBalanceCents) {
+            return false;
+        }
+        if (customerName == null || customerName.isEmpty()) {
+            return true;
+        }
+        String name = account.getCustomerName();
+        for (int i = 0; i + customerName.length() <= name.length(); i++) {
+            if (name.regionMatches(true, i, customerName, 0, customerName.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
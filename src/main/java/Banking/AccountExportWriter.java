@@ -0,0 +1,133 @@
+package Banking;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+// Streams exported accounts as CSV (with a header row) or NDJSON through one buffered writer.
+public abstract class AccountExportWriter implements AutoCloseable {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // Balances are formatted here, not into a new String per row.
+    protected final char[] amount = new char[Money.MAX_FORMATTED_LENGTH];
+
+    public static AccountExportWriter create(Format format, OutputStream out) {
+        return create(format, out, true);
+    }
+
+    // header=false continues a CSV stream whose header row was already written.
+    static AccountExportWriter create(Format format, OutputStream out, boolean header) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        return format == Format.CSV ? new Csv(writer, header) : new Ndjson(writer);
+    }
+
+    public abstract void write(Account account);
+
+    // Flushes buffered rows; the underlying stream stays open for its owner to close.
+    @Override
+    public abstract void close();
+
+    private static final class Csv extends AccountExportWriter {
+        private final Writer writer;
+
+        Csv(Writer writer, boolean header) {
+            this.writer = writer;
+            if (header) {
+                try {
+                    writer.write("accountNumber,customerName,balance\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(Account account) {
+            try {
+                writer.write(Integer.toString(account.getAccountNumber()));
+                writer.write(',');
+                writeField(account.getCustomerName());
+                writer.write(',');
+                int start = Money.formatTo(account.getBalanceCents(), amount);
+                writer.write(amount, start, amount.length - start);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Quotes the field only when it contains a delimiter, quote or line break; quotes are doubled.
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class Ndjson extends AccountExportWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(Writer writer) {
+            try {
+                this.generator = JSON.createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(Account account) {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("accountNumber", account.getAccountNumber());
+                generator.writeStringField("customerName", account.getCustomerName());
+                generator.writeFieldName("balance");
+                int start = Money.formatTo(account.getBalanceCents(), amount);
+                generator.writeNumber(amount, start, amount.length - start);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
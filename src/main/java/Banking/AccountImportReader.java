@@ -0,0 +1,184 @@
+package Banking;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Reads accounts one line at a time from a CSV or NDJSON import stream.
+public class AccountImportReader implements AutoCloseable {
+
+    public enum Format { CSV, NDJSON }
+
+    // Same leniency as the Spring MVC mapper: unknown properties are ignored.
+    private static final ObjectReader ACCOUNT_READER = new ObjectMapper()
+            .readerFor(Account.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final BufferedReader reader;
+    private final Format format;
+    private long lineNumber;
+
+    public AccountImportReader(InputStream in, Format format) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+    }
+
+    // Next non-blank row, or null at the end of the stream.
+    public Row next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Row row = parseLine(line, ++lineNumber, format);
+                if (row != null) {
+                    return row;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read import stream", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Parses one input line (numbered from 1); null for a blank line or a CSV header on the first line.
+    static Row parseLine(String line, long lineNumber, Format format) {
+        if (line.isBlank()) {
+            return null;
+        }
+        if (format == Format.CSV && lineNumber == 1 && isCsvHeader(line)) {
+            return null;
+        }
+        return format == Format.CSV ? parseCsv(line, lineNumber) : parseJson(line, lineNumber);
+    }
+
+    // accountNumber,customerName,balance, each field optionally in double quotes.
+    private static Row parseCsv(String line, long lineNumber) {
+        List<String> fields = splitCsv(line);
+        if (fields == null || fields.size() != 3) {
+            return Row.rejected(lineNumber, 0, "Expected accountNumber,customerName,balance");
+        }
+        int accountNumber;
+        try {
+            accountNumber = Integer.parseInt(fields.get(0).trim());
+        } catch (NumberFormatException e) {
+            return Row.rejected(lineNumber, 0, "Invalid account number: " + fields.get(0));
+        }
+        try {
+            return Row.of(lineNumber, new Account(accountNumber, fields.get(1).trim(), Money.parse(fields.get(2).trim())));
+        } catch (IllegalArgumentException e) {
+            return Row.rejected(lineNumber, accountNumber, e.getMessage());
+        }
+    }
+
+    private static Row parseJson(String line, long lineNumber) {
+        try {
+            Account account = ACCOUNT_READER.readValue(line);
+            return account == null ? Row.rejected(lineNumber, 0, "Expected an account object") : Row.of(lineNumber, account);
+        } catch (JsonProcessingException e) {
+            return Row.rejected(lineNumber, 0, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // A first line whose first field is not a number is taken to be a header.
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return false;
+        }
+        try {
+            Integer.parseInt(fields.get(0).trim());
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // Splits one CSV line; "" inside a quoted field is a literal quote. Returns null for an unterminated quote.
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // One input line: either a parsed account or the reason it could not be parsed.
+    public static final class Row {
+        private final long line;
+        private final int accountNumber;
+        private final Account account;
+        private final String error;
+
+        private Row(long line, int accountNumber, Account account, String error) {
+            this.line = line;
+            this.accountNumber = accountNumber;
+            this.account = account;
+            this.error = error;
+        }
+
+        static Row of(long line, Account account) {
+            return new Row(line, account.getAccountNumber(), account, null);
+        }
+
+        static Row rejected(long line, int accountNumber, String error) {
+            return new Row(line, accountNumber, null, error);
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public int getAccountNumber() {
+            return accountNumber;
+        }
+
+        public Account getAccount() {
+            return account;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package Banking;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Fixed array of locks, picked by account hash, that serializes in-process work on one account.
+@Component
+public class AccountLockManager {
+
+    static final int DEFAULT_STRIPES = 1024;
+
+    // Counters for neighbouring stripes sit a cache line apart to avoid false sharing.
+    private static final int PAD = 8;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final boolean fair;
+    // Per stripe: acquisitions, how many of them had to wait, and the total time spent waiting.
+    private final AtomicLongArray acquisitions;
+    private final AtomicLongArray contended;
+    private final AtomicLongArray waitNanos;
+
+    public AccountLockManager(@Value("${banking.locks.stripes:" + DEFAULT_STRIPES + "}") int stripes,
+                              @Value("${banking.locks.fair:false}") boolean fair) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("banking.locks.stripes must be a positive power of two");
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock(fair);
+        }
+        this.mask = stripes - 1;
+        this.fair = fair;
+        this.acquisitions = new AtomicLongArray(stripes * PAD);
+        this.contended = new AtomicLongArray(stripes * PAD);
+        this.waitNanos = new AtomicLongArray(stripes * PAD);
+    }
+
+    public void lock(int accountNumber) {
+        acquire(stripeFor(accountNumber));
+    }
+
+    public void unlock(int accountNumber) {
+        locks[stripeFor(accountNumber)].unlock();
+    }
+
+    // Locks the stripes of both accounts, lowest stripe first, so concurrent pairs never deadlock.
+    public void lockPair(int firstAccountNumber, int secondAccountNumber) {
+        int a = stripeFor(firstAccountNumber);
+        int b = stripeFor(secondAccountNumber);
+        acquire(Math.min(a, b));
+        if (a != b) {
+            acquire(Math.max(a, b));
+        }
+    }
+
+    public void unlockPair(int firstAccountNumber, int secondAccountNumber) {
+        int a = stripeFor(firstAccountNumber);
+        int b = stripeFor(secondAccountNumber);
+        if (a != b) {
+            release(Math.max(a, b));
+        }
+        release(Math.min(a, b));
+    }
+
+    // Locks the distinct stripes of all the given accounts in ascending stripe order, the order lockPair also
+    // follows, and returns them for unlockAll.
+    public int[] lockAll(int[] accountNumbers) {
+        int[] stripes = new int[accountNumbers.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = stripeFor(accountNumbers[i]);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int stripe : stripes) {
+            if (distinct == 0 || stripes[distinct - 1] != stripe) {
+                stripes[distinct++] = stripe;
+            }
+        }
+        stripes = Arrays.copyOf(stripes, distinct);
+        for (int stripe : stripes) {
+            acquire(stripe);
+        }
+        return stripes;
+    }
+
+    public void unlockAll(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            release(stripes[i]);
+        }
+    }
+
+    public int stripeFor(int accountNumber) {
+        return spread(accountNumber) & mask;
+    }
+
+    // Murmur3 finalizer: sequential account numbers land on unrelated stripes.
+    static int spread(int accountNumber) {
+        int h = accountNumber;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    void acquire(int stripe) {
+        ReentrantLock lock = locks[stripe];
+        if (!fair && lock.tryLock()) {
+            acquisitions.incrementAndGet(stripe * PAD);
+            return;
+        }
+        if (lock.isLocked() && !lock.isHeldByCurrentThread()) {
+            contended.incrementAndGet(stripe * PAD);
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos.addAndGet(stripe * PAD, System.nanoTime() - start);
+        acquisitions.incrementAndGet(stripe * PAD);
+    }
+
+    void release(int stripe) {
+        locks[stripe].unlock();
+    }
+
+    public int getStripes() {
+        return locks.length;
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
+
+    public long getAcquisitions(int stripe) {
+        return acquisitions.get(stripe * PAD);
+    }
+
+    public long getContended(int stripe) {
+        return contended.get(stripe * PAD);
+    }
+
+    public long getWaitNanos(int stripe) {
+        return waitNanos.get(stripe * PAD);
+    }
+
+    // Up to limit stripes that have had to wait at least once, the longest total wait first. The counters are
+    // copied before sorting, so acquisitions that happen meanwhile cannot upset the order.
+    public int[] getMostContendedStripes(int limit) {
+        long[] waits = new long[locks.length];
+        Integer[] order = new Integer[locks.length];
+        int candidates = 0;
+        for (int i = 0; i < locks.length; i++) {
+            if (contended.get(i * PAD) > 0) {
+                waits[i] = waitNanos.get(i * PAD);
+                order[candidates++] = i;
+            }
+        }
+        Arrays.sort(order, 0, candidates, (a, b) -> Long.compare(waits[b], waits[a]));
+        int[] stripes = new int[Math.min(limit, candidates)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = order[i];
+        }
+        return stripes;
+    }
+
+    public long getTotalAcquisitions() {
+        return sum(acquisitions);
+    }
+
+    public long getTotalContended() {
+        return sum(contended);
+    }
+
+    public long getTotalWaitNanos() {
+        return sum(waitNanos);
+    }
+
+    private long sum(AtomicLongArray counters) {
+        long total = 0;
+        for (int i = 0; i < locks.length; i++) {
+            total += counters.get(i * PAD);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,35 @@
+package Banking;
+
+import java.util.List;
+
+// One page of GET /api/accounts; nextAfter is the cursor for the following page, or null on the last page.
+public class AccountPageDTO {
+    private List<Account> accounts;
+    private Integer nextAfter;
+
+    public AccountPageDTO() {
+    }
+
+    // Constructor
+    public AccountPageDTO(List<Account> accounts, Integer nextAfter) {
+        this.accounts = accounts;
+        this.nextAfter = nextAfter;
+    }
+
+    // Getters and setters
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<Account> accounts) {
+        this.accounts = accounts;
+    }
+
+    public Integer getNextAfter() {
+        return nextAfter;
+    }
+
+    public void setNextAfter(Integer nextAfter) {
+        this.nextAfter = nextAfter;
+    }
+}
@@ -0,0 +1,62 @@
+package Banking;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+@RestController
+@RequestMapping("/api/accounts/search")
+@CrossOrigin(
+    origins = {
+        "http://localhost:3000",
+        "https://banking-web-app-uu95.vercel.app",
+        "https://mjabank.vercel.app"
+    }
+)
+@ConditionalOnProperty(name = "banking.search.enabled", havingValue = "true")
+// Customer-name lookup served from the in-memory CustomerNameIndex instead of a LIKE scan of the accounts table.
+public class AccountSearchRestController {
+
+    static final int MAX_LIMIT = 100;
+
+    private final CustomerNameIndex index;
+    private final BankingMetrics metrics;
+
+    public AccountSearchRestController(CustomerNameIndex index, BankingMetrics metrics) {
+        this.index = index;
+        this.metrics = metrics;
+    }
+
+    @GetMapping
+    public NameSearchResultDTO search(@RequestParam String q,
+                                      @RequestParam(defaultValue = "20") int limit,
+                                      @RequestParam(defaultValue = "true") boolean fuzzy) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return new NameSearchResultDTO(index.search(q, limit, fuzzy), index.isComplete());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException ex) {
+        metrics.recordBadRequest();
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleMalformedRequest(Exception ex) {
+        metrics.recordBadRequest();
+        return Map.of("error", "Malformed request");
+    }
+}
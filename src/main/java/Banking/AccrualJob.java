@@ -0,0 +1,453 @@
+package Banking;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Nightly interest and fee accrual over accounts, one checkpointed transaction per range of existing rows.
+@Component
+@ConditionalOnProperty(name = "banking.engine", havingValue = "jdbc", matchIfMissing = true)
+public class AccrualJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AccrualJob.class);
+
+    static final int MAX_RUN_ID_LENGTH = 64;
+    // Rates are held as parts per million, so 0.000137 is 137.
+    static final long RATE_SCALE = 1_000_000;
+    // Rows per round trip of the range cursor where the driver honours it (see BnkAccountDaoImpl.prepareStreaming).
+    static final int FETCH_SIZE = 1000;
+
+    private static final String RANGE_ACCOUNTS_SQL =
+            "SELECT account_number FROM accounts WHERE account_number BETWEEN ? AND ?";
+    private static final String ACCOUNT_KEYS_SQL = "SELECT account_number FROM accounts ORDER BY account_number";
+    private static final String SELECT_RANGE_SQL =
+            "SELECT account_number, ROUND(balance * 100) AS balance_cents FROM accounts"
+                    + " WHERE account_number BETWEEN ? AND ? ORDER BY account_number FOR UPDATE";
+    private static final String ADD_TO_BALANCE_SQL =
+            "UPDATE accounts SET balance = balance + ? * 0.01 WHERE account_number = ?";
+    private static final String SELECT_RUN_SQL =
+            "SELECT interest_rate_micros, fee_cents, range_size, completed_at FROM accrual_runs WHERE run_id = ?";
+    private static final String INSERT_RUN_SQL =
+            "INSERT INTO accrual_runs (run_id, interest_rate_micros, fee_cents, range_size) VALUES (?, ?, ?, ?)";
+    private static final String COMPLETE_RUN_SQL =
+            "UPDATE accrual_runs SET completed_at = CURRENT_TIMESTAMP WHERE run_id = ?";
+    private static final String INSERT_RANGE_SQL =
+            "INSERT INTO accrual_ranges (run_id, range_start, range_end) VALUES (?, ?, ?)";
+    private static final String COUNT_CHECKPOINTS_SQL =
+            "SELECT COUNT(*) FROM accrual_checkpoints WHERE run_id = ?";
+    private static final String SELECT_PENDING_RANGES_SQL =
+            "SELECT r.range_start, r.range_end FROM accrual_ranges r LEFT JOIN accrual_checkpoints c"
+                    + " ON c.run_id = r.run_id AND c.range_start = r.range_start"
+                    + " WHERE r.run_id = ? AND c.run_id IS NULL ORDER BY r.range_start";
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO accrual_checkpoints (run_id, range_start, accounts, interest_cents, fee_cents)"
+                    + " VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HotAccounts hotAccounts;
+    private final AccountDAO accountDAO;
+    private final AccountLockManager lockManager;
+    private final ReplicaRouting replicaRouting;
+    private final TransactionJournal journal;
+    // Rows per range. A range holds the lock stripes of all its accounts for its transaction, so smaller
+    // ranges keep single-account writes waiting less.
+    private final int rangeSize;
+    private final int parallelism;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final AtomicReference<Run> active = new AtomicReference<>();
+
+    @Autowired
+    public AccrualJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      HotAccounts hotAccounts, AccountDAO accountDAO, AccountLockManager lockManager,
+                      ReplicaRouting replicaRouting, ObjectProvider<TransactionJournal> journal,
+                      @Value("${banking.accrual.range-size:256}") int rangeSize,
+                      @Value("${banking.accrual.parallelism:4}") int parallelism) {
+        this(jdbcTemplate, transactionManager, hotAccounts, accountDAO, lockManager, replicaRouting,
+                journal.getIfAvailable(), rangeSize, parallelism);
+    }
+
+    AccrualJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, HotAccounts hotAccounts,
+               AccountDAO accountDAO, AccountLockManager lockManager, ReplicaRouting replicaRouting,
+               TransactionJournal journal, int rangeSize, int parallelism) {
+        if (rangeSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Accrual range size and parallelism must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotAccounts = hotAccounts;
+        this.accountDAO = accountDAO;
+        this.lockManager = lockManager;
+        this.replicaRouting = replicaRouting;
+        this.journal = journal;
+        this.rangeSize = rangeSize;
+        this.parallelism = parallelism;
+    }
+
+    // Registers or resumes the run and processes it on a background thread; poll status(runId) for progress.
+    public AccrualRunDTO start(String runId, long interestRateMicros, long feeCents) {
+        Run run = prepare(runId, interestRateMicros, feeCents);
+        Thread worker = new Thread(() -> execute(run), "accrual-" + runId);
+        worker.setDaemon(true);
+        worker.start();
+        return run.describe();
+    }
+
+    // Same as start, but returns only once every range has been attempted.
+    public AccrualRunDTO run(String runId, long interestRateMicros, long feeCents) {
+        Run run = prepare(runId, interestRateMicros, feeCents);
+        execute(run);
+        return run.describe();
+    }
+
+    // Progress of a run started since this instance came up, or null.
+    public AccrualRunDTO status(String runId) {
+        Run run = runs.get(runId);
+        return run == null ? null : run.describe();
+    }
+
+    // Converts a decimal rate such as 0.000137 to parts per million, rejecting finer precision.
+    static long rateMicros(BigDecimal rate) {
+        if (rate == null) {
+            return 0;
+        }
+        try {
+            return rate.movePointRight(6).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Interest rate supports at most 6 decimal places");
+        }
+    }
+
+    // Interest on a positive balance, rounded half up to the cent without overflowing for any DECIMAL(15,2).
+    static long interestCents(long balanceCents, long rateMicros) {
+        if (balanceCents <= 0) {
+            return 0;
+        }
+        return balanceCents / RATE_SCALE * rateMicros
+                + (balanceCents % RATE_SCALE * rateMicros + RATE_SCALE / 2) / RATE_SCALE;
+    }
+
+    private Run prepare(String runId, long interestRateMicros, long feeCents) {
+        if (runId == null || runId.isBlank() || runId.length() > MAX_RUN_ID_LENGTH) {
+            throw new IllegalArgumentException("Run id is required and must be at most " + MAX_RUN_ID_LENGTH + " characters");
+        }
+        if (interestRateMicros < 0 || interestRateMicros > RATE_SCALE || feeCents < 0) {
+            throw new IllegalArgumentException("Interest rate must be between 0 and 1 and the fee cannot be negative");
+        }
+        if (interestRateMicros == 0 && feeCents == 0) {
+            throw new IllegalArgumentException("Nothing to accrue: interest rate and fee are both zero");
+        }
+        Run run = new Run(runId, interestRateMicros, feeCents);
+        if (!active.compareAndSet(null, run)) {
+            throw new IllegalStateException("Accrual run " + active.get().runId + " is still running");
+        }
+        try {
+            registerRun(runId, interestRateMicros, feeCents);
+            int done = jdbcTemplate.queryForObject(COUNT_CHECKPOINTS_SQL, Integer.class, runId);
+            run.plan(pendingRanges(runId), done);
+            runs.put(runId, run);
+            return run;
+        } catch (RuntimeException e) {
+            active.set(null);
+            throw e;
+        }
+    }
+
+    // Records the run's parameters and ranges on first use; a resumed run must repeat them and keeps its ranges.
+    private void registerRun(String runId, long interestRateMicros, long feeCents) {
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(SELECT_RUN_SQL, runId);
+        if (existing.isEmpty()) {
+            Ranges ranges = planRanges();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_RUN_SQL, runId, interestRateMicros, feeCents, rangeSize);
+                jdbcTemplate.batchUpdate(INSERT_RANGE_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, runId);
+                        ps.setInt(2, ranges.starts[i]);
+                        ps.setInt(3, ranges.ends[i]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ranges.size;
+                    }
+                });
+            });
+            return;
+        }
+        Map<String, Object> row = existing.get(0);
+        if (row.get("completed_at") != null) {
+            throw new IllegalArgumentException("Accrual run " + runId + " has already completed");
+        }
+        if (((Number) row.get("interest_rate_micros")).longValue() != interestRateMicros
+                || ((Number) row.get("fee_cents")).longValue() != feeCents) {
+            throw new IllegalArgumentException("Accrual run " + runId + " was started with a different rate or fee");
+        }
+    }
+
+    // Ranges of rangeSize existing accounts each, from one streamed pass over the primary key. The first starts at
+    // Integer.MIN_VALUE and each ends just before the next, so an account opened later still falls in one.
+    private Ranges planRanges() {
+        Ranges ranges = new Ranges();
+        long[] rows = new long[1];
+        jdbcTemplate.query(con -> BnkAccountDaoImpl.prepareStreaming(con, ACCOUNT_KEYS_SQL, FETCH_SIZE),
+                (ResultSet rs) -> {
+                    if (rows[0]++ % rangeSize != 0) {
+                        return;
+                    }
+                    if (ranges.size == 0) {
+                        ranges.add(Integer.MIN_VALUE, Integer.MAX_VALUE);
+                    } else {
+                        int accountNumber = rs.getInt("account_number");
+                        ranges.ends[ranges.size - 1] = accountNumber - 1;
+                        ranges.add(accountNumber, Integer.MAX_VALUE);
+                    }
+                });
+        return ranges;
+    }
+
+    private Ranges pendingRanges(String runId) {
+        Ranges pending = new Ranges();
+        jdbcTemplate.query(SELECT_PENDING_RANGES_SQL, (ResultSet rs) -> {
+            pending.add(rs.getInt("range_start"), rs.getInt("range_end"));
+        }, runId);
+        return pending;
+    }
+
+    private void execute(Run run) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RangeTask(run, 0, run.pending.size));
+            if (run.rangesFailed.sum() == 0) {
+                jdbcTemplate.update(COMPLETE_RUN_SQL, run.runId);
+                run.finish(AccrualStatus.COMPLETED, null);
+            } else {
+                run.finish(AccrualStatus.FAILED, run.rangesFailed.sum() + " ranges failed, first: " + run.firstError.get()
+                        + "; submit the run again to retry them");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Accrual run {} failed", run.runId, e);
+            run.finish(AccrualStatus.FAILED, e.getMessage());
+        } finally {
+            pool.shutdown();
+            active.set(null);
+        }
+        log.info("Accrual run {} {}: {} ranges, {} accounts", run.runId, run.status,
+                run.rangesDone.sum(), run.accounts.sum());
+    }
+
+    // One transaction: the rows are read FOR UPDATE, the new balances go back as one JDBC batch and the
+    // checkpoint row commits with them, so rerunning the run id never credits an account twice.
+    private void accrueRange(Run run, int rangeStart, int rangeEnd) {
+        RangeBuffer buffer = new RangeBuffer();
+        // Stripes before row locks, the order every other writer here uses. The set is the accounts the range
+        // has now; one created after this read is still accrued, guarded by its row lock alone.
+        int[] stripes = lockManager.lockAll(accountsIn(rangeStart, rangeEnd));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int hot : hotAccounts.getAccountNumbers()) {
+                    if (hot >= rangeStart && hot <= rangeEnd) {
+                        HotAccountDao.fold(jdbcTemplate, hot);
+                    }
+                }
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = BnkAccountDaoImpl.prepareStreaming(con, SELECT_RANGE_SQL, FETCH_SIZE);
+                    ps.setInt(1, rangeStart);
+                    ps.setInt(2, rangeEnd);
+                    return ps;
+                }, (ResultSet rs) -> {
+                    buffer.accrue(rs.getInt("account_number"), rs.getLong("balance_cents"),
+                            run.interestRateMicros, run.feeCents);
+                });
+                // Written after the cursor is closed: a streaming result set must be drained before the
+                // connection can run another statement.
+                if (buffer.size > 0) {
+                    jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setLong(1, buffer.deltas[i]);
+                            ps.setInt(2, buffer.accountNumbers[i]);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return buffer.size;
+                        }
+                    });
+                }
+                jdbcTemplate.update(INSERT_CHECKPOINT_SQL, run.runId, rangeStart, buffer.rows,
+                        buffer.interestCents, buffer.feeCents);
+                // Before the commit and under the range's row locks, like JournalingAccountDao, so each account's
+                // ACCRUAL record lands in order with its other writes and a failed append rolls the range back.
+                if (journal != null) {
+                    for (int i = 0; i < buffer.size; i++) {
+                        journal.append(JournalRecordType.ACCRUAL, buffer.accountNumbers[i], 0, buffer.deltas[i]);
+                    }
+                }
+            });
+        } finally {
+            // As after any write: later reads of these accounts go to the primary and skip the cache and any
+            // query that was already in flight.
+            for (int i = 0; i < buffer.size; i++) {
+                replicaRouting.recordWrite(buffer.accountNumbers[i]);
+                accountDAO.invalidate(buffer.accountNumbers[i]);
+            }
+            lockManager.unlockAll(stripes);
+        }
+        run.rangesDone.increment();
+        run.accounts.add(buffer.rows);
+        run.interestCents.add(buffer.interestCents);
+        run.feeCentsCharged.add(buffer.feeCents);
+    }
+
+    private int[] accountsIn(int rangeStart, int rangeEnd) {
+        return jdbcTemplate.queryForList(RANGE_ACCOUNTS_SQL, Integer.class, rangeStart, rangeEnd).stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // Splits its slice of pending ranges in half until one range is left, then accrues that range.
+    private final class RangeTask extends RecursiveAction {
+        private final Run run;
+        private final int from;
+        private final int to;
+
+        RangeTask(Run run, int from, int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(run, from, middle), new RangeTask(run, middle, to));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            int rangeStart = run.pending.starts[from];
+            try {
+                accrueRange(run, rangeStart, run.pending.ends[from]);
+            } catch (RuntimeException e) {
+                // Rolled back with its checkpoint, so a rerun of the same id retries exactly this range.
+                log.warn("Accrual run {} failed range starting at {}", run.runId, rangeStart, e);
+                run.rangesFailed.increment();
+                run.firstError.compareAndSet(null, e.getMessage());
+            }
+        }
+    }
+
+    // Bounds of accrual ranges in primitive arrays, grown as rows arrive.
+    private static final class Ranges {
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int size;
+
+        void add(int start, int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    }
+
+    // Changed balances of one range in primitive arrays, grown as rows arrive.
+    private static final class RangeBuffer {
+        int[] accountNumbers = new int[256];
+        long[] deltas = new long[256];
+        int size;
+        long rows;
+        long interestCents;
+        long feeCents;
+
+        void accrue(int accountNumber, long balanceCents, long rateMicros, long fee) {
+            rows++;
+            long interest = interestCents(balanceCents, rateMicros);
+            // The fee takes at most what the balance holds after interest, so accrual never makes it negative.
+            long charged = Math.min(fee, Math.max(0, balanceCents + interest));
+            if (interest == charged) {
+                return;
+            }
+            if (size == accountNumbers.length) {
+                accountNumbers = Arrays.copyOf(accountNumbers, size * 2);
+                deltas = Arrays.copyOf(deltas, size * 2);
+            }
+            accountNumbers[size] = accountNumber;
+            deltas[size] = interest - charged;
+            size++;
+            interestCents += interest;
+            feeCents += charged;
+        }
+    }
+
+    private static final class Run {
+        final String runId;
+        final long interestRateMicros;
+        final long feeCents;
+        final long startedAt = System.currentTimeMillis();
+        final LongAdder rangesDone = new LongAdder();
+        final LongAdder rangesFailed = new LongAdder();
+        final LongAdder accounts = new LongAdder();
+        final LongAdder interestCents = new LongAdder();
+        final LongAdder feeCentsCharged = new LongAdder();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+        Ranges pending;
+        int rangesResumed;
+        volatile AccrualStatus status = AccrualStatus.RUNNING;
+        volatile String error;
+        volatile long finishedAt;
+
+        Run(String runId, long interestRateMicros, long feeCents) {
+            this.runId = runId;
+            this.interestRateMicros = interestRateMicros;
+            this.feeCents = feeCents;
+        }
+
+        void plan(Ranges pending, int rangesResumed) {
+            this.pending = pending;
+            this.rangesResumed = rangesResumed;
+        }
+
+        void finish(AccrualStatus outcome, String message) {
+            error = message;
+            finishedAt = System.currentTimeMillis();
+            status = outcome;
+        }
+
+        AccrualRunDTO describe() {
+            AccrualStatus current = status;
+            long end = current == AccrualStatus.RUNNING ? System.currentTimeMillis() : finishedAt;
+            return new AccrualRunDTO(runId, current, pending.size + rangesResumed, rangesResumed,
+                    rangesDone.sum(), rangesFailed.sum(), accounts.sum(), interestCents.sum(),
+                    feeCentsCharged.sum(), end - startedAt, error);
+        }
+    }
+}
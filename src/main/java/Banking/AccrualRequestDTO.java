@@ -0,0 +1,54 @@
+package Banking;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Request payload for POST /api/accruals: interest rate per run (e.g. 0.000137) and flat fee per account.
+public class AccrualRequestDTO {
+    private String runId;
+    private BigDecimal interestRate;
+    // Minor units (cents); bound to the decimal JSON "fee" such as 2.50.
+    private long feeCents;
+
+    public AccrualRequestDTO() {
+    }
+
+    // Constructor
+    public AccrualRequestDTO(String runId, BigDecimal interestRate, long feeCents) {
+        this.runId = runId;
+        this.interestRate = interestRate;
+        this.feeCents = feeCents;
+    }
+
+    // Getters and setters
+    public String getRunId() {
+        return runId;
+    }
+
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public BigDecimal getInterestRate() {
+        return interestRate;
+    }
+
+    public void setInterestRate(BigDecimal interestRate) {
+        this.interestRate = interestRate;
+    }
+
+    @JsonProperty("fee")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public long getFeeCents() {
+        return feeCents;
+    }
+
+    @JsonProperty("fee")
+    @JsonDeserialize(using = Money.AmountDeserializer.class)
+    public void setFeeCents(long feeCents) {
+        this.feeCents = feeCents;
+    }
+}
@@ -0,0 +1,72 @@
+package Banking;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/accruals")
+@ConditionalOnProperty(name = "banking.engine", havingValue = "jdbc", matchIfMissing = true)
+// Operator endpoints for the nightly interest/fee accrual: start or resume a run, then poll its progress.
+public class AccrualRestController {
+
+    private final AccrualJob accrualJob;
+    private final BankingMetrics metrics;
+
+    public AccrualRestController(AccrualJob accrualJob, BankingMetrics metrics) {
+        this.accrualJob = accrualJob;
+        this.metrics = metrics;
+    }
+
+    // Returns 202 straight away; resubmitting a run id that did not complete resumes it from its checkpoints.
+    @PostMapping
+    public ResponseEntity<AccrualRunDTO> start(@RequestBody AccrualRequestDTO request) {
+        AccrualRunDTO run = accrualJob.start(request.getRunId(), AccrualJob.rateMicros(request.getInterestRate()),
+                request.getFeeCents());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/accruals/" + run.getRunId()))
+                .body(run);
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<?> status(@PathVariable String runId) {
+        AccrualRunDTO run = accrualJob.status(runId);
+        if (run == null) {
+            metrics.recordNotFound();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Accrual run not found: " + runId));
+        }
+        return ResponseEntity.ok(run);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException ex) {
+        metrics.recordBadRequest();
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflict(IllegalStateException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleMalformedRequest(Exception ex) {
+        metrics.recordBadRequest();
+        return Map.of("error", "Malformed request");
+    }
+}
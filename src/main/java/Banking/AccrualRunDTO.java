@@ -0,0 +1,132 @@
+package Banking;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Progress of an accrual run; ranges counts the key-space ranges, of which rangesResumed were checkpointed earlier.
+public class AccrualRunDTO {
+    private String runId;
+    private AccrualStatus status;
+    private int ranges;
+    private int rangesResumed;
+    private long rangesDone;
+    private long rangesFailed;
+    private long accounts;
+    private long interestCents;
+    private long feeCents;
+    private long elapsedMs;
+    private String error;
+
+    public AccrualRunDTO() {
+    }
+
+    // Constructor
+    public AccrualRunDTO(String runId, AccrualStatus status, int ranges, int rangesResumed, long rangesDone,
+                         long rangesFailed, long accounts, long interestCents, long feeCents, long elapsedMs,
+                         String error) {
+        this.runId = runId;
+        this.status = status;
+        this.ranges = ranges;
+        this.rangesResumed = rangesResumed;
+        this.rangesDone = rangesDone;
+        this.rangesFailed = rangesFailed;
+        this.accounts = accounts;
+        this.interestCents = interestCents;
+        this.feeCents = feeCents;
+        this.elapsedMs = elapsedMs;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public String getRunId() {
+        return runId;
+    }
+
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public AccrualStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AccrualStatus status) {
+        this.status = status;
+    }
+
+    public int getRanges() {
+        return ranges;
+    }
+
+    public void setRanges(int ranges) {
+        this.ranges = ranges;
+    }
+
+    public int getRangesResumed() {
+        return rangesResumed;
+    }
+
+    public void setRangesResumed(int rangesResumed) {
+        this.rangesResumed = rangesResumed;
+    }
+
+    public long getRangesDone() {
+        return rangesDone;
+    }
+
+    public void setRangesDone(long rangesDone) {
+        this.rangesDone = rangesDone;
+    }
+
+    public long getRangesFailed() {
+        return rangesFailed;
+    }
+
+    public void setRangesFailed(long rangesFailed) {
+        this.rangesFailed = rangesFailed;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+
+    @JsonProperty("interest")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public long getInterestCents() {
+        return interestCents;
+    }
+
+    public void setInterestCents(long interestCents) {
+        this.interestCents = interestCents;
+    }
+
+    @JsonProperty("fees")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public long getFeeCents() {
+        return feeCents;
+    }
+
+    public void setFeeCents(long feeCents) {
+        this.feeCents = feeCents;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
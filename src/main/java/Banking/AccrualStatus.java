@@ -0,0 +1,9 @@
+package Banking;
+
+// Lifecycle of an accrual run as reported by GET /api/accruals/{runId}.
+public enum AccrualStatus {
+    RUNNING,
+    COMPLETED,
+    // Some ranges were rolled back; submitting the same run id again retries only those.
+    FAILED
+}
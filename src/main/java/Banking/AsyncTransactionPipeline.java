@@ -0,0 +1,216 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Bounded queue behind the asynchronous deposit and withdraw endpoints, drained in batches into applyBatch.
+@Component
+public class AsyncTransactionPipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTransactionPipeline.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final TransactionService transactionService;
+    private final int maxBatch;
+    private final int retainedResults;
+    private final long shutdownTimeoutMillis;
+    private final BlockingQueue<Operation>[] queues;
+    private final Thread[] workers;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Operation> operations = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+    // Submissions hold the read side while they check running and enqueue; close takes the write side to stop
+    // them, so nothing can be queued after close has decided what is left.
+    private final ReentrantReadWriteLock submissions = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    public AsyncTransactionPipeline(TransactionService transactionService, int queueCapacity, int workerCount,
+                                    int maxBatch, int retainedResults) {
+        this(transactionService, queueCapacity, workerCount, maxBatch, retainedResults, 30_000);
+    }
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public AsyncTransactionPipeline(TransactionService transactionService,
+                                    @Value("${banking.async.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${banking.async.workers:2}") int workerCount,
+                                    @Value("${banking.async.max-batch:500}") int maxBatch,
+                                    @Value("${banking.async.retained-results:100000}") int retainedResults,
+                                    @Value("${banking.async.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        if (workerCount <= 0 || queueCapacity < workerCount || maxBatch <= 0 || retainedResults < 0
+                || shutdownTimeoutMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Async pipeline needs at least one worker, one queue slot per worker and a positive batch size");
+        }
+        this.transactionService = transactionService;
+        this.maxBatch = maxBatch;
+        this.retainedResults = retainedResults;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queues = new BlockingQueue[workerCount];
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<Operation> queue = new ArrayBlockingQueue<>(queueCapacity / workerCount);
+            queues[i] = queue;
+            workers[i] = new Thread(() -> drain(queue), "async-tx-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    // Validates the amount and enqueues the operation; throws PipelineFullException when its queue has no room.
+    public OperationStatusDTO submit(TransactionType type, int accountNumber, long amountCents) {
+        TransactionService.validateAmount(amountCents);
+        submissions.readLock().lock();
+        try {
+            if (!running) {
+                throw new PipelineFullException("Asynchronous submissions are shutting down");
+            }
+            Operation operation = new Operation(nextId.incrementAndGet(), type, accountNumber, amountCents);
+            operations.put(operation.id, operation);
+            // An account always goes to the same worker, so its operations are applied in submission order.
+            if (!queues[Math.floorMod(accountNumber, queues.length)].offer(operation)) {
+                operations.remove(operation.id);
+                throw new PipelineFullException("Too many pending operations; retry later");
+            }
+            return operation.describe();
+        } finally {
+            submissions.readLock().unlock();
+        }
+    }
+
+    // Current state of an operation, or null once it is unknown or no longer retained.
+    public OperationStatusDTO status(long operationId) {
+        Operation operation = operations.get(operationId);
+        return operation == null ? null : operation.describe();
+    }
+
+    public int getPending() {
+        int pending = 0;
+        for (BlockingQueue<Operation> queue : queues) {
+            pending += queue.size();
+        }
+        return pending;
+    }
+
+    // Stops accepting work and waits up to the shutdown timeout for the workers to apply everything already
+    // queued; whatever they did not reach is marked FAILED, never left PENDING.
+    @Override
+    public void close() {
+        submissions.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submissions.writeLock().unlock();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<Operation> leftovers = new ArrayList<>();
+        for (BlockingQueue<Operation> queue : queues) {
+            queue.drainTo(leftovers);
+        }
+        if (!leftovers.isEmpty()) {
+            log.warn("Async pipeline closed with {} operations still queued; marking them failed", leftovers.size());
+            for (Operation operation : leftovers) {
+                finish(operation, BatchStatus.FAILED, "Not applied: the pipeline shut down first");
+            }
+        }
+    }
+
+    private void drain(BlockingQueue<Operation> queue) {
+        List<Operation> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            Operation first;
+            try {
+                first = running ? queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    private void apply(List<Operation> batch) {
+        List<BatchTransactionDTO> dtos = new ArrayList<>(batch.size());
+        for (Operation operation : batch) {
+            dtos.add(new BatchTransactionDTO(operation.type, operation.accountNumber, operation.amountCents));
+        }
+        try {
+            List<BatchResultDTO> results = transactionService.applyBatch(dtos);
+            for (int i = 0; i < batch.size(); i++) {
+                finish(batch.get(i), results.get(i).getStatus(), results.get(i).getError());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Async batch of {} operations failed", batch.size(), e);
+            for (Operation operation : batch) {
+                finish(operation, BatchStatus.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void finish(Operation operation, BatchStatus status, String error) {
+        operation.error = error;
+        operation.status = status;
+        finished.add(operation.id);
+        if (finishedCount.incrementAndGet() > retainedResults) {
+            Long oldest = finished.poll();
+            if (oldest != null) {
+                finishedCount.decrementAndGet();
+                operations.remove(oldest);
+            }
+        }
+    }
+
+    private static final class Operation {
+        final long id;
+        final TransactionType type;
+        final int accountNumber;
+        final long amountCents;
+        // Written by the worker after error, so a reader that sees the final status also sees its error.
+        volatile BatchStatus status = BatchStatus.PENDING;
+        volatile String error;
+
+        Operation(long id, TransactionType type, int accountNumber, long amountCents) {
+            this.id = id;
+            this.type = type;
+            this.accountNumber = accountNumber;
+            this.amountCents = amountCents;
+        }
+
+        OperationStatusDTO describe() {
+            BatchStatus current = status;
+            return new OperationStatusDTO(id, type, accountNumber, amountCents, current, error);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package Banking;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// One account whose stored balance differs from the journal; actual is null when the row is missing.
+public class BalanceMismatchDTO {
+    private int accountNumber;
+    private long expectedCents;
+    private Long actualCents;
+
+    public BalanceMismatchDTO() {
+    }
+
+    // Constructor
+    public BalanceMismatchDTO(int accountNumber, long expectedCents, Long actualCents) {
+        this.accountNumber = accountNumber;
+        this.expectedCents = expectedCents;
+        this.actualCents = actualCents;
+    }
+
+    // Getters and setters
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    @JsonProperty("expected")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public long getExpectedCents() {
+        return expectedCents;
+    }
+
+    public void setExpectedCents(long expectedCents) {
+        this.expectedCents = expectedCents;
+    }
+
+    @JsonProperty("actual")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public Long getActualCents() {
+        return actualCents;
+    }
+
+    public void setActualCents(Long actualCents) {
+        this.actualCents = actualCents;
+    }
+}
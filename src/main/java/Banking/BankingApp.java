@@ -8,9 +8,15 @@ import org.springframework.context.ConfigurableApplicationContext;
 
 /**
  * Optional CLI runner that boots Spring (without the web server) and uses the same service layer.
+ * With --load it runs LoadGenerator instead of the menu: in-process by default, or against a running
+ * server with --target=http://host:port (no Spring context is started then).
  */
 public class BankingApp {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (LoadGenerator.isRequested(args)) {
+            runLoad(args);
+            return;
+        }
         SpringApplication app = new SpringApplication(BankingApplication.class);
         app.setWebApplicationType(WebApplicationType.NONE);
 
@@ -34,7 +40,7 @@ public class BankingApp {
                             scanner.nextLine(); // consume newline
                             String customerName = scanner.nextLine();
                             System.out.print("Enter initial balance: ");
-                            double initialBalance = scanner.nextDouble();
+                            long initialBalance = Money.parse(scanner.next());
                             Account newAccount = new Account(accountNumber, customerName, initialBalance);
                             service.createAccount(newAccount);
                             System.out.println("Account created: " + newAccount);
@@ -43,31 +49,31 @@ public class BankingApp {
                             System.out.print("Enter account number: ");
                             int accountNumber = scanner.nextInt();
                             System.out.print("Enter deposit amount: ");
-                            double amount = scanner.nextDouble();
+                            long amount = Money.parse(scanner.next());
                             Account updated = service.deposit(accountNumber, amount);
-                            System.out.println("Deposit successful. New balance: $" + updated.getBalance());
+                            System.out.println("Deposit successful. New balance: $" + Money.format(updated.getBalanceCents()));
                         }
                         case 3 -> {
                             System.out.print("Enter account number: ");
                             int accountNumber = scanner.nextInt();
                             System.out.print("Enter withdrawal amount: ");
-                            double amount = scanner.nextDouble();
+                            long amount = Money.parse(scanner.next());
                             Account updated = service.withdraw(accountNumber, amount);
-                            System.out.println("Withdrawal successful. New balance: $" + updated.getBalance());
+                            System.out.println("Withdrawal successful. New balance: $" + Money.format(updated.getBalanceCents()));
                         }
                         case 4 -> {
                             System.out.print("Enter account number: ");
                             int accountNumber = scanner.nextInt();
                             System.out.print("Enter new balance: ");
-                            double newBalance = scanner.nextDouble();
+                            long newBalance = Money.parse(scanner.next());
                             Account updated = service.updateBalance(accountNumber, newBalance);
-                            System.out.println("Balance updated. New balance: $" + updated.getBalance());
+                            System.out.println("Balance updated. New balance: $" + Money.format(updated.getBalanceCents()));
                         }
                         case 5 -> {
                             System.out.print("Enter account number: ");
                             int accountNumber = scanner.nextInt();
                             Account account = service.viewAccount(accountNumber);
-                            System.out.println("Current balance: $" + account.getBalance());
+                            System.out.println("Current balance: $" + Money.format(account.getBalanceCents()));
                         }
                         case 6 -> System.out.println("Exiting the application. Goodbye!");
                         default -> System.out.println("Invalid choice. Please try again.");
@@ -78,4 +84,18 @@ public class BankingApp {
             } while (choice != 6);
         }
     }
+
+    private static void runLoad(String[] args) throws Exception {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(args);
+        if (options.isHttp()) {
+            new LoadGenerator(options, new LoadGenerator.HttpTarget(options.target)).run().print(System.out);
+            return;
+        }
+        SpringApplication app = new SpringApplication(BankingApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = app.run(args)) {
+            TransactionService service = context.getBean(TransactionService.class);
+            new LoadGenerator(options, new LoadGenerator.ServiceTarget(service)).run().print(System.out);
+        }
+    }
 }
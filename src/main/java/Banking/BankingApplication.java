@@ -3,7 +3,9 @@ package Banking;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// By name, since R2DBC is only on the classpath in the reactive build, where its ConnectionFactory
+// would otherwise switch off the JDBC DataSource.
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
 // Spring Boot entrypoint that starts the REST API server.
 public class BankingApplication {
     public static void main(String[] args) {
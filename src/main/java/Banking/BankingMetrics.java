@@ -0,0 +1,165 @@
+package Banking;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.metrics.PoolStats;
+
+// Latency histograms, outcome counters and connection-pool gauges behind GET /api/metrics.
+@Component
+public class BankingMetrics {
+
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    private final Map<String, LatencyHistogram> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, Pool> pools = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<String, LatencyHistogram>> httpTimers = new ConcurrentHashMap<>();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder insufficientFunds = new LongAdder();
+    private final LongAdder badRequest = new LongAdder();
+    private final LongAdder coalescedReads = new LongAdder();
+
+    // Returns the histogram registered under name, creating it on first use. Callers look it up once and keep it,
+    // so recording does no map lookup.
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Histogram for one HTTP route; both keys are strings the container already holds, so a hit allocates nothing.
+    public LatencyHistogram httpTimer(String method, String route) {
+        Map<String, LatencyHistogram> byRoute = httpTimers.get(method);
+        LatencyHistogram timer = byRoute == null ? null : byRoute.get(route);
+        if (timer == null) {
+            timer = timer("http." + method + " " + route);
+            httpTimers.computeIfAbsent(method, m -> new ConcurrentHashMap<>()).putIfAbsent(route, timer);
+        }
+        return timer;
+    }
+
+    // Registers a Hikari pool; PoolMetricsTracker feeds its wait histogram and binds its gauges when the pool starts.
+    public Pool pool(String name) {
+        return pools.computeIfAbsent(name, Pool::new);
+    }
+
+    public void recordNotFound() {
+        notFound.increment();
+    }
+
+    public void recordInsufficientFunds() {
+        insufficientFunds.increment();
+    }
+
+    public void recordBadRequest() {
+        badRequest.increment();
+    }
+
+    // A getAccount that shared another caller's in-flight query instead of issuing its own.
+    public void recordCoalescedRead() {
+        coalescedReads.increment();
+    }
+
+    public long getNotFound() {
+        return notFound.sum();
+    }
+
+    public long getInsufficientFunds() {
+        return insufficientFunds.sum();
+    }
+
+    public long getBadRequest() {
+        return badRequest.sum();
+    }
+
+    public long getCoalescedReads() {
+        return coalescedReads.sum();
+    }
+
+    // JSON-friendly view of everything recorded so far; latencies are reported in microseconds.
+    public Map<String, Object> snapshot() {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        timers.forEach((name, timer) -> operations.put(name, describe(timer)));
+
+        Map<String, Object> outcomes = new LinkedHashMap<>();
+        outcomes.put("notFound", getNotFound());
+        outcomes.put("insufficientFunds", getInsufficientFunds());
+        outcomes.put("badRequest", getBadRequest());
+        outcomes.put("coalescedReads", getCoalescedReads());
+
+        Map<String, Object> poolGauges = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> poolGauges.put(name, pool.describe()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("operations", operations);
+        snapshot.put("outcomes", outcomes);
+        snapshot.put("pools", poolGauges);
+        return snapshot;
+    }
+
+    static Map<String, Object> describe(LatencyHistogram timer) {
+        long[] values = timer.percentiles(PERCENTILES);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", timer.getCount());
+        stats.put("meanUs", micros((long) timer.getMeanNanos()));
+        stats.put("p50Us", micros(values[0]));
+        stats.put("p99Us", micros(values[1]));
+        stats.put("p999Us", micros(values[2]));
+        stats.put("maxUs", micros(timer.getMaxNanos()));
+        return stats;
+    }
+
+    private static double micros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    // One connection pool: time spent waiting for a connection, timeouts, and live gauges from Hikari.
+    public static class Pool {
+        private final String name;
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+        private volatile PoolStats stats;
+
+        Pool(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getAcquire() {
+            return acquire;
+        }
+
+        public void recordTimeout() {
+            timeouts.increment();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        void bind(PoolStats stats) {
+            this.stats = stats;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> gauges = new LinkedHashMap<>();
+            PoolStats current = stats;
+            if (current != null) {
+                gauges.put("active", current.getActiveConnections());
+                gauges.put("idle", current.getIdleConnections());
+                gauges.put("total", current.getTotalConnections());
+                gauges.put("max", current.getMaxConnections());
+                gauges.put("threadsAwaiting", current.getPendingThreads());
+            }
+            gauges.put("timeouts", getTimeouts());
+            gauges.put("acquire", BankingMetrics.describe(acquire));
+            return gauges;
+        }
+    }
+}
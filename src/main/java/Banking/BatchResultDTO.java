@@ -0,0 +1,43 @@
+package Banking;
+
+// Response item for a batch request, in the same order as the submitted operations.
+public class BatchResultDTO {
+    private int accountNumber;
+    private BatchStatus status;
+    private String error;
+
+    public BatchResultDTO() {
+    }
+
+    // Constructor
+    public BatchResultDTO(int accountNumber, BatchStatus status, String error) {
+        this.accountNumber = accountNumber;
+        this.status = status;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BatchStatus status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,12 @@
+package Banking;
+
+// Per-operation outcome reported by the batch endpoint.
+public enum BatchStatus {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_FUNDS,
+    INVALID,
+    FAILED,
+    // Only reported for asynchronous operations that a worker has not applied yet.
+    PENDING
+}
@@ -0,0 +1,24 @@
+package Banking;
+
+// One operation in a batch request: a TransactionDTO plus the kind of operation to apply.
+public class BatchTransactionDTO extends TransactionDTO {
+    private TransactionType type;
+
+    public BatchTransactionDTO() {
+    }
+
+    // Constructor
+    public BatchTransactionDTO(TransactionType type, int accountNumber, long amountCents) {
+        super(accountNumber, amountCents);
+        this.type = type;
+    }
+
+    // Getters and setters
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+}
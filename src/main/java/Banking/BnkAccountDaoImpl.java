@@ -1,45 +1,122 @@
 package Banking;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Repository
+@Profile("!embedded & !memory")
 // JdbcTemplate-backed implementation of AccountDAO.
 public class BnkAccountDaoImpl implements AccountDAO {
 
+    // Amounts cross the JDBC boundary as whole cents; the exact DECIMAL(15,2) <-> cents scaling happens
+    // in SQL, so neither side of the driver needs BigDecimal or double. ROUND(balance * 100) is read with
+    // getLong: CAST(... AS SIGNED) would be 64-bit on MySQL but a 32-bit INTEGER on H2.
+    private static final String SELECT_ACCOUNT_SQL =
+            "SELECT account_number, customer_name, ROUND(balance * 100) AS balance_cents FROM accounts";
+    private static final String SET_BALANCE_SQL =
+            "UPDATE accounts SET balance = ? * 0.01 WHERE account_number = ?";
+    private static final String ADD_DELTA_SQL =
+            "UPDATE accounts SET balance = balance + ? * 0.01 WHERE account_number = ?";
+    private static final String TRANSFER_SQL =
+            "UPDATE accounts SET balance = balance + CASE WHEN account_number = ? THEN ? ELSE ? END * 0.01"
+                    + " WHERE account_number IN (?, ?)";
+    private static final String DELTA_GUARD_SQL = " AND balance * 100 + ? >= ?";
+    private static final String ADD_GUARDED_DELTA_SQL = ADD_DELTA_SQL + DELTA_GUARD_SQL;
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO accounts (account_number, customer_name, balance) VALUES (?, ?, ? * 0.01)";
+    // Rows fetched per round trip by exportAccounts on drivers that honour a fetch size; see prepareStreaming.
+    static final int EXPORT_FETCH_SIZE = 1000;
+    // Rows per multi-row INSERT in createAccounts; full groups share one statement text and go out as a JDBC batch.
+    static final int INSERT_ROWS_PER_STATEMENT = 100;
+    private static final String MULTI_ROW_INSERT_SQL = multiRowInsertSql(INSERT_ROWS_PER_STATEMENT);
+
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     // Maps DB rows to Account domain objects.
     private final RowMapper<Account> accountRowMapper = (rs, rowNum) ->
             new Account(
                     rs.getInt("account_number"),
                     rs.getString("customer_name"),
-                    rs.getDouble("balance")
+                    rs.getLong("balance_cents")
             );
 
-    public BnkAccountDaoImpl(JdbcTemplate jdbcTemplate) {
+    public BnkAccountDaoImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
         this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
     public void createAccount(Account account) {
         jdbcTemplate.update(
-                "INSERT INTO accounts (account_number, customer_name, balance) VALUES (?, ?, ?)",
+                INSERT_ACCOUNT_SQL,
                 account.getAccountNumber(),
                 account.getCustomerName(),
-                account.getBalance()
+                account.getBalanceCents()
         );
     }
 
     @Override
-    public void updateBalance(int accountNumber, double newBalance) {
-        int updated = jdbcTemplate.update(
-                "UPDATE accounts SET balance = ? WHERE account_number = ?",
-                newBalance,
-                accountNumber
-        );
+    public boolean[] createAccounts(List<Account> accounts) {
+        return transactionTemplate.execute(status -> {
+            boolean[] created = new boolean[accounts.size()];
+            List<Integer> accountNumbers = new ArrayList<>(accounts.size());
+            for (Account account : accounts) {
+                accountNumbers.add(account.getAccountNumber());
+            }
+            // One lookup filters out existing numbers, so a duplicate rejects one row instead of failing the
+            // whole multi-row statement.
+            Set<Integer> taken = accounts.isEmpty() ? new HashSet<>() : existingAccounts(accountNumbers);
+            List<Account> fresh = new ArrayList<>(accounts.size());
+            for (int i = 0; i < created.length; i++) {
+                if (taken.add(accounts.get(i).getAccountNumber())) {
+                    fresh.add(accounts.get(i));
+                    created[i] = true;
+                }
+            }
+            int fullGroups = fresh.size() / INSERT_ROWS_PER_STATEMENT;
+            if (fullGroups > 0) {
+                jdbcTemplate.batchUpdate(MULTI_ROW_INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindRows(ps, fresh.subList(i * INSERT_ROWS_PER_STATEMENT, (i + 1) * INSERT_ROWS_PER_STATEMENT));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return fullGroups;
+                    }
+                });
+            }
+            List<Account> tail = fresh.subList(fullGroups * INSERT_ROWS_PER_STATEMENT, fresh.size());
+            if (!tail.isEmpty()) {
+                jdbcTemplate.update(multiRowInsertSql(tail.size()), ps -> bindRows(ps, tail));
+            }
+            return created;
+        });
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        int updated = jdbcTemplate.update(SET_BALANCE_SQL, newBalanceCents, accountNumber);
         if (updated == 0) {
             // Surface a domain-friendly error when no row was updated.
             throw new AccountNotFoundException("Account not found: " + accountNumber);
@@ -47,15 +124,15 @@ public class BnkAccountDaoImpl implements AccountDAO {
     }
 
     @Override
-    public double getBalance(int accountNumber) {
-        return getAccount(accountNumber).getBalance();
+    public long getBalance(int accountNumber) {
+        return getAccount(accountNumber).getBalanceCents();
     }
 
     @Override
     public Account getAccount(int accountNumber) {
         try {
             return jdbcTemplate.queryForObject(
-                    "SELECT account_number, customer_name, balance FROM accounts WHERE account_number = ?",
+                    SELECT_ACCOUNT_SQL + " WHERE account_number = ?",
                     accountRowMapper,
                     accountNumber
             );
@@ -63,5 +140,281 @@ public class BnkAccountDaoImpl implements AccountDAO {
             throw new AccountNotFoundException("Account not found: " + accountNumber);
         }
     }
-}
 
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        // The guard runs inside the autocommitted UPDATE, so concurrent deltas serialize on the row lock instead
+        // of racing on a balance computed in Java. The read-back is a plain primary-key SELECT: it may already
+        // include later deltas, but never misses this one. Two round trips, as getAccount + updateBalance were.
+        int count = minBalanceCents == NO_MIN_BALANCE
+                ? jdbcTemplate.update(ADD_DELTA_SQL, deltaCents, accountNumber)
+                : jdbcTemplate.update(ADD_GUARDED_DELTA_SQL, deltaCents, accountNumber, deltaCents, minBalanceCents);
+        Account updated = count == 0 ? null : getAccount(accountNumber);
+        if (updated == null) {
+            // Only the failure path pays for telling a missing row apart from a failed guard.
+            if (existingAccounts(Collections.singletonList(accountNumber)).isEmpty()) {
+                throw new AccountNotFoundException("Account not found: " + accountNumber);
+            }
+            throw new InsufficientFundsException("Insufficient funds for withdrawal");
+        }
+        return updated;
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        // Keyset pagination: the primary-key range seek costs the same on page 10,000 as on page 1, unlike OFFSET.
+        if (afterAccountNumber == null) {
+            return jdbcTemplate.query(SELECT_ACCOUNT_SQL + " ORDER BY account_number LIMIT ?", accountRowMapper, limit);
+        }
+        return jdbcTemplate.query(SELECT_ACCOUNT_SQL + " WHERE account_number > ? ORDER BY account_number LIMIT ?",
+                accountRowMapper, afterAccountNumber, limit);
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_ACCOUNT_SQL).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(3);
+        if (filter.getMinBalanceCents() != null) {
+            sql.append(" AND balance >= ? * 0.01");
+            args.add(filter.getMinBalanceCents());
+        }
+        if (filter.getMaxBalanceCents() != null) {
+            sql.append(" AND balance <= ? * 0.01");
+            args.add(filter.getMaxBalanceCents());
+        }
+        if (filter.getCustomerName() != null && !filter.getCustomerName().isEmpty()) {
+            sql.append(" AND customer_name LIKE ? ESCAPE '!'");
+            args.add("%" + escapeLike(filter.getCustomerName()) + "%");
+        }
+        sql.append(" ORDER BY account_number");
+        Account row = new Account();
+        long[] count = new long[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = prepareStreaming(con, sql.toString(), EXPORT_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            // One Account is refilled per row, so memory stays flat however large the table is.
+            row.setAccountNumber(rs.getInt("account_number"));
+            row.setCustomerName(rs.getString("customer_name"));
+            row.setBalanceCents(rs.getLong("balance_cents"));
+            sink.accept(row);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        return transactionTemplate.execute(status -> {
+            BatchStatus[] outcomes = new BatchStatus[operations.size()];
+            if (operations.isEmpty()) {
+                return outcomes;
+            }
+            // Every row the batch touches is locked up front, lowest account number first like transfer, so two
+            // batches touching the same accounts in opposite orders queue on the first shared row instead of
+            // deadlocking. The same read tells a missing account apart from a failed withdrawal guard later.
+            Set<Integer> existing = lockAccounts(operations);
+            // With the rows held, statement order no longer matters for locking: one JDBC batch per type and stage.
+            long[] keys = batchOrder(operations);
+            int start = 0;
+            while (start < keys.length) {
+                long group = keys[start] >>> 32;
+                int end = start + 1;
+                while (end < keys.length && keys[end] >>> 32 == group) {
+                    end++;
+                }
+                int runStart = start;
+                int runEnd = end;
+                TransactionType type = operations.get((int) keys[start]).getType();
+                int[] counts = jdbcTemplate.batchUpdate(sqlFor(type), new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindOperation(ps, operations.get((int) keys[runStart + i]));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return runEnd - runStart;
+                    }
+                });
+                for (int i = 0; i < counts.length; i++) {
+                    int index = (int) keys[start + i];
+                    if (counts[i] != 0) {
+                        outcomes[index] = BatchStatus.APPLIED;
+                    } else if (type == TransactionType.WITHDRAW
+                            && existing.contains(operations.get(index).getAccountNumber())) {
+                        outcomes[index] = BatchStatus.INSUFFICIENT_FUNDS;
+                    } else {
+                        outcomes[index] = BatchStatus.NOT_FOUND;
+                    }
+                }
+                start = end;
+            }
+            return outcomes;
+        });
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        return transactionTemplate.execute(status -> {
+            // A primary-key IN scan visits rows in key order, so both rows are locked lowest account number
+            // first whichever direction the money moves. Two opposite transfers between the same pair can
+            // therefore never each hold one row while waiting for the other.
+            List<Account> locked = jdbcTemplate.query(
+                    SELECT_ACCOUNT_SQL + " WHERE account_number IN (?, ?) ORDER BY account_number FOR UPDATE",
+                    accountRowMapper,
+                    Math.min(fromAccountNumber, toAccountNumber),
+                    Math.max(fromAccountNumber, toAccountNumber));
+            Account from = null;
+            Account to = null;
+            for (Account account : locked) {
+                if (account.getAccountNumber() == fromAccountNumber) {
+                    from = account;
+                } else {
+                    to = account;
+                }
+            }
+            if (from == null) {
+                throw new AccountNotFoundException("Account not found: " + fromAccountNumber);
+            }
+            if (to == null) {
+                throw new AccountNotFoundException("Account not found: " + toAccountNumber);
+            }
+            if (from.getBalanceCents() < amountCents) {
+                throw new InsufficientFundsException("Insufficient funds for transfer");
+            }
+            // Both legs in one statement; the rows are already locked so the checked balance still holds.
+            jdbcTemplate.update(TRANSFER_SQL, fromAccountNumber, -amountCents, amountCents,
+                    fromAccountNumber, toAccountNumber);
+            from.setBalanceCents(from.getBalanceCents() - amountCents);
+            to.setBalanceCents(to.getBalanceCents() + amountCents);
+            return new TransferResultDTO(from, to);
+        });
+    }
+
+    // Sort keys grouping the operations into as few same-type batches as each account's own order allows:
+    // (stage, type) in the high half and the submission index in the low half. An account's stage goes up each
+    // time its next operation changes type, so a deposit then a withdrawal on one account land in successive
+    // stages, while a mix spread over distinct accounts stays in stage 0 with at most one batch per type.
+    static long[] batchOrder(List<BatchTransactionDTO> operations) {
+        int types = TransactionType.values().length;
+        // Per account: stage * types + type of its latest operation, plus one so absent reads as 0.
+        IntLongHashMap latest = new IntLongHashMap(operations.size());
+        long[] keys = new long[operations.size()];
+        for (int i = 0; i < keys.length; i++) {
+            BatchTransactionDTO op = operations.get(i);
+            int type = op.getType().ordinal();
+            long previous = latest.get(op.getAccountNumber(), 0) - 1;
+            long group;
+            if (previous < 0) {
+                group = type;
+            } else if (previous % types == type) {
+                group = previous;
+            } else {
+                group = (previous / types + 1) * types + type;
+            }
+            latest.put(op.getAccountNumber(), group + 1);
+            keys[i] = group << 32 | i;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    // Indices of the operations ordered by account number, ties in submission order; R2dbcAccountDao applies
+    // its batches in this order.
+    static int[] lockOrder(List<BatchTransactionDTO> operations) {
+        // Account number in the high half and index in the low half: one primitive sort, stable by construction.
+        long[] keys = new long[operations.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) operations.get(i).getAccountNumber() << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static String sqlFor(TransactionType type) {
+        return switch (type) {
+            case DEPOSIT -> ADD_DELTA_SQL;
+            case WITHDRAW -> ADD_GUARDED_DELTA_SQL;
+            case SET_BALANCE -> SET_BALANCE_SQL;
+        };
+    }
+
+    private static void bindOperation(PreparedStatement ps, BatchTransactionDTO op) throws SQLException {
+        switch (op.getType()) {
+            case DEPOSIT, SET_BALANCE -> {
+                ps.setLong(1, op.getAmountCents());
+                ps.setInt(2, op.getAccountNumber());
+            }
+            case WITHDRAW -> {
+                ps.setLong(1, -op.getAmountCents());
+                ps.setInt(2, op.getAccountNumber());
+                ps.setLong(3, -op.getAmountCents());
+                ps.setLong(4, 0);
+            }
+        }
+    }
+
+    // A forward-only statement whose rows reach the caller as they arrive. Connector/J ignores a positive
+    // fetch size unless cursor fetch is on for the whole connection, so on MySQL the statement asks for the
+    // driver's row-by-row streaming instead; the connection can run nothing else until the rows are drained.
+    static PreparedStatement prepareStreaming(Connection con, String sql, int fetchSize) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize("MySQL".equals(con.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : fetchSize);
+        return ps;
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    static String multiRowInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO accounts (account_number, customer_name, balance) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ? * 0.01)" : ", (?, ?, ? * 0.01)");
+        }
+        return sql.toString();
+    }
+
+    private static void bindRows(PreparedStatement ps, List<Account> rows) throws SQLException {
+        int index = 1;
+        for (Account account : rows) {
+            ps.setInt(index++, account.getAccountNumber());
+            ps.setString(index++, account.getCustomerName());
+            ps.setLong(index++, account.getBalanceCents());
+        }
+    }
+
+    // Locks the rows of every account the operations touch in account-number order; returns those that exist.
+    private Set<Integer> lockAccounts(List<BatchTransactionDTO> operations) {
+        int[] accountNumbers = new int[operations.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = operations.get(i).getAccountNumber();
+        }
+        Object[] distinct = Arrays.stream(accountNumbers).sorted().distinct().boxed().toArray();
+        String placeholders = String.join(", ", Collections.nCopies(distinct.length, "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT account_number FROM accounts WHERE account_number IN (" + placeholders + ")"
+                        + " ORDER BY account_number FOR UPDATE",
+                Integer.class,
+                distinct
+        ));
+    }
+
+    // Returns which of the given account numbers exist, in a single round trip.
+    private Set<Integer> existingAccounts(List<Integer> accountNumbers) {
+        String placeholders = String.join(", ", Collections.nCopies(accountNumbers.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT account_number FROM accounts WHERE account_number IN (" + placeholders + ")",
+                Integer.class,
+                accountNumbers.toArray()
+        ));
+    }
+}
@@ -0,0 +1,108 @@
+package Banking;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Read-through AccountCache in front of another AccountDAO; every write invalidates after it reaches the store.
+public class CachingAccountDao implements AccountDAO {
+
+    private final AccountDAO delegate;
+    private final AccountCache cache;
+
+    public CachingAccountDao(AccountDAO delegate, AccountCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        delegate.createAccount(account);
+        cache.invalidate(account.getAccountNumber());
+    }
+
+    @Override
+    public boolean[] createAccounts(List<Account> accounts) {
+        try {
+            return delegate.createAccounts(accounts);
+        } finally {
+            for (Account account : accounts) {
+                cache.invalidate(account.getAccountNumber());
+            }
+        }
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        try {
+            delegate.updateBalance(accountNumber, newBalanceCents);
+        } finally {
+            cache.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        return getAccount(accountNumber).getBalanceCents();
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        Account cached = cache.get(accountNumber);
+        if (cached != null) {
+            return cached;
+        }
+        long token = cache.fillToken(accountNumber);
+        Account loaded = delegate.getAccount(accountNumber);
+        cache.fill(loaded, token);
+        return loaded;
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        try {
+            return delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+        } finally {
+            cache.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        return delegate.listAccounts(afterAccountNumber, limit);
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        return delegate.exportAccounts(filter, sink);
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        try {
+            return delegate.applyBatch(operations);
+        } finally {
+            for (BatchTransactionDTO op : operations) {
+                cache.invalidate(op.getAccountNumber());
+            }
+        }
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        try {
+            return delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+        } finally {
+            cache.invalidate(fromAccountNumber);
+            cache.invalidate(toAccountNumber);
+        }
+    }
+
+    @Override
+    public void invalidate(int accountNumber) {
+        try {
+            delegate.invalidate(accountNumber);
+        } finally {
+            cache.invalidate(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package Banking;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Single-flight getAccount: concurrent reads of one account share a single SELECT.
+public class CoalescingAccountDao implements AccountDAO {
+
+    private final AccountDAO delegate;
+    private final ReplicaRouting replicaRouting;
+    private final BankingMetrics metrics;
+    private final ConcurrentHashMap<Long, CompletableFuture<Account>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingAccountDao(AccountDAO delegate, ReplicaRouting replicaRouting, BankingMetrics metrics) {
+        this.delegate = delegate;
+        this.replicaRouting = replicaRouting;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        Long key = flightKey(accountNumber, replicaRouting.isReplicaRead());
+        CompletableFuture<Account> flight = new CompletableFuture<>();
+        CompletableFuture<Account> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            metrics.recordCoalescedRead();
+            return copy(await(running));
+        }
+        try {
+            Account account = delegate.getAccount(accountNumber);
+            // Joiners copy a private snapshot, so the caller here may modify the account it gets back.
+            flight.complete(copy(account));
+            return account;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        return getAccount(accountNumber).getBalanceCents();
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        try {
+            delegate.createAccount(account);
+        } finally {
+            retire(account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public boolean[] createAccounts(List<Account> accounts) {
+        try {
+            return delegate.createAccounts(accounts);
+        } finally {
+            for (Account account : accounts) {
+                retire(account.getAccountNumber());
+            }
+        }
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        try {
+            delegate.updateBalance(accountNumber, newBalanceCents);
+        } finally {
+            retire(accountNumber);
+        }
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        try {
+            return delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+        } finally {
+            retire(accountNumber);
+        }
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        return delegate.listAccounts(afterAccountNumber, limit);
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        return delegate.exportAccounts(filter, sink);
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        try {
+            return delegate.applyBatch(operations);
+        } finally {
+            for (BatchTransactionDTO op : operations) {
+                retire(op.getAccountNumber());
+            }
+        }
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        try {
+            return delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+        } finally {
+            retire(fromAccountNumber);
+            retire(toAccountNumber);
+        }
+    }
+
+    @Override
+    public void invalidate(int accountNumber) {
+        try {
+            delegate.invalidate(accountNumber);
+        } finally {
+            retire(accountNumber);
+        }
+    }
+
+    // Later readers of this account start a fresh query; callers already waiting keep their result. Every write
+    // retires its accounts, so a read that starts after a write returns never joins a query issued before it.
+    private void retire(int accountNumber) {
+        inFlight.remove(flightKey(accountNumber, false));
+        inFlight.remove(flightKey(accountNumber, true));
+    }
+
+    // Replica and primary reads are separate flights, so read-your-writes routing still holds.
+    private static Long flightKey(int accountNumber, boolean replica) {
+        return (long) accountNumber << 1 | (replica ? 1 : 0);
+    }
+
+    private static Account await(CompletableFuture<Account> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static Account copy(Account account) {
+        return new Account(account.getAccountNumber(), account.getCustomerName(), account.getBalanceCents());
+    }
+}
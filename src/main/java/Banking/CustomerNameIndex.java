@@ -0,0 +1,486 @@
+package Banking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// In-memory trigram index over customer names for prefix and typo-tolerant search.
+public class CustomerNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerNameIndex.class);
+
+    // Words are padded with two of these in front, so a one- or two-letter prefix still has a trigram.
+    private static final char PAD = '$';
+    // Upper bound on names checked by edit distance per fuzzy search, best trigram overlap first.
+    static final int MAX_FUZZY_CANDIDATES = 20_000;
+    // Upper bound on posting-list entries merged per fuzzy search; a common trigram such as "$$s" lists a large
+    // share of all names.
+    static final int MAX_FUZZY_POSTINGS = 200_000;
+    // Rough per-trigram overhead of the posting-list object and its array header; table slots are counted apart.
+    private static final int POSTING_LIST_OVERHEAD = 40;
+
+    private final long maxMemoryBytes;
+    private final int maxFuzzyPostings;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PostingTable postings = new PostingTable();
+
+    // Every name once, as UTF-8; document ids index nameOffsets and accountNumbers.
+    private byte[] names = new byte[64 * 1024];
+    private int namesLength;
+    private int[] nameOffsets = new int[1024];
+    private int[] accountNumbers = new int[1024];
+    private int documents;
+    private long postingCapacity;
+
+    private volatile boolean loaded;
+    private volatile boolean truncated;
+
+    public CustomerNameIndex(long maxMemoryBytes) {
+        this(maxMemoryBytes, MAX_FUZZY_POSTINGS);
+    }
+
+    CustomerNameIndex(long maxMemoryBytes, int maxFuzzyPostings) {
+        if (maxMemoryBytes <= 0) {
+            throw new IllegalArgumentException("banking.search.max-memory-mb must be positive");
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxFuzzyPostings = maxFuzzyPostings;
+    }
+
+    // Indexes one name; returns false once the memory budget is exhausted.
+    public boolean add(int accountNumber, String customerName) {
+        if (customerName == null) {
+            return true;
+        }
+        List<String> words = words(customerName);
+        byte[] encoded = customerName.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            if (truncated) {
+                return false;
+            }
+            long grams = 0;
+            for (String word : words) {
+                grams += word.length() + 2;
+            }
+            // Budgets as if every trigram were new: a posting list each, and the table doubling if it must.
+            long added = encoded.length + 8 + grams * (4 + POSTING_LIST_OVERHEAD) + postings.growthBytes(grams);
+            if (estimatedBytes() + added > maxMemoryBytes) {
+                truncated = true;
+                log.warn("Customer name index reached its {} byte budget at {} names; later accounts are not searchable",
+                        maxMemoryBytes, documents);
+                return false;
+            }
+            int doc = documents;
+            if (doc == accountNumbers.length) {
+                accountNumbers = Arrays.copyOf(accountNumbers, doc * 2);
+                nameOffsets = Arrays.copyOf(nameOffsets, doc * 2);
+            }
+            if (namesLength + encoded.length > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + encoded.length));
+            }
+            System.arraycopy(encoded, 0, names, namesLength, encoded.length);
+            nameOffsets[doc] = namesLength;
+            namesLength += encoded.length;
+            accountNumbers[doc] = accountNumber;
+            documents++;
+            for (String word : words) {
+                String padded = "" + PAD + PAD + word + PAD;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    PostingList list = postings.getOrAdd(gram(padded, i));
+                    postingCapacity += list.add(doc);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Streams every account from the store into the index; marks the index complete when done.
+    public void load(AccountDAO store) {
+        store.exportAccounts(new AccountExportFilter(), account -> add(account.getAccountNumber(), account.getCustomerName()));
+        loaded = true;
+        log.info("Customer name index loaded: {} names, about {} bytes", size(), getEstimatedBytes());
+    }
+
+    // True once the startup load has finished and nothing was dropped for the memory budget.
+    public boolean isComplete() {
+        return loaded && !truncated;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEstimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Accounts whose name has a word starting with every query word, then (when fuzzy) names whose words
+    // match each query word within one edit (two for words of eight letters or more). Exact prefix matches
+    // come first; fuzzy matches follow by fewest edits.
+    public List<NameMatchDTO> search(String query, int limit, boolean fuzzy) {
+        List<String> tokens = words(query);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain a letter or digit");
+        }
+        String driver = tokens.get(0);
+        for (String token : tokens) {
+            if (token.length() > driver.length()) {
+                driver = token;
+            }
+        }
+        Map<Integer, NameMatchDTO> matches = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int doc : prefixCandidates(driver)) {
+                if (matches.size() == limit) {
+                    break;
+                }
+                String name = name(doc);
+                if (score(tokens, words(name), false) == 0) {
+                    matches.putIfAbsent(accountNumbers[doc], new NameMatchDTO(accountNumbers[doc], name, 0));
+                }
+            }
+            if (fuzzy && matches.size() < limit && maxEdits(driver) > 0) {
+                List<NameMatchDTO> fuzzyMatches = new ArrayList<>();
+                for (int doc : fuzzyCandidates(driver)) {
+                    String name = name(doc);
+                    int edits = score(tokens, words(name), true);
+                    if (edits > 0 && !matches.containsKey(accountNumbers[doc])) {
+                        fuzzyMatches.add(new NameMatchDTO(accountNumbers[doc], name, edits));
+                    }
+                }
+                fuzzyMatches.sort((a, b) -> Integer.compare(a.getEdits(), b.getEdits()));
+                for (NameMatchDTO match : fuzzyMatches) {
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                    matches.putIfAbsent(match.getAccountNumber(), match);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    // Documents containing every trigram of the padded prefix, in document order.
+    private int[] prefixCandidates(String token) {
+        String padded = "" + PAD + PAD + token;
+        PostingList[] lists = new PostingList[padded.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(gram(padded, i));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int size = result.length;
+        for (int l = 1; l < lists.length && size > 0; l++) {
+            size = intersect(result, size, lists[l]);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Documents sharing at least one trigram with the token (a short word with one typo may share only one),
+    // most shared trigrams first. Lists are merged rarest first until maxFuzzyPostings entries have been read,
+    // the last one possibly only in part; what is left of the lists only adds to the counts of documents
+    // already found, by binary search, so the work is bounded by the budget however common the trigrams are.
+    int[] fuzzyCandidates(String token) {
+        String padded = "" + PAD + PAD + token + PAD;
+        int grams = padded.length() - 2;
+        List<PostingList> lists = new ArrayList<>(grams);
+        for (int i = 0; i < grams; i++) {
+            PostingList list = postings.get(gram(padded, i));
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] limits = new int[lists.size()];
+        int budget = maxFuzzyPostings;
+        for (int l = 0; l < limits.length; l++) {
+            limits[l] = Math.min(lists.get(l).size, budget);
+            budget -= limits[l];
+        }
+        // k-way merge over the read part of each sorted list, counting the query trigrams of each document.
+        int[] cursors = new int[lists.size()];
+        IntBuffer docs = new IntBuffer();
+        IntBuffer counts = new IntBuffer();
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int l = 0; l < cursors.length; l++) {
+                if (cursors[l] < limits[l]) {
+                    doc = Math.min(doc, lists.get(l).docs[cursors[l]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            int count = 0;
+            for (int l = 0; l < cursors.length; l++) {
+                if (cursors[l] < limits[l] && lists.get(l).docs[cursors[l]] == doc) {
+                    cursors[l]++;
+                    count++;
+                }
+            }
+            docs.add(doc);
+            counts.add(count);
+        }
+        for (int l = 0; l < limits.length; l++) {
+            PostingList list = lists.get(l);
+            if (limits[l] < list.size) {
+                for (int i = 0; i < docs.size; i++) {
+                    if (Arrays.binarySearch(list.docs, limits[l], list.size, docs.values[i]) >= 0) {
+                        counts.values[i]++;
+                    }
+                }
+            }
+        }
+        IntBuffer[] byCount = new IntBuffer[grams + 1];
+        for (int i = 0; i < docs.size; i++) {
+            if (byCount[counts.values[i]] == null) {
+                byCount[counts.values[i]] = new IntBuffer();
+            }
+            byCount[counts.values[i]].add(docs.values[i]);
+        }
+        IntBuffer candidates = new IntBuffer();
+        for (int count = grams; count >= 1 && candidates.size < MAX_FUZZY_CANDIDATES; count--) {
+            if (byCount[count] != null) {
+                for (int i = 0; i < byCount[count].size && candidates.size < MAX_FUZZY_CANDIDATES; i++) {
+                    candidates.add(byCount[count].values[i]);
+                }
+            }
+        }
+        return Arrays.copyOf(candidates.values, candidates.size);
+    }
+
+    // Total edits needed to match every token against some word (0 = all exact prefixes), or -1 if a token
+    // matches no word within its allowance.
+    private static int score(List<String> tokens, List<String> words, boolean fuzzy) {
+        int total = 0;
+        for (String token : tokens) {
+            int best = -1;
+            for (String word : words) {
+                if (word.startsWith(token)) {
+                    best = 0;
+                    break;
+                }
+                if (fuzzy) {
+                    int allowed = maxEdits(token);
+                    // Compare against the word's prefix of about the token's length, so a typo early in a long
+                    // word still matches.
+                    int distance = Math.min(
+                            editDistance(token, word),
+                            editDistance(token, word.substring(0, Math.min(word.length(), token.length()))));
+                    if (distance <= allowed && (best < 0 || distance < best)) {
+                        best = distance;
+                    }
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    static int maxEdits(String token) {
+        return token.length() < 4 ? 0 : token.length() < 8 ? 1 : 2;
+    }
+
+    // Optimal string alignment distance: insertions, deletions, substitutions and adjacent transpositions.
+    static int editDistance(String a, String b) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    // Lower-cased words of a name; anything that is not a letter or digit separates words.
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>(4);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static long gram(String padded, int start) {
+        return (long) padded.charAt(start) << 32 | (long) padded.charAt(start + 1) << 16 | padded.charAt(start + 2);
+    }
+
+    // Keeps the entries of result[0..size) that also appear in list; both are sorted. Returns the new size.
+    private static int intersect(int[] result, int size, PostingList list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            int doc = result[i];
+            while (j < list.size && list.docs[j] < doc) {
+                j++;
+            }
+            if (j < list.size && list.docs[j] == doc) {
+                result[kept++] = doc;
+            }
+        }
+        return kept;
+    }
+
+    private String name(int doc) {
+        int end = doc + 1 < documents ? nameOffsets[doc + 1] : namesLength;
+        return new String(names, nameOffsets[doc], end - nameOffsets[doc], StandardCharsets.UTF_8);
+    }
+
+    private long estimatedBytes() {
+        return names.length + 8L * accountNumbers.length + 4 * postingCapacity
+                + (long) POSTING_LIST_OVERHEAD * postings.size + postings.tableBytes();
+    }
+
+    // Open-addressing map from packed trigram to posting list: a long[] of keys beside an array of lists, so a
+    // trigram costs no boxed Long or map entry. A trigram never packs to 0 (every char is a letter, digit or
+    // PAD), so 0 marks a free slot.
+    private static final class PostingTable {
+        private static final float LOAD_FACTOR = 0.75f;
+
+        long[] keys = new long[1024];
+        PostingList[] lists = new PostingList[1024];
+        int size;
+
+        PostingList get(long gram) {
+            return lists[slotOf(keys, gram)];
+        }
+
+        PostingList getOrAdd(long gram) {
+            int slot = slotOf(keys, gram);
+            if (lists[slot] == null) {
+                if (size + 1 > keys.length * LOAD_FACTOR) {
+                    rehash();
+                    slot = slotOf(keys, gram);
+                }
+                keys[slot] = gram;
+                lists[slot] = new PostingList();
+                size++;
+            }
+            return lists[slot];
+        }
+
+        // A long key and a list reference per slot.
+        long tableBytes() {
+            return 12L * keys.length;
+        }
+
+        // Bytes the table would grow by if the next grams trigrams were all new.
+        long growthBytes(long grams) {
+            return size + grams > keys.length * LOAD_FACTOR ? tableBytes() : 0;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            PostingList[] oldLists = lists;
+            keys = new long[oldKeys.length << 1];
+            lists = new PostingList[oldKeys.length << 1];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = slotOf(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+
+        private static int slotOf(long[] keys, long gram) {
+            int mask = keys.length - 1;
+            long h = gram * 0x9E3779B97F4A7C15L;
+            int slot = (int) (h ^ (h >>> 32)) & mask;
+            while (keys[slot] != 0 && keys[slot] != gram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    // Growable sorted list of document ids for one trigram.
+    private static final class PostingList {
+        int[] docs = new int[4];
+        int size;
+
+        // Appends doc unless it is already last (a name repeating a trigram); returns the capacity added.
+        int add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return 0;
+            }
+            int grown = 0;
+            if (size == docs.length) {
+                grown = docs.length;
+                docs = Arrays.copyOf(docs, docs.length * 2);
+            }
+            docs[size++] = doc;
+            return size == 1 && grown == 0 ? 4 : grown;
+        }
+    }
+
+    private static final class IntBuffer {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package Banking;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Split-counter balances over the JDBC store: deposits to HotAccounts go to account_balance_slots rows.
+public class HotAccountDao implements AccountDAO {
+
+    private static final String SLOT_DEPOSIT_SQL =
+            "UPDATE account_balance_slots SET balance = balance + ? * 0.01 WHERE account_number = ? AND slot = ?";
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO account_balance_slots (account_number, slot, balance) VALUES (?, ?, 0)";
+    private static final String SELECT_SLOTS_SQL =
+            "SELECT slot FROM account_balance_slots WHERE account_number = ?";
+    private static final String LOCK_SLOTS_SQL =
+            "SELECT ROUND(balance * 100) FROM account_balance_slots WHERE account_number = ? ORDER BY slot FOR UPDATE";
+    private static final String ZERO_SLOTS_SQL =
+            "UPDATE account_balance_slots SET balance = 0 WHERE account_number = ? AND balance <> 0";
+    private static final String ADD_TO_ACCOUNT_SQL =
+            "UPDATE accounts SET balance = balance + ? * 0.01 WHERE account_number = ?";
+    private static final String SELECT_TOTAL_SQL =
+            "SELECT a.account_number, a.customer_name,"
+                    + " ROUND((a.balance + COALESCE(SUM(s.balance), 0)) * 100) AS balance_cents"
+                    + " FROM accounts a LEFT JOIN account_balance_slots s ON s.account_number = a.account_number"
+                    + " WHERE a.account_number = ? GROUP BY a.account_number, a.customer_name, a.balance";
+    // Every account with its slots added, for exports; export filters test this total, not the accounts row.
+    private static final String SELECT_TOTALS_SQL =
+            "SELECT a.account_number, a.customer_name,"
+                    + " ROUND((a.balance + COALESCE(s.balance, 0)) * 100) AS balance_cents"
+                    + " FROM accounts a LEFT JOIN (SELECT account_number, SUM(balance) AS balance"
+                    + " FROM account_balance_slots GROUP BY account_number) s ON s.account_number = a.account_number"
+                    + " WHERE 1 = 1";
+    private static final String SLOT_SUMS_SQL =
+            "SELECT account_number, ROUND(SUM(balance) * 100) AS slot_cents FROM account_balance_slots"
+                    + " WHERE account_number IN (%s) GROUP BY account_number";
+
+    private final AccountDAO delegate;
+    private final HotAccounts hotAccounts;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public HotAccountDao(AccountDAO delegate, HotAccounts hotAccounts, JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager) {
+        this.delegate = delegate;
+        this.hotAccounts = hotAccounts;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        createSlots();
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        delegate.createAccount(account);
+    }
+
+    @Override
+    public boolean[] createAccounts(List<Account> accounts) {
+        return delegate.createAccounts(accounts);
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        if (!hotAccounts.isHot(accountNumber)) {
+            delegate.updateBalance(accountNumber, newBalanceCents);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList(LOCK_SLOTS_SQL, Long.class, accountNumber);
+            jdbcTemplate.update(ZERO_SLOTS_SQL, accountNumber);
+            delegate.updateBalance(accountNumber, newBalanceCents);
+        });
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        return getAccount(accountNumber).getBalanceCents();
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        if (!hotAccounts.isHot(accountNumber)) {
+            return delegate.getAccount(accountNumber);
+        }
+        return readTotal(accountNumber);
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        if (!hotAccounts.isHot(accountNumber)) {
+            return delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+        }
+        if (deltaCents >= 0 && minBalanceCents == NO_MIN_BALANCE) {
+            return depositToSlot(accountNumber, deltaCents);
+        }
+        return transactionTemplate.execute(status -> {
+            fold(jdbcTemplate, accountNumber);
+            return delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+        });
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        List<Account> page = delegate.listAccounts(afterAccountNumber, limit);
+        List<Integer> hot = new ArrayList<>();
+        for (Account account : page) {
+            if (hotAccounts.isHot(account.getAccountNumber())) {
+                hot.add(account.getAccountNumber());
+            }
+        }
+        if (!hot.isEmpty()) {
+            Map<Integer, Long> slotCents = slotSums(hot);
+            for (Account account : page) {
+                Long extra = slotCents.get(account.getAccountNumber());
+                if (extra != null) {
+                    account.setBalanceCents(account.getBalanceCents() + extra);
+                }
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        // One read-only query, so an export can run on a replica and never locks the slots it sums.
+        StringBuilder sql = new StringBuilder(SELECT_TOTALS_SQL);
+        List<Object> args = new ArrayList<>(3);
+        if (filter.getMinBalanceCents() != null) {
+            sql.append(" AND a.balance + COALESCE(s.balance, 0) >= ? * 0.01");
+            args.add(filter.getMinBalanceCents());
+        }
+        if (filter.getMaxBalanceCents() != null) {
+            sql.append(" AND a.balance + COALESCE(s.balance, 0) <= ? * 0.01");
+            args.add(filter.getMaxBalanceCents());
+        }
+        if (filter.getCustomerName() != null && !filter.getCustomerName().isEmpty()) {
+            sql.append(" AND a.customer_name LIKE ? ESCAPE '!'");
+            args.add("%" + BnkAccountDaoImpl.escapeLike(filter.getCustomerName()) + "%");
+        }
+        sql.append(" ORDER BY a.account_number");
+        Account row = new Account();
+        long[] count = new long[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = BnkAccountDaoImpl.prepareStreaming(con, sql.toString(), BnkAccountDaoImpl.EXPORT_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            row.setAccountNumber(rs.getInt("account_number"));
+            row.setCustomerName(rs.getString("customer_name"));
+            row.setBalanceCents(rs.getLong("balance_cents"));
+            sink.accept(row);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        TreeSet<Integer> accountNumbers = new TreeSet<>();
+        boolean anyHot = false;
+        for (BatchTransactionDTO op : operations) {
+            accountNumbers.add(op.getAccountNumber());
+            anyHot |= hotAccounts.isHot(op.getAccountNumber());
+        }
+        if (!anyHot) {
+            return delegate.applyBatch(operations);
+        }
+        return transactionTemplate.execute(status -> {
+            foldInOrder(accountNumbers);
+            return delegate.applyBatch(operations);
+        });
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        if (!hotAccounts.isHot(fromAccountNumber) && !hotAccounts.isHot(toAccountNumber)) {
+            return delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+        }
+        return transactionTemplate.execute(status -> {
+            foldInOrder(new TreeSet<>(List.of(fromAccountNumber, toAccountNumber)));
+            return delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+        });
+    }
+
+    @Override
+    public void invalidate(int accountNumber) {
+        delegate.invalidate(accountNumber);
+    }
+
+    // A random slot row each time, so concurrent deposits lock different rows instead of queueing on one.
+    private Account depositToSlot(int accountNumber, long deltaCents) {
+        int slot = ThreadLocalRandom.current().nextInt(hotAccounts.getSlots());
+        return transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(SLOT_DEPOSIT_SQL, deltaCents, accountNumber, slot) == 0) {
+                // The slot row was deleted since startup; the accounts row still takes the deposit.
+                return delegate.applyDelta(accountNumber, deltaCents, NO_MIN_BALANCE);
+            }
+            // A missing account throws here and rolls back the slot deposit above.
+            return readTotal(accountNumber);
+        });
+    }
+
+    // Adds the missing slot rows of every flagged account at startup, one autocommitted INSERT each, so deposits
+    // only ever update existing rows: concurrent deposit transactions inserting them would take MySQL gap locks
+    // and deadlock one another. The account itself need not exist yet.
+    private void createSlots() {
+        for (int accountNumber : hotAccounts.getAccountNumbers()) {
+            Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_SLOTS_SQL, Integer.class, accountNumber));
+            for (int slot = 0; slot < hotAccounts.getSlots(); slot++) {
+                if (existing.contains(slot)) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.update(INSERT_SLOT_SQL, accountNumber, slot);
+                } catch (DuplicateKeyException ignored) {
+                    // Another instance starting at the same time created it.
+                }
+            }
+        }
+    }
+
+    // Moves the slot balances into the accounts row; must run inside a transaction, which keeps the slots locked.
+    // Anything that can lower the balance folds first, so the store's guarded UPDATE sees the whole balance; slots
+    // only grow between folds, so a deposit racing one can never make a withdrawal overdraw.
+    static void fold(JdbcTemplate jdbcTemplate, int accountNumber) {
+        long slotCents = drainSlots(jdbcTemplate, accountNumber);
+        if (slotCents != 0) {
+            jdbcTemplate.update(ADD_TO_ACCOUNT_SQL, slotCents, accountNumber);
+        }
+    }
+
+    // Locks and zeroes the account's slots; returns what they held.
+    private static long drainSlots(JdbcTemplate jdbcTemplate, int accountNumber) {
+        long slotCents = 0;
+        for (long cents : jdbcTemplate.queryForList(LOCK_SLOTS_SQL, Long.class, accountNumber)) {
+            slotCents += cents;
+        }
+        if (slotCents != 0) {
+            jdbcTemplate.update(ZERO_SLOTS_SQL, accountNumber);
+        }
+        return slotCents;
+    }
+
+    // Folds the hot accounts among several in the lock order a single fold uses, slots before accounts rows:
+    // every hot account's slots first, then all the accounts rows lowest number first, as the store's transfer
+    // and batch lock them, and only then the sums moved in. Folding one account at a time would hold a higher
+    // accounts row while the store waits for a lower one. Must run inside a transaction.
+    private void foldInOrder(SortedSet<Integer> accountNumbers) {
+        Map<Integer, Long> drained = new TreeMap<>();
+        for (int accountNumber : accountNumbers) {
+            if (hotAccounts.isHot(accountNumber)) {
+                drained.put(accountNumber, drainSlots(jdbcTemplate, accountNumber));
+            }
+        }
+        String placeholders = String.join(", ", Collections.nCopies(accountNumbers.size(), "?"));
+        jdbcTemplate.queryForList("SELECT account_number FROM accounts WHERE account_number IN (" + placeholders
+                + ") ORDER BY account_number FOR UPDATE", Integer.class, accountNumbers.toArray());
+        drained.forEach((accountNumber, slotCents) -> {
+            if (slotCents != 0) {
+                jdbcTemplate.update(ADD_TO_ACCOUNT_SQL, slotCents, accountNumber);
+            }
+        });
+    }
+
+    // The accounts row plus its slots, summed in one query.
+    private Account readTotal(int accountNumber) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_TOTAL_SQL, (rs, rowNum) -> new Account(
+                    rs.getInt("account_number"),
+                    rs.getString("customer_name"),
+                    rs.getLong("balance_cents")), accountNumber);
+        } catch (EmptyResultDataAccessException e) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+    }
+
+    private Map<Integer, Long> slotSums(List<Integer> accountNumbers) {
+        String placeholders = String.join(", ", Collections.nCopies(accountNumbers.size(), "?"));
+        Map<Integer, Long> sums = new HashMap<>();
+        jdbcTemplate.query(String.format(SLOT_SUMS_SQL, placeholders),
+                rs -> {
+                    sums.put(rs.getInt("account_number"), rs.getLong("slot_cents"));
+                },
+                accountNumbers.toArray());
+        return sums;
+    }
+}
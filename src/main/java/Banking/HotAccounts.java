@@ -0,0 +1,66 @@
+package Banking;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Accounts flagged as deposit hot spots (payroll, merchant settlement), from banking.hot-accounts.ids.
+@Component
+public class HotAccounts {
+
+    static final int DEFAULT_SLOTS = 16;
+
+    private final int[] accountNumbers;
+    private final int slots;
+
+    // No hot accounts.
+    public HotAccounts() {
+        this(new int[0], DEFAULT_SLOTS);
+    }
+
+    @Autowired
+    public HotAccounts(@Value("${banking.hot-accounts.ids:}") String ids,
+                       @Value("${banking.hot-accounts.slots:" + DEFAULT_SLOTS + "}") int slots) {
+        this(parse(ids), slots);
+    }
+
+    HotAccounts(int[] accountNumbers, int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("banking.hot-accounts.slots must be positive");
+        }
+        this.accountNumbers = accountNumbers.clone();
+        Arrays.sort(this.accountNumbers);
+        this.slots = slots;
+    }
+
+    public boolean isEnabled() {
+        return accountNumbers.length > 0;
+    }
+
+    public boolean isHot(int accountNumber) {
+        return accountNumbers.length > 0 && Arrays.binarySearch(accountNumbers, accountNumber) >= 0;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    // Flagged account numbers in ascending order.
+    public int[] getAccountNumbers() {
+        return accountNumbers.clone();
+    }
+
+    private static int[] parse(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return new int[0];
+        }
+        try {
+            return Arrays.stream(ids.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                    .mapToInt(Integer::parseInt).distinct().toArray();
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("banking.hot-accounts.ids must be a comma-separated list of account numbers");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Banking;
+
+// One rejected row of an account import: its line in the upload, the account number if known, and why.
+public class ImportRejectionDTO {
+    private long line;
+    private int accountNumber;
+    private String error;
+
+    public ImportRejectionDTO() {
+    }
+
+    // Constructor
+    public ImportRejectionDTO(long line, int accountNumber, String error) {
+        this.line = line;
+        this.accountNumber = accountNumber;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
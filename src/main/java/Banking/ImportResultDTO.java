@@ -0,0 +1,52 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary of an account import. Counts cover every row; only the first MAX_REJECTIONS rejections are listed.
+public class ImportResultDTO {
+    static final int MAX_REJECTIONS = 1000;
+
+    private long created;
+    private long rejected;
+    private List<ImportRejectionDTO> rejections = new ArrayList<>();
+
+    public ImportResultDTO() {
+    }
+
+    void recordCreated() {
+        created++;
+    }
+
+    void recordRejected(long line, int accountNumber, String error) {
+        rejected++;
+        if (rejections.size() < MAX_REJECTIONS) {
+            rejections.add(new ImportRejectionDTO(line, accountNumber, error));
+        }
+    }
+
+    // Getters and setters
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<ImportRejectionDTO> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<ImportRejectionDTO> rejections) {
+        this.rejections = rejections;
+    }
+}
@@ -0,0 +1,365 @@
+package Banking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+// AccountDAO held entirely on the heap in striped primitive tables; nothing survives a restart.
+@Repository
+@Profile("memory")
+public class InMemoryAccountDao implements AccountDAO {
+
+    static final int DEFAULT_STRIPES = 64;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public InMemoryAccountDao() {
+        this(DEFAULT_STRIPES, 0);
+    }
+
+    @Autowired
+    public InMemoryAccountDao(@Value("${banking.memory.stripes:" + DEFAULT_STRIPES + "}") int stripeCount,
+                              @Value("${banking.memory.expected-accounts:0}") int expectedAccounts) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1 || expectedAccounts < 0) {
+            throw new IllegalArgumentException("banking.memory.stripes must be a power of two");
+        }
+        this.stripes = new Stripe[stripeCount];
+        // Stripes take the high bits of the hash and slots the low ones, so the two stay independent.
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(expectedAccounts / stripeCount);
+        }
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        if (account.getCustomerName() == null) {
+            throw new IllegalArgumentException("Customer name is required");
+        }
+        byte[] name = account.getCustomerName().getBytes(StandardCharsets.UTF_8);
+        int accountNumber = account.getAccountNumber();
+        Stripe stripe = stripeOf(accountNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.table.find(accountNumber) >= 0) {
+                throw new DuplicateKeyException("Account already exists: " + accountNumber);
+            }
+            stripe.insert(accountNumber, account.getBalanceCents(), name);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        Stripe stripe = stripeOf(accountNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.table.balances[stripe.existingSlot(accountNumber)] = newBalanceCents;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        Stripe stripe = stripeOf(accountNumber);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Table table = stripe.table;
+            int slot = table.find(accountNumber);
+            long balance = slot >= 0 ? table.balances[slot] : 0;
+            if (stripe.lock.validate(stamp)) {
+                if (slot < 0) {
+                    throw new AccountNotFoundException("Account not found: " + accountNumber);
+                }
+                return balance;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.table.balances[stripe.existingSlot(accountNumber)];
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        Stripe stripe = stripeOf(accountNumber);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Table table = stripe.table;
+            byte[] names = stripe.names;
+            int slot = table.find(accountNumber);
+            long balance = 0;
+            int nameOffset = 0;
+            int nameLength = 0;
+            if (slot >= 0) {
+                balance = table.balances[slot];
+                nameOffset = table.nameOffsets[slot];
+                nameLength = table.nameLengths[slot] - 1;
+            }
+            if (stripe.lock.validate(stamp)) {
+                if (slot < 0) {
+                    throw new AccountNotFoundException("Account not found: " + accountNumber);
+                }
+                // Name bytes are never overwritten, so decoding after validation is safe.
+                return new Account(accountNumber, new String(names, nameOffset, nameLength, StandardCharsets.UTF_8), balance);
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.read(stripe.existingSlot(accountNumber), new Account());
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        Stripe stripe = stripeOf(accountNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            int slot = stripe.existingSlot(accountNumber);
+            long[] balances = stripe.table.balances;
+            // Overflow throws before the balance is written.
+            long newBalance = Math.addExact(balances[slot], deltaCents);
+            if (minBalanceCents != NO_MIN_BALANCE && newBalance < minBalanceCents) {
+                throw new InsufficientFundsException("Insufficient funds for withdrawal");
+            }
+            balances[slot] = newBalance;
+            return stripe.read(slot, new Account());
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        int fromIndex = stripeIndex(fromAccountNumber);
+        int toIndex = stripeIndex(toAccountNumber);
+        Stripe fromStripe = stripes[fromIndex];
+        Stripe toStripe = stripes[toIndex];
+        // Lower stripe first, so opposite transfers between two stripes cannot deadlock.
+        Stripe first = stripes[Math.min(fromIndex, toIndex)];
+        Stripe second = stripes[Math.max(fromIndex, toIndex)];
+        long firstStamp = first.lock.writeLock();
+        long secondStamp = second == first ? 0 : second.lock.writeLock();
+        try {
+            int fromSlot = fromStripe.existingSlot(fromAccountNumber);
+            int toSlot = toStripe.existingSlot(toAccountNumber);
+            long fromBalance = fromStripe.table.balances[fromSlot];
+            if (fromBalance < amountCents) {
+                throw new InsufficientFundsException("Insufficient funds for transfer");
+            }
+            // Both balances are computed before either is set, so an overflowing credit leaves both untouched.
+            long debited = fromBalance - amountCents;
+            long credited = Math.addExact(fromAccountNumber == toAccountNumber ? debited
+                    : toStripe.table.balances[toSlot], amountCents);
+            fromStripe.table.balances[fromSlot] = debited;
+            toStripe.table.balances[toSlot] = credited;
+            return new TransferResultDTO(fromStripe.read(fromSlot, new Account()), toStripe.read(toSlot, new Account()));
+        } finally {
+            if (second != first) {
+                second.lock.unlockWrite(secondStamp);
+            }
+            first.lock.unlockWrite(firstStamp);
+        }
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        // Hash order, so a page is the `limit` smallest numbers past the cursor across all stripes.
+        SmallestInts page = new SmallestInts(limit);
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                Table table = stripe.table;
+                for (int slot = 0; slot < table.keys.length; slot++) {
+                    if (table.nameLengths[slot] != 0 && (afterAccountNumber == null || table.keys[slot] > afterAccountNumber)) {
+                        page.offer(table.keys[slot]);
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        List<Account> accounts = new ArrayList<>();
+        for (int accountNumber : page.sorted()) {
+            accounts.add(getAccount(accountNumber));
+        }
+        return accounts;
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        // Sorting needs the account numbers in memory, 4 bytes each; rows are then read one at a time.
+        int[] accountNumbers = new int[0];
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                Table table = stripe.table;
+                if (accountNumbers.length - size < stripe.size) {
+                    accountNumbers = Arrays.copyOf(accountNumbers, size + stripe.size);
+                }
+                for (int slot = 0; slot < table.keys.length; slot++) {
+                    if (table.nameLengths[slot] != 0) {
+                        accountNumbers[size++] = table.keys[slot];
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        Arrays.sort(accountNumbers, 0, size);
+        Account row = new Account();
+        long sent = 0;
+        for (int i = 0; i < size; i++) {
+            Stripe stripe = stripeOf(accountNumbers[i]);
+            long stamp = stripe.lock.readLock();
+            try {
+                stripe.read(stripe.existingSlot(accountNumbers[i]), row);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+            if (filter.matches(row)) {
+                sink.accept(row);
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                count += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    private Stripe stripeOf(int accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+
+    // Shifted as a long, since a single stripe needs a shift of 32, which an int shift would ignore.
+    private int stripeIndex(int accountNumber) {
+        return (int) ((AccountLockManager.spread(accountNumber) & 0xFFFFFFFFL) >>> stripeShift);
+    }
+
+    // One stripe: its table, its name heap and the lock guarding both. Writes take the lock exclusively; reads are
+    // optimistic and only retry under the read lock when a write to the stripe overlapped them.
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        Table table;
+        byte[] names;
+        int namesEnd;
+        int size;
+
+        Stripe(int expectedAccounts) {
+            table = new Table(Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedAccounts / LOAD_FACTOR)) - 1) << 1);
+            names = new byte[Math.max(64, expectedAccounts * 16)];
+        }
+
+        int existingSlot(int accountNumber) {
+            int slot = table.find(accountNumber);
+            if (slot < 0) {
+                throw new AccountNotFoundException("Account not found: " + accountNumber);
+            }
+            return slot;
+        }
+
+        // Caller holds the write lock and has checked the account is new.
+        void insert(int accountNumber, long balanceCents, byte[] name) {
+            if (namesEnd + name.length > names.length || namesEnd + name.length < 0) {
+                // A new array rather than in-place growth: optimistic readers may still hold the old one.
+                names = Arrays.copyOf(names, Math.max(namesEnd + name.length, names.length + (names.length >> 1)));
+            }
+            System.arraycopy(name, 0, names, namesEnd, name.length);
+            if (size + 1 > table.keys.length * LOAD_FACTOR) {
+                table = table.grow();
+            }
+            table.put(accountNumber, balanceCents, namesEnd, name.length);
+            namesEnd += name.length;
+            size++;
+        }
+
+        Account read(int slot, Account into) {
+            into.setAccountNumber(table.keys[slot]);
+            into.setCustomerName(new String(names, table.nameOffsets[slot], table.nameLengths[slot] - 1, StandardCharsets.UTF_8));
+            into.setBalanceCents(table.balances[slot]);
+            return into;
+        }
+    }
+
+    // Parallel arrays of one stripe. A slot is free while its nameLengths entry is 0; used slots store length + 1.
+    // A slot is 20 bytes and tables double once three quarters full, so an account costs 27 to 53 bytes plus its
+    // name, and millions of them add no objects for the garbage collector to trace.
+    private static final class Table {
+        final int[] keys;
+        final long[] balances;
+        final int[] nameOffsets;
+        final int[] nameLengths;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            balances = new long[capacity];
+            nameOffsets = new int[capacity];
+            nameLengths = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        // Slot holding the account, or -1. Load stays under LOAD_FACTOR, so the probe always reaches a free slot.
+        int find(int accountNumber) {
+            int slot = AccountLockManager.spread(accountNumber) & mask;
+            while (nameLengths[slot] != 0) {
+                if (keys[slot] == accountNumber) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void put(int accountNumber, long balanceCents, int nameOffset, int nameLength) {
+            int slot = AccountLockManager.spread(accountNumber) & mask;
+            while (nameLengths[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = accountNumber;
+            balances[slot] = balanceCents;
+            nameOffsets[slot] = nameOffset;
+            nameLengths[slot] = nameLength + 1;
+        }
+
+        // A doubled copy; the old arrays are left untouched for readers that still hold them.
+        Table grow() {
+            Table grown = new Table(keys.length << 1);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (nameLengths[slot] != 0) {
+                    grown.put(keys[slot], balances[slot], nameOffsets[slot], nameLengths[slot] - 1);
+                }
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package Banking;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Adds every account created through the wrapped AccountDAO to the CustomerNameIndex once it is stored.
+public class IndexingAccountDao implements AccountDAO {
+
+    private final AccountDAO delegate;
+    private final CustomerNameIndex index;
+
+    public IndexingAccountDao(AccountDAO delegate, CustomerNameIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        delegate.createAccount(account);
+        index.add(account.getAccountNumber(), account.getCustomerName());
+    }
+
+    @Override
+    public boolean[] createAccounts(List<Account> accounts) {
+        boolean[] created = delegate.createAccounts(accounts);
+        for (int i = 0; i < created.length; i++) {
+            if (created[i]) {
+                index.add(accounts.get(i).getAccountNumber(), accounts.get(i).getCustomerName());
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        delegate.updateBalance(accountNumber, newBalanceCents);
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        return delegate.getBalance(accountNumber);
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        return delegate.getAccount(accountNumber);
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        return delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        return delegate.listAccounts(afterAccountNumber, limit);
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        return delegate.exportAccounts(filter, sink);
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        return delegate.applyBatch(operations);
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        return delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+    }
+
+    @Override
+    public void invalidate(int accountNumber) {
+        delegate.invalidate(accountNumber);
+    }
+}
@@ -0,0 +1,8 @@
+package Banking;
+
+// Signals a debit that would take a balance below its allowed minimum (mapped to HTTP 400).
+public class InsufficientFundsException extends IllegalArgumentException {
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,146 @@
+package Banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Sequential reader over the journal segments in a directory; poll can be called again to tail them.
+public class JournalReader implements AutoCloseable {
+
+    private final Path directory;
+    private final long fromSequence;
+    // Every record is delivered through this one instance.
+    private final JournalRecord record = new JournalRecord();
+
+    private Path currentPath;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int slot;
+    private long lastSequence;
+
+    public JournalReader(Path directory) {
+        this(directory, 1);
+    }
+
+    // Starts delivering at the first record whose sequence is >= fromSequence.
+    public JournalReader(Path directory, long fromSequence) {
+        this.directory = directory;
+        this.fromSequence = fromSequence;
+    }
+
+    // Delivers up to maxRecords new records and returns how many were delivered.
+    public int poll(Consumer<JournalRecord> consumer, int maxRecords) {
+        int delivered = 0;
+        try {
+            while (delivered < maxRecords) {
+                if (segment == null && !openNextSegment()) {
+                    return delivered;
+                }
+                long sequence = TransactionJournal.readSlot(segment, slot, record);
+                if (sequence < 0) {
+                    // End of what is written here; move on only if the writer has started a later segment.
+                    if (!openNextSegment()) {
+                        return delivered;
+                    }
+                    continue;
+                }
+                slot++;
+                lastSequence = sequence;
+                if (sequence >= fromSequence) {
+                    consumer.accept(record);
+                    delivered++;
+                }
+            }
+            return delivered;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal in " + directory, e);
+        }
+    }
+
+    // Reads every record currently in the journal and returns how many were delivered.
+    public long replay(Consumer<JournalRecord> consumer) {
+        long total = 0;
+        for (int n; (n = poll(consumer, 4096)) > 0; ) {
+            total += n;
+        }
+        return total;
+    }
+
+    // Sequence of the last record read, or 0 before the first one.
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    // Rebuilds account balances (cents) by replaying the whole journal from the start.
+    public static Map<Integer, Long> rebuildBalances(Path directory) {
+        Map<Integer, Long> balances = new HashMap<>();
+        try (JournalReader reader = new JournalReader(directory)) {
+            reader.replay(r -> {
+                switch (r.getType()) {
+                    case CREATE, SET_BALANCE -> balances.put(r.getAccountNumber(), r.getAmountCents());
+                    case DEPOSIT, ACCRUAL -> balances.merge(r.getAccountNumber(), r.getAmountCents(), Long::sum);
+                    case WITHDRAW -> balances.merge(r.getAccountNumber(), -r.getAmountCents(), Long::sum);
+                    case TRANSFER -> {
+                        balances.merge(r.getAccountNumber(), -r.getAmountCents(), Long::sum);
+                        balances.merge(r.getCounterpartyAccountNumber(), r.getAmountCents(), Long::sum);
+                    }
+                }
+            });
+        }
+        return balances;
+    }
+
+    @Override
+    public void close() {
+        closeSegment();
+    }
+
+    // Opens the segment after the current one (or the first relevant one); false if there is none yet.
+    private boolean openNextSegment() throws IOException {
+        List<Path> segments = TransactionJournal.listSegments(directory);
+        Path next = null;
+        for (int i = 0; i < segments.size(); i++) {
+            Path candidate = segments.get(i);
+            if (currentPath == null) {
+                // Skip whole segments that end before fromSequence.
+                boolean nextStartsTooEarly = i + 1 < segments.size()
+                        && TransactionJournal.baseSequenceOf(segments.get(i + 1)) <= fromSequence;
+                if (!nextStartsTooEarly) {
+                    next = candidate;
+                    break;
+                }
+            } else if (candidate.compareTo(currentPath) > 0) {
+                next = candidate;
+                break;
+            }
+        }
+        if (next == null) {
+            return false;
+        }
+        closeSegment();
+        currentPath = next;
+        channel = FileChannel.open(next, StandardOpenOption.READ);
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        slot = 0;
+        return true;
+    }
+
+    private void closeSegment() {
+        segment = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package Banking;
+
+// One decoded journal entry. Readers reuse a single instance, so copy fields out if you need to keep them.
+public class JournalRecord {
+    private long sequence;
+    private long timestampMillis;
+    private JournalRecordType type;
+    private int accountNumber;
+    private int counterpartyAccountNumber;
+    private long amountCents;
+
+    void set(long sequence, long timestampMillis, JournalRecordType type, int accountNumber,
+             int counterpartyAccountNumber, long amountCents) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.counterpartyAccountNumber = counterpartyAccountNumber;
+        this.amountCents = amountCents;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public JournalRecordType getType() {
+        return type;
+    }
+
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    // Destination account of a TRANSFER; 0 for every other type.
+    public int getCounterpartyAccountNumber() {
+        return counterpartyAccountNumber;
+    }
+
+    // Amount moved for DEPOSIT/WITHDRAW/TRANSFER, the new balance for SET_BALANCE, the opening balance for CREATE.
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", accountNumber=" + accountNumber +
+                ", counterpartyAccountNumber=" + counterpartyAccountNumber +
+                ", amount=" + Money.format(amountCents) +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package Banking;
+
+// Kinds of journal records; the code is what is stored on disk, so existing codes must never change.
+public enum JournalRecordType {
+    CREATE(1),
+    DEPOSIT(2),
+    WITHDRAW(3),
+    TRANSFER(4),
+    SET_BALANCE(5),
+    // Interest minus fee from an accrual run; the amount is signed.
+    ACCRUAL(6);
+
+    private static final JournalRecordType[] BY_CODE = new JournalRecordType[7];
+
+    static {
+        for (JournalRecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    JournalRecordType(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    // Returns null for codes that are not a known record type (including 0, an unwritten slot).
+    public static JournalRecordType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,183 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Records every successful write of the wrapped AccountDAO in the TransactionJournal.
+public class JournalingAccountDao implements AccountDAO {
+
+    // Only for stores without transactions: shared for deltas, exclusive for creates and balance overwrites.
+    static final int STRIPES = 1024;
+
+    private final AccountDAO delegate;
+    private final TransactionJournal journal;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock[] stripes;
+
+    // For a store without transactions: writes are ordered by the per-account stripes.
+    public JournalingAccountDao(AccountDAO delegate, TransactionJournal journal) {
+        this(delegate, journal, null);
+    }
+
+    // For the database store: each write and its appends run in one transaction of transactionManager.
+    public JournalingAccountDao(AccountDAO delegate, TransactionJournal journal,
+                                PlatformTransactionManager transactionManager) {
+        this.delegate = delegate;
+        this.journal = journal;
+        if (transactionManager != null) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.stripes = null;
+        } else {
+            this.transactionTemplate = null;
+            this.stripes = new ReentrantReadWriteLock[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new ReentrantReadWriteLock();
+            }
+        }
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        ordered(locks(1, i -> account.getAccountNumber(), i -> true), () -> {
+            delegate.createAccount(account);
+            journal.append(JournalRecordType.CREATE, account.getAccountNumber(), 0, account.getBalanceCents());
+            return null;
+        });
+    }
+
+    @Override
+    public boolean[] createAccounts(List<Account> accounts) {
+        return ordered(locks(accounts.size(), i -> accounts.get(i).getAccountNumber(), i -> true), () -> {
+            boolean[] created = delegate.createAccounts(accounts);
+            for (int i = 0; i < created.length; i++) {
+                if (created[i]) {
+                    Account account = accounts.get(i);
+                    journal.append(JournalRecordType.CREATE, account.getAccountNumber(), 0, account.getBalanceCents());
+                }
+            }
+            return created;
+        });
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        ordered(locks(1, i -> accountNumber, i -> true), () -> {
+            delegate.updateBalance(accountNumber, newBalanceCents);
+            journal.append(JournalRecordType.SET_BALANCE, accountNumber, 0, newBalanceCents);
+            return null;
+        });
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        return delegate.getBalance(accountNumber);
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        return delegate.getAccount(accountNumber);
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        return ordered(locks(1, i -> accountNumber, i -> false), () -> {
+            Account updated = delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+            if (deltaCents >= 0) {
+                journal.append(JournalRecordType.DEPOSIT, accountNumber, 0, deltaCents);
+            } else {
+                journal.append(JournalRecordType.WITHDRAW, accountNumber, 0, -deltaCents);
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        return delegate.listAccounts(afterAccountNumber, limit);
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        return delegate.exportAccounts(filter, sink);
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        return ordered(locks(operations.size(), i -> operations.get(i).getAccountNumber(),
+                i -> operations.get(i).getType() == TransactionType.SET_BALANCE), () -> {
+            BatchStatus[] outcomes = delegate.applyBatch(operations);
+            for (int i = 0; i < outcomes.length; i++) {
+                if (outcomes[i] == BatchStatus.APPLIED) {
+                    BatchTransactionDTO op = operations.get(i);
+                    JournalRecordType type = switch (op.getType()) {
+                        case DEPOSIT -> JournalRecordType.DEPOSIT;
+                        case WITHDRAW -> JournalRecordType.WITHDRAW;
+                        case SET_BALANCE -> JournalRecordType.SET_BALANCE;
+                    };
+                    journal.append(type, op.getAccountNumber(), 0, op.getAmountCents());
+                }
+            }
+            return outcomes;
+        });
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        return ordered(locks(2, i -> i == 0 ? fromAccountNumber : toAccountNumber, i -> false), () -> {
+            TransferResultDTO result = delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+            journal.append(JournalRecordType.TRANSFER, fromAccountNumber, toAccountNumber, amountCents);
+            return result;
+        });
+    }
+
+    @Override
+    public void invalidate(int accountNumber) {
+        delegate.invalidate(accountNumber);
+    }
+
+    // Runs a write and its appends under the given stripe locks, inside one transaction when there is a database.
+    // Replay needs each account's records in the order its writes took effect: deltas commute, but not with a
+    // CREATE or SET_BALANCE. In a transaction the record is appended under the write's row locks before it commits,
+    // and a failed append rolls the write back; without one, the stripes give the same order.
+    private <T> T ordered(List<Lock> locks, Supplier<T> write) {
+        int held = 0;
+        try {
+            for (Lock lock : locks) {
+                lock.lock();
+                held++;
+            }
+            return transactionTemplate == null ? write.get() : transactionTemplate.execute(status -> write.get());
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    // The stripe locks for count accounts, lowest stripe first so concurrent writers never deadlock. A stripe is
+    // taken exclusively if any of its accounts' writes is exclusive; none are needed inside a transaction.
+    private List<Lock> locks(int count, IntUnaryOperator accountAt, IntPredicate exclusiveAt) {
+        if (stripes == null) {
+            return List.of();
+        }
+        TreeMap<Integer, Boolean> modes = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            modes.merge(AccountLockManager.spread(accountAt.applyAsInt(i)) & (STRIPES - 1), exclusiveAt.test(i),
+                    Boolean::logicalOr);
+        }
+        List<Lock> locks = new ArrayList<>(modes.size());
+        modes.forEach((stripe, exclusive) ->
+                locks.add(exclusive ? stripes[stripe].writeLock() : stripes[stripe].readLock()));
+        return locks;
+    }
+}
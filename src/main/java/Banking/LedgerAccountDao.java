@@ -0,0 +1,139 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@ConditionalOnProperty(name = "banking.engine", havingValue = "ledger")
+// AccountDAO that routes every call through the in-memory LedgerEngine, backed by the JDBC DAO.
+public class LedgerAccountDao implements AccountDAO, AutoCloseable {
+
+    private final LedgerEngine engine;
+    private final long commitTimeoutMillis;
+
+    @Autowired
+    public LedgerAccountDao(BnkAccountDaoImpl store,
+                            @Value("${banking.ledger.shards:0}") int shards,
+                            @Value("${banking.ledger.queue-capacity:10000}") int queueCapacity,
+                            @Value("${banking.ledger.max-batch:256}") int maxBatch,
+                            @Value("${banking.ledger.commit-timeout-ms:5000}") long commitTimeoutMillis) {
+        this(new LedgerEngine(store,
+                shards > 0 ? shards : Runtime.getRuntime().availableProcessors(),
+                queueCapacity,
+                maxBatch), commitTimeoutMillis);
+    }
+
+    LedgerAccountDao(LedgerEngine engine, long commitTimeoutMillis) {
+        this.engine = engine;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        await(engine.create(account));
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        await(engine.setBalance(accountNumber, newBalanceCents));
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        return getAccount(accountNumber).getBalanceCents();
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        return await(engine.get(accountNumber));
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        return await(engine.applyDelta(accountNumber, deltaCents, minBalanceCents));
+    }
+
+    // Both legs commit together: in one group commit when the accounts share a shard, otherwise in one store
+    // transaction while their two shards are paused.
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        return await(engine.transfer(fromAccountNumber, toAccountNumber, amountCents));
+    }
+
+    // Scans go straight to the store: every acknowledged ledger write is already committed there.
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        return engine.getStore().listAccounts(afterAccountNumber, limit);
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        return engine.getStore().exportAccounts(filter, sink);
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        // Submit everything before waiting so the shards can group-commit the whole list together.
+        List<CompletableFuture<Account>> pending = new ArrayList<>(operations.size());
+        for (BatchTransactionDTO op : operations) {
+            pending.add(switch (op.getType()) {
+                case DEPOSIT -> engine.applyDelta(op.getAccountNumber(), op.getAmountCents(), NO_MIN_BALANCE);
+                case WITHDRAW -> engine.applyDelta(op.getAccountNumber(), -op.getAmountCents(), 0);
+                case SET_BALANCE -> engine.setBalance(op.getAccountNumber(), op.getAmountCents());
+            });
+        }
+        BatchStatus[] outcomes = new BatchStatus[operations.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            try {
+                await(pending.get(i));
+                outcomes[i] = BatchStatus.APPLIED;
+            } catch (InsufficientFundsException e) {
+                outcomes[i] = BatchStatus.INSUFFICIENT_FUNDS;
+            } catch (AccountNotFoundException e) {
+                outcomes[i] = BatchStatus.NOT_FOUND;
+            } catch (RuntimeException e) {
+                outcomes[i] = BatchStatus.FAILED;
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public void close() {
+        engine.close();
+    }
+
+    // A command still queued at the timeout is cancelled, so the caller gets a retryable 503 that is known not to
+    // have been applied; one a shard writer already holds is in its group commit, so its real outcome is awaited.
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            try {
+                return future.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (future.cancel(false)) {
+                    throw new PipelineFullException("Ledger operation not applied: still queued after "
+                            + commitTimeoutMillis + " ms");
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Ledger operation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for ledger commit");
+        }
+    }
+}
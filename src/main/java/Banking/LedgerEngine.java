@@ -0,0 +1,380 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Sharded single-writer ledger: balances in memory, one writer thread per shard applying commands in order.
+public class LedgerEngine implements AutoCloseable {
+
+    private final AccountDAO store;
+    private final Shard[] shards;
+    // One cross-shard transfer pauses shards at a time, so two of them can never each hold a shard the other
+    // is waiting for. A semaphore because the permit is released on whichever thread finishes the transfer.
+    private final Semaphore crossShardTransfers = new Semaphore(1);
+
+    public LedgerEngine(AccountDAO store, int shardCount, int queueCapacity, int maxBatch) {
+        if (shardCount <= 0 || queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Ledger shards, queue capacity and batch size must be positive");
+        }
+        this.store = store;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity, maxBatch);
+            shards[i].writer.start();
+        }
+    }
+
+    // The durable store behind the shards; every completed command has already been committed to it.
+    AccountDAO getStore() {
+        return store;
+    }
+
+    public CompletableFuture<Account> create(Account account) {
+        return submit(new Command<>(Kind.CREATE, account.getAccountNumber(), 0, 0, 0, account));
+    }
+
+    public CompletableFuture<Account> get(int accountNumber) {
+        return submit(new Command<>(Kind.GET, accountNumber, 0, 0, 0, null));
+    }
+
+    public CompletableFuture<Account> applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        return submit(new Command<>(Kind.DELTA, accountNumber, 0, deltaCents, minBalanceCents, null));
+    }
+
+    public CompletableFuture<Account> setBalance(int accountNumber, long newBalanceCents) {
+        return submit(new Command<>(Kind.SET, accountNumber, 0, newBalanceCents, 0, null));
+    }
+
+    // Like every command, a transfer that is cancelled while still queued is guaranteed not applied. A
+    // cross-shard transfer waits here for the previous one to finish, then stalls its two shards for the length
+    // of its store transaction.
+    public CompletableFuture<TransferResultDTO> transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        if (shardFor(fromAccountNumber) == shardFor(toAccountNumber)) {
+            return submit(new Command<>(Kind.TRANSFER, fromAccountNumber, toAccountNumber, amountCents, 0, null));
+        }
+        try {
+            crossShardTransfers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        Command<Void> pauseFrom = new Command<>(Kind.PAUSE, fromAccountNumber, 0, 0, 0, null);
+        Command<Void> pauseTo = new Command<>(Kind.PAUSE, toAccountNumber, 0, 0, 0, null);
+        CrossShardTransfer transfer = new CrossShardTransfer(pauseFrom, pauseTo);
+        // Runs on whichever thread completes the second pause: a writer that just paused, or a cancellation.
+        CompletableFuture.allOf(pauseFrom, pauseTo).whenComplete((paused, failure) -> {
+            try {
+                if (failure != null) {
+                    transfer.completeExceptionally(failure);
+                } else {
+                    transfer.complete(store.transfer(fromAccountNumber, toAccountNumber, amountCents));
+                }
+            } catch (RuntimeException e) {
+                transfer.completeExceptionally(e);
+            } finally {
+                pauseFrom.resume();
+                pauseTo.resume();
+                crossShardTransfers.release();
+            }
+        });
+        submit(pauseFrom);
+        submit(pauseTo);
+        return transfer;
+    }
+
+    private Shard shardFor(int accountNumber) {
+        return shards[Math.floorMod(accountNumber, shards.length)];
+    }
+
+    private <T> Command<T> submit(Command<T> command) {
+        Shard shard = shardFor(command.accountNumber);
+        if (!shard.running) {
+            command.completeExceptionally(new IllegalStateException("Ledger engine is shut down"));
+            return command;
+        }
+        try {
+            // A full queue blocks the caller, which is the engine's backpressure.
+            shard.queue.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            command.completeExceptionally(e);
+            return command;
+        }
+        // close() may have run between the check and the put, after the writer's final drain; if so, nobody
+        // else will ever claim the command.
+        if (!shard.running && command.claim()) {
+            shard.queue.remove(command);
+            command.completeExceptionally(new IllegalStateException("Ledger engine is shut down"));
+        }
+        return command;
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private enum Kind { CREATE, GET, DELTA, SET, TRANSFER, PAUSE }
+
+    private static final class Command<T> extends CompletableFuture<T> {
+        final Kind kind;
+        final int accountNumber;
+        final int toAccountNumber;
+        final long amountCents;
+        final long minBalanceCents;
+        final Account account;
+        // Set by whichever side gets to the command first: the shard writer applying it, or a cancellation.
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        // PAUSE only: completed once the writer may go on with the commands queued behind it.
+        private final CompletableFuture<Void> resumed = new CompletableFuture<>();
+        Object result;
+        RuntimeException failure;
+        // Whether the result depends on the batch's group commit: the command changed a balance, or read one
+        // that an earlier command of the batch changed.
+        boolean uncommitted;
+
+        Command(Kind kind, int accountNumber, int toAccountNumber, long amountCents, long minBalanceCents,
+                Account account) {
+            this.kind = kind;
+            this.accountNumber = accountNumber;
+            this.toAccountNumber = toAccountNumber;
+            this.amountCents = amountCents;
+            this.minBalanceCents = minBalanceCents;
+            this.account = account;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        // Succeeds only while the command is still queued, so a cancelled command is guaranteed not applied.
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return claim() && super.cancel(mayInterruptIfRunning);
+        }
+
+        @SuppressWarnings("unchecked")
+        void finish() {
+            if (failure != null) {
+                completeExceptionally(failure);
+            } else {
+                complete((T) result);
+            }
+        }
+
+        void resume() {
+            resumed.complete(null);
+        }
+    }
+
+    // The caller's handle on a cross-shard transfer; it is applied only if both shards paused for it.
+    private static final class CrossShardTransfer extends CompletableFuture<TransferResultDTO> {
+        private final Command<Void> pauseFrom;
+        private final Command<Void> pauseTo;
+
+        CrossShardTransfer(Command<Void> pauseFrom, Command<Void> pauseTo) {
+            this.pauseFrom = pauseFrom;
+            this.pauseTo = pauseTo;
+        }
+
+        // Cancelling either pause while it is still queued is enough to keep the transfer from running.
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean fromCancelled = pauseFrom.cancel(mayInterruptIfRunning);
+            boolean toCancelled = pauseTo.cancel(mayInterruptIfRunning);
+            if (fromCancelled || toCancelled) {
+                super.cancel(mayInterruptIfRunning);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final class Shard implements Runnable {
+        final BlockingQueue<Command<?>> queue;
+        final int maxBatch;
+        final Thread writer;
+        // Only ever touched by the writer thread, and only right while this instance is the accounts' sole writer.
+        final Map<Integer, Account> balances = new HashMap<>();
+        volatile boolean running = true;
+
+        Shard(int index, int queueCapacity, int maxBatch) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.maxBatch = maxBatch;
+            this.writer = new Thread(this, "ledger-shard-" + index);
+            this.writer.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Command<?>> batch = new ArrayList<>(maxBatch);
+            List<Command<?>> applied = new ArrayList<>(maxBatch);
+            Map<Integer, Account> dirty = new LinkedHashMap<>();
+            while (running || !queue.isEmpty()) {
+                Command<?> first;
+                try {
+                    first = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                // Cancelled commands are already complete; drop them before anything is applied.
+                batch.removeIf(command -> !command.claim());
+                for (Command<?> command : batch) {
+                    if (command.kind == Kind.PAUSE) {
+                        // Everything before the pause is committed, and the account reloads from the store
+                        // afterwards, so a cross-shard transfer can change its row underneath this shard.
+                        finish(applied, dirty);
+                        balances.remove(command.accountNumber);
+                        command.complete(null);
+                        command.resumed.join();
+                        continue;
+                    }
+                    try {
+                        command.result = apply(command, dirty);
+                    } catch (RuntimeException e) {
+                        command.failure = e;
+                    }
+                    applied.add(command);
+                }
+                finish(applied, dirty);
+                batch.clear();
+            }
+            for (Command<?> left; (left = queue.poll()) != null; ) {
+                if (left.claim()) {
+                    left.completeExceptionally(new IllegalStateException("Ledger engine is shut down"));
+                }
+            }
+        }
+
+        // Group-commits the applied commands in one store transaction and only then completes them, so callers
+        // only ever see durable results.
+        private void finish(List<Command<?>> applied, Map<Integer, Account> dirty) {
+            if (applied.isEmpty()) {
+                return;
+            }
+            groupCommit(applied, dirty);
+            for (Command<?> command : applied) {
+                command.finish();
+            }
+            applied.clear();
+            dirty.clear();
+        }
+
+        private Object apply(Command<?> command, Map<Integer, Account> dirty) {
+            if (command.kind == Kind.CREATE) {
+                store.createAccount(command.account);
+                Account created = copyOf(command.account);
+                balances.put(created.getAccountNumber(), created);
+                return copyOf(created);
+            }
+            command.uncommitted = command.kind != Kind.GET || dirty.containsKey(command.accountNumber);
+            Account account = load(command.accountNumber);
+            if (command.kind == Kind.TRANSFER) {
+                Account to = load(command.toAccountNumber);
+                if (account.getBalanceCents() < command.amountCents) {
+                    throw new InsufficientFundsException("Insufficient funds for transfer");
+                }
+                // Both balances are computed before either is set, so an overflowing credit leaves both untouched.
+                long debited = account.getBalanceCents() - command.amountCents;
+                long credited = Math.addExact(to.getBalanceCents(), command.amountCents);
+                account.setBalanceCents(debited);
+                to.setBalanceCents(credited);
+                dirty.put(command.accountNumber, account);
+                dirty.put(command.toAccountNumber, to);
+                return new TransferResultDTO(copyOf(account), copyOf(to));
+            }
+            switch (command.kind) {
+                case DELTA -> {
+                    long newBalance = Math.addExact(account.getBalanceCents(), command.amountCents);
+                    if (newBalance < command.minBalanceCents) {
+                        throw new InsufficientFundsException("Insufficient funds for withdrawal");
+                    }
+                    account.setBalanceCents(newBalance);
+                    dirty.put(command.accountNumber, account);
+                }
+                case SET -> {
+                    account.setBalanceCents(command.amountCents);
+                    dirty.put(command.accountNumber, account);
+                }
+                default -> {
+                    // GET: nothing to change.
+                }
+            }
+            return copyOf(account);
+        }
+
+        private Account load(int accountNumber) {
+            Account account = balances.get(accountNumber);
+            if (account == null) {
+                // First touch of this account on this shard: load the durable row once.
+                account = store.getAccount(accountNumber);
+                balances.put(accountNumber, account);
+            }
+            return account;
+        }
+
+        // Persists the final balance of every account touched by the batch in one store batch.
+        private void groupCommit(List<Command<?>> batch, Map<Integer, Account> dirty) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            List<BatchTransactionDTO> writes = new ArrayList<>(dirty.size());
+            for (Account account : dirty.values()) {
+                writes.add(new BatchTransactionDTO(TransactionType.SET_BALANCE, account.getAccountNumber(),
+                        account.getBalanceCents()));
+            }
+            RuntimeException failure = null;
+            try {
+                BatchStatus[] outcomes = store.applyBatch(writes);
+                for (BatchStatus outcome : outcomes) {
+                    if (outcome != BatchStatus.APPLIED) {
+                        failure = new IllegalStateException("Ledger commit was not applied: " + outcome);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            if (failure != null) {
+                // Memory ran ahead of the store: forget those accounts so they reload from durable state.
+                for (Integer accountNumber : dirty.keySet()) {
+                    balances.remove(accountNumber);
+                }
+                // CREATEs committed on their own and reads of untouched accounts are still true; only the
+                // commands whose result rode on this commit fail.
+                for (Command<?> command : batch) {
+                    if (command.failure == null && command.uncommitted) {
+                        command.failure = failure;
+                    }
+                }
+            }
+        }
+    }
+
+    private static Account copyOf(Account account) {
+        return new Account(account.getAccountNumber(), account.getCustomerName(), account.getBalanceCents());
+    }
+}
@@ -0,0 +1,502 @@
+package Banking;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Non-interactive load mode of the CLI runner: a weighted operation mix over Zipfian-chosen accounts.
+public class LoadGenerator {
+
+    static final String LOAD_FLAG = "--load";
+    private static final double[] REPORT_PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99, 100};
+    private static final int SEED_BATCH = 10_000;
+
+    enum Operation {
+        CREATE, DEPOSIT, WITHDRAW, VIEW, TRANSFER
+    }
+
+    // What one operation did: applied, refused by a business rule (missing account, insufficient funds), or failed.
+    enum Outcome {
+        OK, REJECTED, ERROR
+    }
+
+    // Where operations are sent.
+    interface Target {
+        // Creates the accounts that are not there yet; returns how many were created.
+        long seed(int firstAccount, int count, long balanceCents) throws Exception;
+
+        // Highest existing account number at or above from, or from - 1 when there is none.
+        int highestAccount(int from) throws Exception;
+
+        Outcome execute(Operation operation, int accountNumber, int counterparty, long amountCents) throws Exception;
+    }
+
+    private final Options options;
+    private final Target target;
+    private final Operation[] mixTable;
+    private final Zipf keys;
+    private final AtomicInteger nextNewAccount = new AtomicInteger();
+
+    public LoadGenerator(Options options, Target target) {
+        this.options = options;
+        this.target = target;
+        this.mixTable = options.mixTable();
+        this.keys = new Zipf(options.accounts, options.skew);
+    }
+
+    static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (LOAD_FLAG.equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Seeds the accounts, runs the warm-up, then measures for the configured duration.
+    public Report run() throws Exception {
+        long seeded = target.seed(options.firstAccount, options.accounts, options.initialBalanceCents);
+        // CREATE numbers start above the seeded range and above anything earlier runs created there, so a
+        // rerun against the same database creates new accounts instead of colliding with old ones.
+        int firstNew = options.firstAccount + options.accounts;
+        nextNewAccount.set(Math.max(firstNew, target.highestAccount(firstNew) + 1));
+        if (!options.warmup.isZero()) {
+            runPhase(options.warmup, new Report(options, 0));
+        }
+        Report report = new Report(options, seeded);
+        report.elapsedNanos = runPhase(options.duration, report);
+        return report;
+    }
+
+    private long runPhase(Duration length, Report report) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        // With a rate, operations follow a fixed timetable and latency counts from each one's scheduled start, so a
+        // stall is charged to every operation queued behind it rather than hidden by the workers waiting.
+        long interval = options.rate > 0 ? (long) (1_000_000_000L / options.rate) : 0;
+        AtomicLong tickets = new AtomicLong();
+        try (ExecutorService workers = Executors.newFixedThreadPool(options.concurrency)) {
+            for (int w = 0; w < options.concurrency; w++) {
+                workers.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (true) {
+                        long scheduled;
+                        if (interval > 0) {
+                            scheduled = start + tickets.getAndIncrement() * interval;
+                            if (scheduled >= end) {
+                                return;
+                            }
+                            for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) {
+                                LockSupport.parkNanos(wait);
+                            }
+                        } else {
+                            scheduled = System.nanoTime();
+                            if (scheduled >= end) {
+                                return;
+                            }
+                        }
+                        Operation operation = mixTable[random.nextInt(mixTable.length)];
+                        report.record(operation, send(operation, random), System.nanoTime() - scheduled);
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Outcome send(Operation operation, ThreadLocalRandom random) {
+        int accountNumber = operation == Operation.CREATE
+                ? nextNewAccount.getAndIncrement()
+                : options.firstAccount + keys.next(random);
+        int counterparty = 0;
+        if (operation == Operation.TRANSFER) {
+            do {
+                counterparty = options.firstAccount + keys.next(random);
+            } while (counterparty == accountNumber && options.accounts > 1);
+        }
+        try {
+            return target.execute(operation, accountNumber, counterparty, options.amountCents);
+        } catch (Exception e) {
+            return Outcome.ERROR;
+        }
+    }
+
+    // Zipfian ranks in [0, n) after Gray et al. as used by YCSB; rank 0 is the hottest account, skew 0 is uniform.
+    static final class Zipf {
+        private final int n;
+        private final double theta;
+        private final double zetaN;
+        private final double alpha;
+        private final double eta;
+        private final double secondThreshold;
+
+        Zipf(int n, double theta) {
+            if (n <= 0 || theta < 0 || theta >= 1) {
+                throw new IllegalArgumentException("Zipf needs at least one key and a skew in [0, 1)");
+            }
+            this.n = n;
+            this.theta = theta;
+            // zeta(n) once here; each sample is then one random number and a pow.
+            double zeta = 0;
+            for (int i = 1; i <= n; i++) {
+                zeta += 1 / Math.pow(i, theta);
+            }
+            this.zetaN = zeta;
+            double zeta2 = 1 + 1 / Math.pow(2, theta);
+            this.alpha = 1 / (1 - theta);
+            this.eta = n == 1 ? 1 : (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetaN);
+            this.secondThreshold = 1 + Math.pow(0.5, theta);
+        }
+
+        int next(ThreadLocalRandom random) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1) {
+                return 0;
+            }
+            if (uz < secondThreshold && n > 1) {
+                return 1;
+            }
+            return Math.min(n - 1, (int) (n * Math.pow(eta * u - eta + 1, alpha)));
+        }
+    }
+
+    // Run settings from --name=value arguments; anything else (such as Spring properties) is left alone.
+    public static final class Options {
+        String target = "service";
+        Map<Operation, Integer> mix = parseMix("create:1,deposit:30,withdraw:20,view:45,transfer:4");
+        int accounts = 10_000;
+        int firstAccount = 1_000_000;
+        double skew = 0.99;
+        int concurrency = 16;
+        double rate;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(5);
+        long amountCents = 100;
+        long initialBalanceCents = 100_000;
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                    continue;
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "target" -> options.target = value;
+                    case "mix" -> options.mix = parseMix(value);
+                    case "accounts" -> options.accounts = Integer.parseInt(value);
+                    case "first-account" -> options.firstAccount = Integer.parseInt(value);
+                    case "skew" -> options.skew = Double.parseDouble(value);
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "rate" -> options.rate = Double.parseDouble(value);
+                    case "duration" -> options.duration = seconds(value);
+                    case "warmup" -> options.warmup = seconds(value);
+                    case "amount" -> options.amountCents = Money.parse(value);
+                    case "initial-balance" -> options.initialBalanceCents = Money.parse(value);
+                    default -> {
+                        // Not a load option.
+                    }
+                }
+            }
+            if (options.accounts <= 0 || options.concurrency <= 0 || options.rate < 0 || options.amountCents <= 0
+                    || (long) options.firstAccount + options.accounts > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "accounts, concurrency and amount must be positive, rate non-negative, and account numbers must fit an int");
+            }
+            return options;
+        }
+
+        boolean isHttp() {
+            return target.startsWith("http://") || target.startsWith("https://");
+        }
+
+        // One slot per unit of weight, so picking an operation is a single array index.
+        Operation[] mixTable() {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            Operation[] table = new Operation[total];
+            int i = 0;
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                for (int w = 0; w < entry.getValue(); w++) {
+                    table[i++] = entry.getKey();
+                }
+            }
+            return table;
+        }
+
+        static Map<Operation, Integer> parseMix(String text) {
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String part : text.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("mix entries look like deposit:30, got " + part);
+                }
+                int weight = Integer.parseInt(pair[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("mix weights cannot be negative");
+                }
+                if (weight > 0) {
+                    mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("mix needs at least one operation with a positive weight");
+            }
+            return mix;
+        }
+
+        private static Duration seconds(String value) {
+            return Duration.ofMillis(Math.round(Double.parseDouble(value) * 1000));
+        }
+    }
+
+    // Counts and latency histograms per operation for one measured phase.
+    public static final class Report {
+        private final Options options;
+        private final long seeded;
+        private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder[]> outcomes = new EnumMap<>(Operation.class);
+        private final LatencyHistogram total = new LatencyHistogram();
+        private long elapsedNanos;
+
+        Report(Options options, long seeded) {
+            this.options = options;
+            this.seeded = seeded;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+                outcomes.put(operation, new LongAdder[] {new LongAdder(), new LongAdder(), new LongAdder()});
+            }
+        }
+
+        void record(Operation operation, Outcome outcome, long nanos) {
+            latencies.get(operation).record(nanos);
+            total.record(nanos);
+            outcomes.get(operation)[outcome.ordinal()].increment();
+        }
+
+        public long count(Operation operation, Outcome outcome) {
+            return outcomes.get(operation)[outcome.ordinal()].sum();
+        }
+
+        public long getTotalCount() {
+            return total.getCount();
+        }
+
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : total.getCount() * 1e9 / elapsedNanos;
+        }
+
+        public LatencyHistogram getTotalLatency() {
+            return total;
+        }
+
+        public void print(PrintStream out) {
+            out.printf(Locale.ROOT, "target=%s accounts=%d (%d seeded) skew=%.2f concurrency=%d rate=%s duration=%ss%n",
+                    options.target, options.accounts, seeded, options.skew, options.concurrency,
+                    options.rate > 0 ? String.format(Locale.ROOT, "%.0f/s", options.rate) : "unlimited",
+                    options.duration.toMillis() / 1000.0);
+            out.printf(Locale.ROOT, "%-9s %9s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "operation", "count", "ok", "rejected", "errors", "p50_us", "p90_us", "p99_us", "p99.9_us", "max_us");
+            for (Operation operation : Operation.values()) {
+                LatencyHistogram histogram = latencies.get(operation);
+                if (histogram.getCount() > 0) {
+                    printRow(out, operation.name().toLowerCase(Locale.ROOT), histogram,
+                            count(operation, Outcome.OK), count(operation, Outcome.REJECTED), count(operation, Outcome.ERROR));
+                }
+            }
+            long ok = 0;
+            long rejected = 0;
+            long errors = 0;
+            for (Operation operation : Operation.values()) {
+                ok += count(operation, Outcome.OK);
+                rejected += count(operation, Outcome.REJECTED);
+                errors += count(operation, Outcome.ERROR);
+            }
+            printRow(out, "total", total, ok, rejected, errors);
+            out.printf(Locale.ROOT, "throughput: %.1f ops/s over %.1f s%n", getThroughput(), elapsedNanos / 1e9);
+            out.println("latency distribution (all operations):");
+            long[] values = total.percentiles(REPORT_PERCENTILES);
+            for (int i = 0; i < REPORT_PERCENTILES.length; i++) {
+                out.printf(Locale.ROOT, "  %8.3f%%  %10.1f us%n", REPORT_PERCENTILES[i], values[i] / 1000.0);
+            }
+        }
+
+        private static void printRow(PrintStream out, String name, LatencyHistogram histogram,
+                                     long ok, long rejected, long errors) {
+            long[] p = histogram.percentiles(50, 90, 99, 99.9);
+            out.printf(Locale.ROOT, "%-9s %9d %9d %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name, histogram.getCount(), ok, rejected, errors,
+                    p[0] / 1000.0, p[1] / 1000.0, p[2] / 1000.0, p[3] / 1000.0, histogram.getMaxNanos() / 1000.0);
+        }
+    }
+
+    // Calls TransactionService in this JVM, through the same DAO chain the REST API uses.
+    static final class ServiceTarget implements Target {
+        private final TransactionService service;
+
+        ServiceTarget(TransactionService service) {
+            this.service = service;
+        }
+
+        @Override
+        public long seed(int firstAccount, int count, long balanceCents) {
+            long created = 0;
+            for (int from = 0; from < count; from += SEED_BATCH) {
+                byte[] batch = seedBatch(firstAccount + from, Math.min(SEED_BATCH, count - from), balanceCents);
+                try (AccountImportReader reader = new AccountImportReader(
+                        new ByteArrayInputStream(batch), AccountImportReader.Format.NDJSON)) {
+                    created += service.importAccounts(reader).getCreated();
+                }
+            }
+            return created;
+        }
+
+        @Override
+        public int highestAccount(int from) {
+            int highest = from - 1;
+            for (Integer after = from - 1; after != null; ) {
+                AccountPageDTO page = service.listAccounts(after, TransactionService.MAX_PAGE_SIZE);
+                if (!page.getAccounts().isEmpty()) {
+                    highest = page.getAccounts().get(page.getAccounts().size() - 1).getAccountNumber();
+                }
+                after = page.getNextAfter();
+            }
+            return highest;
+        }
+
+        @Override
+        public Outcome execute(Operation operation, int accountNumber, int counterparty, long amountCents) {
+            try {
+                switch (operation) {
+                    case CREATE -> service.createAccount(new Account(accountNumber, "Load " + accountNumber, amountCents));
+                    case DEPOSIT -> service.deposit(accountNumber, amountCents);
+                    case WITHDRAW -> service.withdraw(accountNumber, amountCents);
+                    case VIEW -> service.viewAccount(accountNumber);
+                    case TRANSFER -> service.transfer(accountNumber, counterparty, amountCents);
+                }
+                return Outcome.OK;
+            } catch (AccountNotFoundException | IllegalArgumentException | DuplicateKeyException e) {
+                // A duplicate CREATE means another generator took the number first.
+                return Outcome.REJECTED;
+            }
+        }
+    }
+
+    // Sends the same operations to a running server's REST API; 4xx answers count as rejected.
+    static final class HttpTarget implements Target {
+        private static final ObjectReader PAGE_READER = new ObjectMapper()
+                .readerFor(AccountPageDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        private final String baseUrl;
+        private final HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        HttpTarget(String baseUrl) {
+            this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        }
+
+        @Override
+        public long seed(int firstAccount, int count, long balanceCents) throws Exception {
+            long created = 0;
+            for (int from = 0; from < count; from += SEED_BATCH) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/import"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(
+                                seedBatch(firstAccount + from, Math.min(SEED_BATCH, count - from), balanceCents)))
+                        .build();
+                String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+                int at = body.indexOf("\"created\":");
+                if (at >= 0) {
+                    int endOfNumber = at + 10;
+                    while (endOfNumber < body.length() && Character.isDigit(body.charAt(endOfNumber))) {
+                        endOfNumber++;
+                    }
+                    created += Long.parseLong(body.substring(at + 10, endOfNumber));
+                }
+            }
+            return created;
+        }
+
+        @Override
+        public int highestAccount(int from) throws Exception {
+            int highest = from - 1;
+            for (Integer after = from - 1; after != null; ) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts?after=" + after
+                        + "&limit=" + TransactionService.MAX_PAGE_SIZE)).GET().build();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Listing accounts after " + after + " answered " + response.statusCode());
+                }
+                AccountPageDTO page = PAGE_READER.readValue(response.body());
+                if (!page.getAccounts().isEmpty()) {
+                    highest = page.getAccounts().get(page.getAccounts().size() - 1).getAccountNumber();
+                }
+                after = page.getNextAfter();
+            }
+            return highest;
+        }
+
+        @Override
+        public Outcome execute(Operation operation, int accountNumber, int counterparty, long amountCents) throws Exception {
+            String amount = Money.format(amountCents);
+            HttpRequest request = switch (operation) {
+                case CREATE -> post("/api/accounts", "{\"accountNumber\":" + accountNumber
+                        + ",\"customerName\":\"Load " + accountNumber + "\",\"balance\":" + amount + "}");
+                case DEPOSIT -> post("/api/accounts/" + accountNumber + "/deposit", "{\"amount\":" + amount + "}");
+                case WITHDRAW -> post("/api/accounts/" + accountNumber + "/withdraw", "{\"amount\":" + amount + "}");
+                case VIEW -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + accountNumber)).GET().build();
+                case TRANSFER -> post("/api/accounts/" + accountNumber + "/transfer",
+                        "{\"toAccountNumber\":" + counterparty + ",\"amount\":" + amount + "}");
+            };
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status < 300) {
+                return Outcome.OK;
+            }
+            return status < 500 ? Outcome.REJECTED : Outcome.ERROR;
+        }
+
+        private HttpRequest post(String path, String json) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+    }
+
+    // NDJSON import lines for a block of load accounts.
+    private static byte[] seedBatch(int firstAccount, int count, long balanceCents) {
+        StringBuilder lines = new StringBuilder(count * 64);
+        String balance = Money.format(balanceCents);
+        for (int i = 0; i < count; i++) {
+            int accountNumber = firstAccount + i;
+            lines.append("{\"accountNumber\":").append(accountNumber)
+                    .append(",\"customerName\":\"Load ").append(accountNumber)
+                    .append("\",\"balance\":").append(balance).append("}\n");
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
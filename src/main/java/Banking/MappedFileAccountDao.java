@@ -0,0 +1,643 @@
+package Banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+// AccountDAO over memory-mapped files with a redo log, for deployments without MySQL (the "embedded" profile).
+@Repository
+@Profile("embedded")
+public class MappedFileAccountDao implements AccountDAO, AutoCloseable {
+
+    static final String TABLE_FILE = "accounts.tbl";
+    static final String NAMES_FILE = "accounts.names";
+    static final String LOG_FILE = "accounts.log";
+
+    // Header page: magic:8 | version:4 | slots:4 | count:8 | heapEnd:8 | checkpointSequence:8 | clean:4.
+    static final int HEADER_BYTES = 4096;
+    static final long MAGIC = 0x42414E4B41434354L;
+    static final int VERSION = 1;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 8;
+    private static final int H_SLOTS = 12;
+    private static final int H_COUNT = 16;
+    private static final int H_HEAP_END = 24;
+    private static final int H_CHECKPOINT = 32;
+    private static final int H_CLEAN = 40;
+
+    // Slot: state:4 | account:4 | balanceCents:8 | nameOffset:8 | nameLength:4 | unused:4. The state is written
+    // last with release semantics and read with acquire, so lookups probe the mapped table without the lock.
+    static final int SLOT_BYTES = 32;
+    private static final int STATE_OFFSET = 0;
+    private static final int ACCOUNT_OFFSET = 4;
+    private static final int BALANCE_OFFSET = 8;
+    private static final int NAME_OFFSET_OFFSET = 16;
+    private static final int NAME_LENGTH_OFFSET = 24;
+    private static final int USED = 1;
+    private static final double MAX_LOAD = 0.75;
+    // A MappedByteBuffer is int-indexed, so the table is mapped in 1 GiB chunks and the heap in 64 MiB ones.
+    private static final int CHUNK_SHIFT = 25;
+    private static final int HEAP_CHUNK_BYTES = 1 << 26;
+    // Lock-free balance copies attempted before listing or export takes the lock instead.
+    private static final int OPTIMISTIC_COPIES = 4;
+
+    // Same limit as the customer_name VARCHAR(255) column.
+    static final int MAX_NAME_CHARS = 255;
+
+    // Log record: length:4 | checksum:4 | sequence:8 | type:4 | payload. The checksum covers sequence onwards.
+    private static final int LOG_HEADER = 20;
+    private static final int LOG_SET = 1;
+    private static final int LOG_PAIR = 2;
+    private static final int LOG_CREATE = 3;
+    private static final int MAX_LOG_RECORD = LOG_HEADER + 28 + MAX_NAME_CHARS * 4;
+
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final boolean syncEveryWrite;
+    private final ScheduledExecutorService flusher;
+    // Held by every write through log.force() (fsync-interval-ms=0) and by checkpoints flushing the whole
+    // table; waiting virtual threads park on it instead of pinning their carriers as they would on a monitor.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+
+    private final FileChannel tableChannel;
+    private final FileChannel namesChannel;
+    private final FileChannel logChannel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] table;
+    private final MappedByteBuffer log;
+    private final int mask;
+    private final long maxCount;
+    private volatile MappedByteBuffer[] heap = new MappedByteBuffer[0];
+    // Odd while a transfer is storing its two balances; only written under the lock. Listing and export keep a
+    // lock-free copy of balances only if the stamp was even and unchanged across it, so they never show half a
+    // transfer.
+    private volatile long transferStamp;
+
+    private long count;
+    private long heapEnd;
+    private long nextSequence;
+    private int logPosition;
+    private boolean unsynced;
+    private boolean closed;
+
+    @Autowired
+    public MappedFileAccountDao(@Value("${banking.embedded.dir:data}") String directory,
+                                @Value("${banking.embedded.capacity:1000000}") int capacity,
+                                @Value("${banking.embedded.log-size-mb:64}") int logSizeMb,
+                                @Value("${banking.embedded.fsync-interval-ms:0}") long fsyncIntervalMillis) {
+        this(Path.of(directory), capacity, logSizeMb * 1024L * 1024L, fsyncIntervalMillis);
+    }
+
+    // capacity only sizes a new table; an existing one keeps the size it was created with.
+    MappedFileAccountDao(Path directory, int capacity, long logBytes, long fsyncIntervalMillis) {
+        if (capacity <= 0 || capacity > (1 << 30) * MAX_LOAD || logBytes < MAX_LOG_RECORD
+                || logBytes > Integer.MAX_VALUE || fsyncIntervalMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Embedded store needs a capacity of 1 to 805306368 accounts and a log of at least one record");
+        }
+        this.directory = directory;
+        this.syncEveryWrite = fsyncIntervalMillis == 0;
+        try {
+            Files.createDirectories(directory);
+            tableChannel = FileChannel.open(directory.resolve(TABLE_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean fresh = tableChannel.size() == 0;
+            header = tableChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (fresh) {
+                header.putLong(H_MAGIC, MAGIC);
+                header.putInt(H_VERSION, VERSION);
+                header.putInt(H_SLOTS, slotsFor(capacity));
+                header.putInt(H_CLEAN, 1);
+                header.force();
+            } else if (header.getLong(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+                throw new IllegalStateException(directory.resolve(TABLE_FILE) + " is not an account table");
+            }
+            int slots = header.getInt(H_SLOTS);
+            mask = slots - 1;
+            maxCount = (long) (slots * MAX_LOAD);
+            // Mapping past the end grows the file sparsely; untouched slots read as zeros, i.e. free.
+            table = new MappedByteBuffer[Math.max(1, slots >>> CHUNK_SHIFT)];
+            for (int i = 0; i < table.length; i++) {
+                long chunkSlots = Math.min(slots, 1 << CHUNK_SHIFT);
+                table[i] = tableChannel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + ((long) i << CHUNK_SHIFT) * SLOT_BYTES, chunkSlots * SLOT_BYTES);
+            }
+
+            namesChannel = FileChannel.open(directory.resolve(NAMES_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            count = header.getLong(H_COUNT);
+            heapEnd = header.getLong(H_HEAP_END);
+            mapHeapThrough(Math.max(namesChannel.size(), 1) - 1);
+
+            logChannel = FileChannel.open(directory.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(logBytes, Math.min(logChannel.size(), Integer.MAX_VALUE)));
+
+            boolean clean = header.getInt(H_CLEAN) == 1;
+            nextSequence = header.getLong(H_CHECKPOINT) + 1;
+            replay();
+            if (!clean) {
+                recount();
+            }
+            checkpoint();
+            header.putInt(H_CLEAN, 0);
+            header.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open embedded account store in " + directory, e);
+        }
+        if (fsyncIntervalMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "embedded-store-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        byte[] name = encodeName(account.getCustomerName());
+        lock.lock();
+        try {
+            ensureOpen();
+            int slot = find(account.getAccountNumber());
+            if (isUsed(slot)) {
+                throw new DuplicateKeyException("Account already exists: " + account.getAccountNumber());
+            }
+            if (count >= maxCount) {
+                throw new IllegalStateException("Embedded account table is full at " + maxCount
+                        + " accounts; create a new one with a larger banking.embedded.capacity");
+            }
+            long nameOffset = reserveName(name.length);
+            int at = beginRecord(LOG_CREATE, 28 + name.length);
+            log.putInt(at, slot);
+            log.putInt(at + 4, account.getAccountNumber());
+            log.putLong(at + 8, account.getBalanceCents());
+            log.putLong(at + 16, nameOffset);
+            log.putInt(at + 24, name.length);
+            log.put(at + 28, name);
+            commitRecord(at + 28 + name.length);
+            applyCreate(slot, account.getAccountNumber(), account.getBalanceCents(), nameOffset, name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        lock.lock();
+        try {
+            ensureOpen();
+            int slot = existingSlot(accountNumber);
+            logSet(slot, newBalanceCents);
+            setBalance(slot, newBalanceCents);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        int slot = existingSlot(accountNumber);
+        return (long) LONG_VIEW.getVolatile(chunkOf(slot), baseOf(slot) + BALANCE_OFFSET);
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        return read(existingSlot(accountNumber), new Account());
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        lock.lock();
+        try {
+            ensureOpen();
+            int slot = existingSlot(accountNumber);
+            long balance = (long) LONG_VIEW.getVolatile(chunkOf(slot), baseOf(slot) + BALANCE_OFFSET);
+            if (minBalanceCents != NO_MIN_BALANCE && balance + deltaCents < minBalanceCents) {
+                throw new InsufficientFundsException("Insufficient funds for withdrawal");
+            }
+            logSet(slot, balance + deltaCents);
+            setBalance(slot, balance + deltaCents);
+            return read(slot, new Account());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        lock.lock();
+        try {
+            ensureOpen();
+            int fromSlot = existingSlot(fromAccountNumber);
+            int toSlot = existingSlot(toAccountNumber);
+            long fromBalance = (long) LONG_VIEW.getVolatile(chunkOf(fromSlot), baseOf(fromSlot) + BALANCE_OFFSET);
+            if (fromBalance < amountCents) {
+                throw new InsufficientFundsException("Insufficient funds for transfer");
+            }
+            long newFrom = fromBalance - amountCents;
+            long newTo = (toSlot == fromSlot ? newFrom
+                    : (long) LONG_VIEW.getVolatile(chunkOf(toSlot), baseOf(toSlot) + BALANCE_OFFSET)) + amountCents;
+            // Both legs in one record, so replay never applies half a transfer.
+            int at = beginRecord(LOG_PAIR, 24);
+            log.putInt(at, fromSlot);
+            log.putLong(at + 4, newFrom);
+            log.putInt(at + 12, toSlot);
+            log.putLong(at + 16, newTo);
+            commitRecord(at + 24);
+            transferStamp++;
+            try {
+                setBalance(fromSlot, newFrom);
+                setBalance(toSlot, newTo);
+            } finally {
+                transferStamp++;
+            }
+            return new TransferResultDTO(read(fromSlot, new Account()), read(toSlot, new Account()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        // The table is in hash order, so a page is the `limit` smallest numbers past the cursor, found in one
+        // pass over the slots.
+        SmallestInts page = new SmallestInts(limit);
+        for (int slot = 0; slot <= mask; slot++) {
+            if (!isUsed(slot)) {
+                continue;
+            }
+            int accountNumber = chunkOf(slot).getInt(baseOf(slot) + ACCOUNT_OFFSET);
+            if (afterAccountNumber == null || accountNumber > afterAccountNumber) {
+                page.offer(accountNumber);
+            }
+        }
+        int[] slots = page.sorted();
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = find(slots[i]);
+        }
+        long[] balances = copyBalances(slots, slots.length);
+        List<Account> accounts = new ArrayList<>(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            Account account = read(slots[i], new Account());
+            account.setBalanceCents(balances[i]);
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        // Sorting needs the account numbers in memory, 4 bytes each, and the balance copy 8 more; names are
+        // then read one row at a time.
+        int[] accountNumbers = new int[(int) Math.min(getCount(), Integer.MAX_VALUE - 8)];
+        int size = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (isUsed(slot)) {
+                if (size == accountNumbers.length) {
+                    accountNumbers = Arrays.copyOf(accountNumbers, size + (size >> 1) + 16);
+                }
+                accountNumbers[size++] = chunkOf(slot).getInt(baseOf(slot) + ACCOUNT_OFFSET);
+            }
+        }
+        Arrays.sort(accountNumbers, 0, size);
+        // Each sorted number is replaced by its slot in place.
+        int[] slots = accountNumbers;
+        for (int i = 0; i < size; i++) {
+            slots[i] = find(slots[i]);
+        }
+        long[] balances = copyBalances(slots, size);
+        Account row = new Account();
+        long sent = 0;
+        for (int i = 0; i < size; i++) {
+            read(slots[i], row);
+            row.setBalanceCents(balances[i]);
+            if (filter.matches(row)) {
+                sink.accept(row);
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    public long getCount() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Forces log records appended since the last sync to disk.
+    public void flush() {
+        lock.lock();
+        try {
+            if (!closed && unsynced) {
+                log.force();
+                unsynced = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Checkpoints and marks the files cleanly closed, so the next open skips the recount.
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (flusher != null) {
+                flusher.shutdownNow();
+            }
+            checkpoint();
+            header.putInt(H_CLEAN, 1);
+            header.force();
+            closed = true;
+            logChannel.close();
+            namesChannel.close();
+            tableChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Re-applies the log records written after the last checkpoint; stops at the first torn or stale one.
+    private void replay() {
+        int position = 0;
+        while (position + LOG_HEADER <= log.capacity()) {
+            int length = log.getInt(position);
+            if (length < LOG_HEADER || length > MAX_LOG_RECORD || position + length > log.capacity()
+                    || log.getLong(position + 8) != nextSequence || log.getInt(position + 4) != checksum(position, length)) {
+                break;
+            }
+            int at = position + LOG_HEADER;
+            switch (log.getInt(position + 16)) {
+                case LOG_SET -> setBalance(log.getInt(at), log.getLong(at + 4));
+                case LOG_PAIR -> {
+                    setBalance(log.getInt(at), log.getLong(at + 4));
+                    setBalance(log.getInt(at + 12), log.getLong(at + 16));
+                }
+                case LOG_CREATE -> {
+                    byte[] name = new byte[log.getInt(at + 24)];
+                    log.get(at + 28, name);
+                    long nameOffset = log.getLong(at + 16);
+                    mapHeapThrough(nameOffset + name.length);
+                    applyCreate(log.getInt(at), log.getInt(at + 4), log.getLong(at + 8), nameOffset, name);
+                }
+                default -> throw new IllegalStateException("Unknown record type in " + directory.resolve(LOG_FILE));
+            }
+            nextSequence++;
+            position += length;
+        }
+    }
+
+    // After a machine crash, table pages may have reached disk without their log records; recount the table
+    // so the account count and heap end cover every slot that is in use.
+    private void recount() {
+        long used = 0;
+        long end = heapEnd;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (isUsed(slot)) {
+                used++;
+                ByteBuffer chunk = chunkOf(slot);
+                int base = baseOf(slot);
+                end = Math.max(end, chunk.getLong(base + NAME_OFFSET_OFFSET) + chunk.getInt(base + NAME_LENGTH_OFFSET));
+            }
+        }
+        count = used;
+        heapEnd = end;
+        mapHeapThrough(end);
+    }
+
+    // Makes heap and table durable up to the last record, then starts the log over.
+    private void checkpoint() {
+        for (MappedByteBuffer chunk : heap) {
+            chunk.force();
+        }
+        for (MappedByteBuffer chunk : table) {
+            chunk.force();
+        }
+        header.putLong(H_COUNT, count);
+        header.putLong(H_HEAP_END, heapEnd);
+        header.putLong(H_CHECKPOINT, nextSequence - 1);
+        header.force();
+        // Records left in the log now carry sequences at or below the checkpoint, so replay ignores them.
+        logPosition = 0;
+        unsynced = false;
+    }
+
+    private int beginRecord(int type, int payloadBytes) {
+        if (logPosition + LOG_HEADER + payloadBytes > log.capacity()) {
+            checkpoint();
+        }
+        log.putInt(logPosition, LOG_HEADER + payloadBytes);
+        log.putLong(logPosition + 8, nextSequence);
+        log.putInt(logPosition + 16, type);
+        return logPosition + LOG_HEADER;
+    }
+
+    // Every write logs the post-image of its slots and, with fsync-interval-ms=0, forces it before the table is
+    // touched: the kernel may write a table page back at any moment, but never ahead of its record. Forcing in the
+    // background instead lets a machine crash leave pages, such as one leg of a transfer, that replay cannot fix.
+    private void commitRecord(int end) {
+        int length = end - logPosition;
+        log.putInt(logPosition + 4, checksum(logPosition, length));
+        if (syncEveryWrite) {
+            log.force(logPosition, length);
+        } else {
+            unsynced = true;
+        }
+        logPosition = end;
+        nextSequence++;
+    }
+
+    private void logSet(int slot, long balanceCents) {
+        int at = beginRecord(LOG_SET, 12);
+        log.putInt(at, slot);
+        log.putLong(at + 4, balanceCents);
+        commitRecord(at + 12);
+    }
+
+    private int checksum(int position, int length) {
+        crc.reset();
+        crc.update(log.slice(position + 8, length - 8));
+        return (int) crc.getValue();
+    }
+
+    private void applyCreate(int slot, int accountNumber, long balanceCents, long nameOffset, byte[] name) {
+        heap[(int) (nameOffset / HEAP_CHUNK_BYTES)].put((int) (nameOffset % HEAP_CHUNK_BYTES), name);
+        ByteBuffer chunk = chunkOf(slot);
+        int base = baseOf(slot);
+        chunk.putInt(base + ACCOUNT_OFFSET, accountNumber);
+        LONG_VIEW.setVolatile(chunk, base + BALANCE_OFFSET, balanceCents);
+        chunk.putLong(base + NAME_OFFSET_OFFSET, nameOffset);
+        chunk.putInt(base + NAME_LENGTH_OFFSET, name.length);
+        INT_VIEW.setRelease(chunk, base + STATE_OFFSET, USED);
+        count++;
+        heapEnd = Math.max(heapEnd, nameOffset + name.length);
+    }
+
+    // Balances of the first size slots as of one moment between transfers.
+    private long[] copyBalances(int[] slots, int size) {
+        long[] balances = new long[size];
+        for (int attempt = 0; attempt < OPTIMISTIC_COPIES; attempt++) {
+            long stamp = transferStamp;
+            if ((stamp & 1) == 0) {
+                readBalances(slots, size, balances);
+                if (transferStamp == stamp) {
+                    return balances;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        lock.lock();
+        try {
+            readBalances(slots, size, balances);
+            return balances;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void readBalances(int[] slots, int size, long[] into) {
+        for (int i = 0; i < size; i++) {
+            into[i] = (long) LONG_VIEW.getVolatile(chunkOf(slots[i]), baseOf(slots[i]) + BALANCE_OFFSET);
+        }
+    }
+
+    private void setBalance(int slot, long balanceCents) {
+        LONG_VIEW.setVolatile(chunkOf(slot), baseOf(slot) + BALANCE_OFFSET, balanceCents);
+    }
+
+    // Heap offset for a new name; names never straddle two heap chunks.
+    private long reserveName(int length) {
+        long offset = heapEnd;
+        if (offset % HEAP_CHUNK_BYTES + length > HEAP_CHUNK_BYTES) {
+            offset = (offset / HEAP_CHUNK_BYTES + 1) * HEAP_CHUNK_BYTES;
+        }
+        mapHeapThrough(offset + length);
+        return offset;
+    }
+
+    // Maps heap chunks up to the one holding the given offset.
+    private void mapHeapThrough(long offset) {
+        int needed = (int) (offset / HEAP_CHUNK_BYTES) + 1;
+        MappedByteBuffer[] current = heap;
+        if (current.length >= needed) {
+            return;
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(current, needed);
+        try {
+            for (int i = current.length; i < needed; i++) {
+                grown[i] = namesChannel.map(FileChannel.MapMode.READ_WRITE, (long) i * HEAP_CHUNK_BYTES, HEAP_CHUNK_BYTES);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow " + directory.resolve(NAMES_FILE), e);
+        }
+        heap = grown;
+    }
+
+    private Account read(int slot, Account into) {
+        ByteBuffer chunk = chunkOf(slot);
+        int base = baseOf(slot);
+        byte[] name = new byte[chunk.getInt(base + NAME_LENGTH_OFFSET)];
+        long nameOffset = chunk.getLong(base + NAME_OFFSET_OFFSET);
+        heap[(int) (nameOffset / HEAP_CHUNK_BYTES)].get((int) (nameOffset % HEAP_CHUNK_BYTES), name);
+        into.setAccountNumber(chunk.getInt(base + ACCOUNT_OFFSET));
+        into.setCustomerName(new String(name, StandardCharsets.UTF_8));
+        into.setBalanceCents((long) LONG_VIEW.getVolatile(chunk, base + BALANCE_OFFSET));
+        return into;
+    }
+
+    private int existingSlot(int accountNumber) {
+        int slot = find(accountNumber);
+        if (!isUsed(slot)) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+        return slot;
+    }
+
+    // The account's slot, or the free slot where it would be inserted. The load cap keeps a free slot reachable.
+    private int find(int accountNumber) {
+        int slot = AccountLockManager.spread(accountNumber) & mask;
+        while (isUsed(slot) && chunkOf(slot).getInt(baseOf(slot) + ACCOUNT_OFFSET) != accountNumber) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean isUsed(int slot) {
+        return (int) INT_VIEW.getAcquire(chunkOf(slot), baseOf(slot) + STATE_OFFSET) == USED;
+    }
+
+    private ByteBuffer chunkOf(int slot) {
+        return table[slot >>> CHUNK_SHIFT];
+    }
+
+    private static int baseOf(int slot) {
+        return (slot & ((1 << CHUNK_SHIFT) - 1)) * SLOT_BYTES;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Embedded account store is closed");
+        }
+    }
+
+    private static byte[] encodeName(String customerName) {
+        if (customerName == null) {
+            throw new IllegalArgumentException("Customer name is required");
+        }
+        if (customerName.length() > MAX_NAME_CHARS) {
+            throw new IllegalArgumentException("Customer name cannot exceed " + MAX_NAME_CHARS + " characters");
+        }
+        return customerName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Smallest power of two that keeps capacity accounts under the load cap.
+    static int slotsFor(int capacity) {
+        int needed = (int) Math.ceil(capacity / MAX_LOAD);
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+}
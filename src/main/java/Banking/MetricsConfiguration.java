@@ -0,0 +1,30 @@
+package Banking;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+// Hooks every Hikari pool into BankingMetrics before it starts, so connection wait times show up in /api/metrics.
+public class MetricsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor poolMetricsPostProcessor(ObjectProvider<BankingMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    if (dataSource.getPoolName() == null) {
+                        dataSource.setPoolName(beanName);
+                    }
+                    dataSource.setMetricsTrackerFactory(PoolMetricsTracker.factory(metrics.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/metrics")
+// Read-only view of latency histograms, outcome counters, pool gauges, lock contention (in total and for
+// the most contended stripes) and cache hit rates.
+public class MetricsRestController {
+
+    private final BankingMetrics metrics;
+    private final AccountLockManager lockManager;
+    private final ObjectProvider<AccountCache> accountCache;
+
+    public MetricsRestController(BankingMetrics metrics, AccountLockManager lockManager,
+                                 ObjectProvider<AccountCache> accountCache) {
+        this.metrics = metrics;
+        this.lockManager = lockManager;
+        this.accountCache = accountCache;
+    }
+
+    // topStripes bounds the per-stripe breakdown to the stripes with the longest total lock wait.
+    @GetMapping
+    public Map<String, Object> metrics(@RequestParam(defaultValue = "10") int topStripes) {
+        if (topStripes < 0 || topStripes > lockManager.getStripes()) {
+            throw new IllegalArgumentException("topStripes must be between 0 and " + lockManager.getStripes());
+        }
+        Map<String, Object> snapshot = metrics.snapshot();
+
+        Map<String, Object> locks = new LinkedHashMap<>();
+        locks.put("stripes", lockManager.getStripes());
+        locks.put("acquisitions", lockManager.getTotalAcquisitions());
+        locks.put("contended", lockManager.getTotalContended());
+        locks.put("waitMs", lockManager.getTotalWaitNanos() / 1_000_000);
+        List<Map<String, Object>> hottest = new ArrayList<>();
+        for (int stripe : lockManager.getMostContendedStripes(topStripes)) {
+            Map<String, Object> stripeStats = new LinkedHashMap<>();
+            stripeStats.put("stripe", stripe);
+            stripeStats.put("acquisitions", lockManager.getAcquisitions(stripe));
+            stripeStats.put("contended", lockManager.getContended(stripe));
+            stripeStats.put("waitMs", lockManager.getWaitNanos(stripe) / 1_000_000);
+            hottest.add(stripeStats);
+        }
+        locks.put("hottestStripes", hottest);
+        snapshot.put("locks", locks);
+
+        AccountCache cache = accountCache.getIfAvailable();
+        if (cache != null) {
+            Map<String, Object> cacheStats = new LinkedHashMap<>();
+            cacheStats.put("hits", cache.getHits());
+            cacheStats.put("misses", cache.getMisses());
+            cacheStats.put("evictions", cache.getEvictions());
+            snapshot.put("cache", cacheStats);
+        }
+        return snapshot;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException ex) {
+        metrics.recordBadRequest();
+        return Map.of("error", ex.getMessage());
+    }
+}
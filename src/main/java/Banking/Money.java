@@ -0,0 +1,123 @@
+package Banking;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+// Converts long cents, the app-wide money type, to and from decimal text (JSON, CLI, DECIMAL(15,2)).
+public final class Money {
+
+    // Longest formatted value: '-' + 17 integer digits + '.' + 2 decimals.
+    static final int MAX_FORMATTED_LENGTH = 21;
+
+    private Money() {
+    }
+
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    // Exact, without double or BigDecimal; more than two significant decimals are rejected rather than rounded.
+    public static long parse(char[] buf, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+        try {
+            long units = 0;
+            int integerDigits = 0;
+            for (; i < end && isDigit(buf[i]); i++, integerDigits++) {
+                units = Math.addExact(Math.multiplyExact(units, 10), buf[i] - '0');
+            }
+            long cents = 0;
+            int fractionDigits = 0;
+            if (i < end && buf[i] == '.') {
+                for (i++; i < end && isDigit(buf[i]); i++, fractionDigits++) {
+                    int digit = buf[i] - '0';
+                    if (fractionDigits < 2) {
+                        cents = cents * 10 + digit;
+                    } else if (digit != 0) {
+                        throw new IllegalArgumentException("Amount has more than 2 decimal places");
+                    }
+                }
+            }
+            if (i != end || integerDigits + fractionDigits == 0) {
+                throw new IllegalArgumentException("Invalid amount: " + new String(buf, offset, length));
+            }
+            if (fractionDigits == 1) {
+                cents *= 10;
+            }
+            long value = Math.addExact(Math.multiplyExact(units, 100), cents);
+            return negative ? -value : value;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + new String(buf, offset, length));
+        }
+    }
+
+    public static String format(long cents) {
+        char[] buf = new char[MAX_FORMATTED_LENGTH];
+        int start = formatTo(cents, buf);
+        return new String(buf, start, buf.length - start);
+    }
+
+    // Writes cents right-aligned into buf as "[-]units.cc" and returns the index of the first char.
+    static int formatTo(long cents, char[] buf) {
+        // Work on the negative value so Long.MIN_VALUE needs no special case.
+        long v = cents < 0 ? cents : -cents;
+        int pos = buf.length;
+        buf[--pos] = (char) ('0' - v % 10);
+        v /= 10;
+        buf[--pos] = (char) ('0' - v % 10);
+        v /= 10;
+        buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' - v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (cents < 0) {
+            buf[--pos] = '-';
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Writes cents as a plain JSON number such as 123.45.
+    public static class AmountSerializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long cents, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            char[] buf = new char[MAX_FORMATTED_LENGTH];
+            int start = formatTo(cents, buf);
+            gen.writeNumber(buf, start, buf.length - start);
+        }
+    }
+
+    // Reads a JSON number (or numeric string) straight from the parser's text buffer into cents.
+    public static class AmountDeserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                throw JsonMappingException.from(p, "Amount must be a number");
+            }
+            try {
+                return parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            } catch (IllegalArgumentException e) {
+                throw JsonMappingException.from(p, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Banking;
+
+// One hit from GET /api/accounts/search; edits is 0 for an exact prefix match, otherwise the typos forgiven.
+public class NameMatchDTO {
+    private int accountNumber;
+    private String customerName;
+    private int edits;
+
+    public NameMatchDTO() {
+    }
+
+    // Constructor
+    public NameMatchDTO(int accountNumber, String customerName, int edits) {
+        this.accountNumber = accountNumber;
+        this.customerName = customerName;
+        this.edits = edits;
+    }
+
+    // Getters and setters
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public int getEdits() {
+        return edits;
+    }
+
+    public void setEdits(int edits) {
+        this.edits = edits;
+    }
+}
@@ -0,0 +1,35 @@
+package Banking;
+
+import java.util.List;
+
+// Response of GET /api/accounts/search; complete is false while the index is still loading or after it hit its memory budget.
+public class NameSearchResultDTO {
+    private List<NameMatchDTO> matches;
+    private boolean complete;
+
+    public NameSearchResultDTO() {
+    }
+
+    // Constructor
+    public NameSearchResultDTO(List<NameMatchDTO> matches, boolean complete) {
+        this.matches = matches;
+        this.complete = complete;
+    }
+
+    // Getters and setters
+    public List<NameMatchDTO> getMatches() {
+        return matches;
+    }
+
+    public void setMatches(List<NameMatchDTO> matches) {
+        this.matches = matches;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+}
@@ -0,0 +1,45 @@
+package Banking;
+
+// An asynchronously submitted operation and its outcome; status stays PENDING until a worker has applied it.
+public class OperationStatusDTO extends BatchTransactionDTO {
+    private long operationId;
+    private BatchStatus status;
+    private String error;
+
+    public OperationStatusDTO() {
+    }
+
+    // Constructor
+    public OperationStatusDTO(long operationId, TransactionType type, int accountNumber, long amountCents,
+                              BatchStatus status, String error) {
+        super(type, accountNumber, amountCents);
+        this.operationId = operationId;
+        this.status = status;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public long getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(long operationId) {
+        this.operationId = operationId;
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BatchStatus status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,9 @@
+package Banking;
+
+// Signals that a write pipeline (async submission queues, ledger shards) did not take the operation, so it was not
+// applied and can be retried (mapped to HTTP 503 with Retry-After).
+public class PipelineFullException extends RuntimeException {
+    public PipelineFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package Banking;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+// Hikari metrics hook: records how long each getConnection() waited and counts acquisition timeouts.
+public class PoolMetricsTracker implements IMetricsTracker {
+
+    private final BankingMetrics.Pool pool;
+
+    PoolMetricsTracker(BankingMetrics.Pool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        pool.getAcquire().record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        pool.recordTimeout();
+    }
+
+    // Factory handed to HikariConfig.setMetricsTrackerFactory.
+    public static MetricsTrackerFactory factory(BankingMetrics metrics) {
+        return (String poolName, PoolStats poolStats) -> {
+            BankingMetrics.Pool pool = metrics.pool(poolName);
+            pool.bind(poolStats);
+            return new PoolMetricsTracker(pool);
+        };
+    }
+}
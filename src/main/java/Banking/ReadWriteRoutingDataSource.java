@@ -0,0 +1,104 @@
+package Banking;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+// Hands out replica connections for reads ReplicaRouting has flagged, primary connections otherwise.
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReplicaRouting routing;
+    private final boolean leastLoaded;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaRouting routing,
+                                      boolean leastLoaded) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.routing = routing;
+        this.leastLoaded = leastLoaded;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicas.isEmpty() || !routing.isReplicaRead()) {
+            return primary.getConnection();
+        }
+        DataSource replica = selectReplica();
+        try {
+            return replica.getConnection();
+        } catch (SQLException | RuntimeException ex) {
+            // RuntimeException covers Hikari's PoolInitializationException for a replica that never came up.
+            log.warn("Replica unavailable, reading from primary: {}", ex.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are per pool; callers do not pass their own.
+        return getConnection();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // Round-robin, or fewest active plus waiting connections for least-loaded.
+    DataSource selectReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        if (!leastLoaded) {
+            return replicas.get(start);
+        }
+        // Scan from the round-robin position so ties rotate instead of always picking the first replica.
+        DataSource best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSource candidate = replicas.get((start + i) % replicas.size());
+            int load = load(candidate);
+            if (load < bestLoad) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private static int load(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+        }
+        return 0;
+    }
+
+    // Closes the replica pools this DataSource owns; the primary is a bean with its own lifecycle.
+    @Override
+    public void close() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
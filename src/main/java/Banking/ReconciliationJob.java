@@ -0,0 +1,316 @@
+package Banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// End-of-day check of every balance in accounts against the transaction journal.
+@Component
+@ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+public class ReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationJob.class);
+    private static final AccountExportFilter ALL_ACCOUNTS = new AccountExportFilter(null, null, null);
+    // Records per hand-off from the journal reader to a partition worker, and hand-offs queued per worker.
+    private static final int CHUNK_RECORDS = 4096;
+    private static final int QUEUED_CHUNKS = 4;
+
+    private final TransactionJournal journal;
+    private final AccountDAO accountDAO;
+    private final int parallelism;
+    private final int maxReported;
+
+    @Autowired
+    public ReconciliationJob(TransactionJournal journal, AccountDAO accountDAO,
+                             @Value("${banking.reconciliation.parallelism:4}") int parallelism,
+                             @Value("${banking.reconciliation.max-reported:1000}") int maxReported) {
+        if (parallelism <= 0 || maxReported < 0) {
+            throw new IllegalArgumentException("Reconciliation parallelism must be positive");
+        }
+        this.journal = journal;
+        this.accountDAO = accountDAO;
+        this.parallelism = parallelism;
+        this.maxReported = maxReported;
+    }
+
+    public ReconciliationReportDTO run() {
+        long start = System.nanoTime();
+        Path directory = journal.getDirectory();
+        long journalEnd = journal.getLastSequence();
+        // Expected balances start from the previous run's snapshot; only the records since then are replayed.
+        long snapshot = ReconciliationSnapshot.latest(directory, journalEnd);
+        Partition[] partitions = aggregate(directory, snapshot, journalEnd);
+
+        ReconciliationReportDTO report = new ReconciliationReportDTO();
+        report.setJournalSequence(journalEnd);
+        report.setReplayedFrom(snapshot + 1);
+        IntLongHashMap suspects = new IntLongHashMap();
+        IntLongHashMap unverified = new IntLongHashMap();
+        long[] counts = new long[2];
+        // Checked rows move from expected to seen, so what stays in expected is journaled but missing from the table.
+        accountDAO.exportAccounts(ALL_ACCOUNTS, row -> {
+            int accountNumber = row.getAccountNumber();
+            Partition partition = partitions[partitionOf(accountNumber)];
+            counts[0]++;
+            if (!partition.expected.containsKey(accountNumber)) {
+                // Opened before journaling, or backfilled; settle gives it an opening balance for the next run.
+                unverified.put(accountNumber, row.getBalanceCents());
+                return;
+            }
+            long expected = partition.expected.get(accountNumber, 0);
+            partition.expected.remove(accountNumber);
+            partition.seen.put(accountNumber, expected);
+            if (expected == row.getBalanceCents()) {
+                counts[1]++;
+            } else {
+                suspects.put(accountNumber, expected);
+            }
+        });
+        report.setAccounts(counts[0]);
+        report.setUnverified(unverified.size());
+
+        IntLongHashMap opening = new IntLongHashMap();
+        List<BalanceMismatchDTO> mismatches = settle(suspects, unverified, journalEnd, opening);
+        report.setMatched(counts[1] + suspects.size() - mismatches.size());
+        for (Partition partition : partitions) {
+            partition.expected.forEach((accountNumber, expected) ->
+                    mismatches.add(new BalanceMismatchDTO(accountNumber, expected, null)));
+        }
+        mismatches.sort(Comparator.comparingInt(BalanceMismatchDTO::getAccountNumber));
+        report.setMismatched(mismatches.size());
+        report.setMismatches(new ArrayList<>(mismatches.subList(0, Math.min(maxReported, mismatches.size()))));
+
+        // Mismatched and missing accounts keep the journal's balance, so they are reported again until fixed.
+        List<IntLongHashMap> balances = new ArrayList<>();
+        for (Partition partition : partitions) {
+            balances.add(partition.seen);
+            balances.add(partition.expected);
+        }
+        balances.add(opening);
+        try {
+            ReconciliationSnapshot.save(directory, journalEnd, balances);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Cannot save reconciliation snapshot at journal sequence {}; the next run replays from {}",
+                    journalEnd, snapshot + 1, e);
+        }
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Reconciled {} accounts against journal sequences {}-{}: {} matched, {} unverified, {} mismatched",
+                report.getAccounts(), snapshot + 1, journalEnd, report.getMatched(), report.getUnverified(),
+                report.getMismatched());
+        return report;
+    }
+
+    // Rebuilds expected balances: the partitions start from the snapshot, then this thread reads the journal
+    // once, from the snapshot to journalEnd, and hands each record to the worker owning its account (a transfer
+    // to the owners of both accounts) in chunks, so the journal is read and decoded once however many partitions
+    // there are, and each partition still sees its records in journal order.
+    private Partition[] aggregate(Path directory, long snapshot, long journalEnd) {
+        Partition[] partitions = new Partition[parallelism];
+        for (int p = 0; p < parallelism; p++) {
+            partitions[p] = new Partition();
+        }
+        if (snapshot > 0) {
+            ReconciliationSnapshot.load(directory, snapshot, (accountNumber, expected) ->
+                    partitions[partitionOf(accountNumber)].expected.put(accountNumber, expected));
+        }
+        List<BlockingQueue<Chunk>> queues = new ArrayList<>(parallelism);
+        List<Future<?>> workers = new ArrayList<>(parallelism);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (int p = 0; p < parallelism; p++) {
+                Partition partition = partitions[p];
+                BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+                queues.add(queue);
+                workers.add(pool.submit(() -> {
+                    for (Chunk chunk; (chunk = queue.take()).size > 0; ) {
+                        chunk.applyTo(partition);
+                    }
+                    return null;
+                }));
+            }
+            Chunk[] filling = new Chunk[parallelism];
+            for (int p = 0; p < parallelism; p++) {
+                filling[p] = new Chunk();
+            }
+            try (JournalReader reader = new JournalReader(directory, snapshot + 1)) {
+                reader.replay(r -> {
+                    if (r.getSequence() > journalEnd) {
+                        return;
+                    }
+                    route(filling, queues, workers, partitionOf(r.getAccountNumber()),
+                            r.getType(), r.getAccountNumber(), r.getAmountCents(), false);
+                    if (r.getType() == JournalRecordType.TRANSFER) {
+                        route(filling, queues, workers, partitionOf(r.getCounterpartyAccountNumber()),
+                                r.getType(), r.getCounterpartyAccountNumber(), r.getAmountCents(), true);
+                    }
+                });
+            }
+            for (int p = 0; p < parallelism; p++) {
+                if (filling[p].size > 0) {
+                    hand(queues.get(p), workers.get(p), filling[p]);
+                }
+                hand(queues.get(p), workers.get(p), new Chunk());
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot rebuild expected balances from the journal", e.getCause());
+        } finally {
+            // Also unblocks workers still waiting for chunks when the read failed.
+            pool.shutdownNow();
+        }
+        return partitions;
+    }
+
+    // Adds one record to its partition's chunk and hands the chunk over once it is full.
+    private static void route(Chunk[] filling, List<BlockingQueue<Chunk>> queues, List<Future<?>> workers, int p,
+                              JournalRecordType type, int accountNumber, long amountCents, boolean transferCredit) {
+        if (filling[p].add(type, accountNumber, amountCents, transferCredit)) {
+            try {
+                hand(queues.get(p), workers.get(p), filling[p]);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconciliation interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Cannot rebuild expected balances from the journal", e.getCause());
+            }
+            filling[p] = new Chunk();
+        }
+    }
+
+    // Waits for room in the worker's queue, giving up with the worker's failure if it has stopped.
+    private static void hand(BlockingQueue<Chunk> queue, Future<?> worker, Chunk chunk)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (worker.isDone()) {
+                worker.get();
+                throw new IllegalStateException("Reconciliation worker stopped early");
+            }
+        }
+    }
+
+    // Catches suspects and unverified rows up with the journal records written since journalEnd and rereads them.
+    // Suspects that still differ are mismatches. Unverified rows get their reread balance less those records as
+    // their opening balance, unless a record for them lands after the replay (it may or may not be in the reread);
+    // those are left for the next run.
+    private List<BalanceMismatchDTO> settle(IntLongHashMap suspects, IntLongHashMap unverified, long journalEnd,
+                                            IntLongHashMap opening) {
+        List<BalanceMismatchDTO> mismatches = new ArrayList<>();
+        if (suspects.isEmpty() && unverified.isEmpty()) {
+            return mismatches;
+        }
+        Partition latest = new Partition();
+        suspects.forEach(latest.expected::put);
+        unverified.forEach((accountNumber, ignored) -> latest.expected.put(accountNumber, 0));
+        try (JournalReader reader = new JournalReader(journal.getDirectory(), journalEnd + 1)) {
+            reader.replay(r -> {
+                if (latest.expected.containsKey(r.getAccountNumber())) {
+                    latest.apply(r.getType(), r.getAccountNumber(), r.getAmountCents(), false);
+                }
+                if (r.getType() == JournalRecordType.TRANSFER && latest.expected.containsKey(r.getCounterpartyAccountNumber())) {
+                    latest.apply(r.getType(), r.getCounterpartyAccountNumber(), r.getAmountCents(), true);
+                }
+            });
+            suspects.forEach((accountNumber, ignored) -> {
+                long expected = latest.expected.get(accountNumber, 0);
+                Long actual;
+                try {
+                    actual = accountDAO.getBalance(accountNumber);
+                } catch (AccountNotFoundException e) {
+                    actual = null;
+                }
+                if (actual == null || actual != expected) {
+                    mismatches.add(new BalanceMismatchDTO(accountNumber, expected, actual));
+                }
+            });
+            if (!unverified.isEmpty()) {
+                // One more pass over the table rather than a read per row: on the first run every account is here.
+                accountDAO.exportAccounts(ALL_ACCOUNTS, row -> {
+                    int accountNumber = row.getAccountNumber();
+                    if (unverified.containsKey(accountNumber)) {
+                        opening.put(accountNumber, row.getBalanceCents() - latest.expected.get(accountNumber, 0));
+                    }
+                });
+                reader.replay(r -> {
+                    opening.remove(r.getAccountNumber());
+                    if (r.getType() == JournalRecordType.TRANSFER) {
+                        opening.remove(r.getCounterpartyAccountNumber());
+                    }
+                });
+            }
+        }
+        return mismatches;
+    }
+
+    private int partitionOf(int accountNumber) {
+        return Math.floorMod(accountNumber, parallelism);
+    }
+
+    // Records bound for one partition, copied out of the journal by the reading thread; empty marks the end.
+    private static final class Chunk {
+        final JournalRecordType[] types = new JournalRecordType[CHUNK_RECORDS];
+        final int[] accountNumbers = new int[CHUNK_RECORDS];
+        final long[] amounts = new long[CHUNK_RECORDS];
+        final boolean[] transferCredits = new boolean[CHUNK_RECORDS];
+        int size;
+
+        // Returns true once the chunk is full.
+        boolean add(JournalRecordType type, int accountNumber, long amountCents, boolean transferCredit) {
+            types[size] = type;
+            accountNumbers[size] = accountNumber;
+            amounts[size] = amountCents;
+            transferCredits[size] = transferCredit;
+            return ++size == CHUNK_RECORDS;
+        }
+
+        void applyTo(Partition partition) {
+            for (int i = 0; i < size; i++) {
+                partition.apply(types[i], accountNumbers[i], amounts[i], transferCredits[i]);
+            }
+        }
+    }
+
+    // Expected balances of one partition of accounts.
+    private static final class Partition {
+        // Accounts whose opening balance is known: expected balance. Deltas for any other account are dropped.
+        final IntLongHashMap expected = new IntLongHashMap(1 << 16);
+        // Accounts the table scan has checked, moved out of expected: their expected balance as of journalEnd.
+        final IntLongHashMap seen = new IntLongHashMap(1 << 16);
+
+        void apply(JournalRecordType type, int accountNumber, long amountCents, boolean transferCredit) {
+            switch (type) {
+                case CREATE, SET_BALANCE -> expected.put(accountNumber, amountCents);
+                case DEPOSIT, ACCRUAL -> add(accountNumber, amountCents);
+                case WITHDRAW -> add(accountNumber, -amountCents);
+                case TRANSFER -> add(accountNumber, transferCredit ? amountCents : -amountCents);
+            }
+        }
+
+        private void add(int accountNumber, long deltaCents) {
+            if (expected.containsKey(accountNumber)) {
+                expected.addTo(accountNumber, deltaCents);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Banking;
+
+import java.util.List;
+
+// Outcome of a reconciliation run: rows checked, how they compared and the first mismatches by account number.
+public class ReconciliationReportDTO {
+    private long journalSequence;
+    // First journal sequence this run read; earlier records came from the previous run's snapshot.
+    private long replayedFrom;
+    private long accounts;
+    private long matched;
+    // Rows whose opening balance is in neither the journal nor the snapshot (created before journaling was enabled).
+    private long unverified;
+    private long mismatched;
+    private List<BalanceMismatchDTO> mismatches;
+    private long elapsedMs;
+
+    public ReconciliationReportDTO() {
+    }
+
+    // Getters and setters
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    public long getReplayedFrom() {
+        return replayedFrom;
+    }
+
+    public void setReplayedFrom(long replayedFrom) {
+        this.replayedFrom = replayedFrom;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public void setMatched(long matched) {
+        this.matched = matched;
+    }
+
+    public long getUnverified() {
+        return unverified;
+    }
+
+    public void setUnverified(long unverified) {
+        this.unverified = unverified;
+    }
+
+    public long getMismatched() {
+        return mismatched;
+    }
+
+    public void setMismatched(long mismatched) {
+        this.mismatched = mismatched;
+    }
+
+    public List<BalanceMismatchDTO> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<BalanceMismatchDTO> mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
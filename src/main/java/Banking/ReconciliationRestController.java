@@ -0,0 +1,24 @@
+package Banking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/reconciliations")
+@ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+// Runs the end-of-day journal-versus-table reconciliation and returns its report when it finishes.
+public class ReconciliationRestController {
+
+    private final ReconciliationJob reconciliationJob;
+
+    public ReconciliationRestController(ReconciliationJob reconciliationJob) {
+        this.reconciliationJob = reconciliationJob;
+    }
+
+    @PostMapping
+    public ReconciliationReportDTO reconcile() {
+        return reconciliationJob.run();
+    }
+}
@@ -0,0 +1,105 @@
+package Banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Expected balances as of a journal sequence, saved next to the journal segments by each reconciliation run.
+final class ReconciliationSnapshot {
+
+    static final String PREFIX = "reconciled-";
+    static final String SUFFIX = ".snap";
+    // Account number (int) then expected balance in cents (long); the file is just these entries.
+    private static final int ENTRY_SIZE = 12;
+
+    private ReconciliationSnapshot() {
+    }
+
+    // Sequence of the newest snapshot in directory not past maxSequence, or 0 if there is none.
+    static long latest(Path directory, long maxSequence) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .mapToLong(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .filter(sequence -> sequence <= maxSequence)
+                    .max()
+                    .orElse(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list reconciliation snapshots in " + directory, e);
+        }
+    }
+
+    static void load(Path directory, long sequence, IntLongHashMap.IntLongConsumer sink) {
+        Path file = directory.resolve(fileName(sequence));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (entries.limit() % ENTRY_SIZE != 0) {
+                throw new IllegalStateException("Reconciliation snapshot " + file + " is truncated");
+            }
+            while (entries.hasRemaining()) {
+                sink.accept(entries.getInt(), entries.getLong());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read reconciliation snapshot " + file, e);
+        }
+    }
+
+    // Written to a temporary file and renamed into place, so a crash never leaves a partial snapshot; older
+    // snapshots are deleted once the new one is in place.
+    static void save(Path directory, long sequence, List<IntLongHashMap> balances) throws IOException {
+        Path temporary = Files.createTempFile(directory, PREFIX, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(4096 * ENTRY_SIZE);
+                for (IntLongHashMap map : balances) {
+                    map.forEach((accountNumber, cents) -> {
+                        if (buffer.remaining() < ENTRY_SIZE) {
+                            drain(channel, buffer);
+                        }
+                        buffer.putInt(accountNumber).putLong(cents);
+                    });
+                }
+                drain(channel, buffer);
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(fileName(sequence)), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path older : files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX) && name.compareTo(fileName(sequence)) < 0;
+            }).toList()) {
+                Files.deleteIfExists(older);
+            }
+        }
+    }
+
+    static String fileName(long sequence) {
+        return String.format("%s%020d%s", PREFIX, sequence, SUFFIX);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "banking.replicas.urls")
+// Replaces the single auto-configured pool with a primary pool plus replica pools behind a routing DataSource.
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(HikariDataSource primaryDataSource,
+                                                 DataSourceProperties properties,
+                                                 ReplicaRouting routing,
+                                                 BankingMetrics metrics,
+                                                 @Value("${banking.replicas.urls}") List<String> replicaUrls,
+                                                 @Value("${banking.replicas.selection:round-robin}") String selection,
+                                                 @Value("${banking.replicas.pool-size:10}") int poolSize,
+                                                 @Value("${banking.replicas.connection-timeout-ms:1000}") long connectionTimeoutMillis) {
+        boolean leastLoaded;
+        switch (selection) {
+            case "round-robin" -> leastLoaded = false;
+            case "least-loaded" -> leastLoaded = true;
+            default -> throw new IllegalArgumentException("banking.replicas.selection must be round-robin or least-loaded");
+        }
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            // Fail fast so a dead replica costs a short wait before the primary fallback, not the 30 s default.
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(PoolMetricsTracker.factory(metrics));
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, routing, leastLoaded);
+    }
+}
@@ -0,0 +1,91 @@
+package Banking;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Decides which reads may go to a replica: none of an account written within the read-your-writes window.
+@Component
+public class ReplicaRouting {
+
+    static final int WRITE_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    // Last write per hash stripe rather than per account; a collision only sends an extra read to the primary.
+    private final AtomicLongArray lastWriteNanos;
+    private final ThreadLocal<Boolean> replicaRead = new ThreadLocal<>();
+
+    // Routing disabled: everything goes to the primary.
+    public ReplicaRouting() {
+        this(false, 0);
+    }
+
+    @Autowired
+    public ReplicaRouting(@Value("${banking.replicas.urls:}") String replicaUrls,
+                          @Value("${banking.replicas.read-your-writes-ms:2000}") long readYourWritesMillis) {
+        this(!replicaUrls.isBlank(), readYourWritesMillis);
+    }
+
+    ReplicaRouting(boolean enabled, long readYourWritesMillis) {
+        if (readYourWritesMillis < 0) {
+            throw new IllegalArgumentException("banking.replicas.read-your-writes-ms cannot be negative");
+        }
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+        this.lastWriteNanos = new AtomicLongArray(enabled ? WRITE_STRIPES : 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordWrite(int accountNumber) {
+        if (enabled) {
+            // Never store 0, which marks a stripe that has not been written.
+            lastWriteNanos.set(stripeFor(accountNumber), System.nanoTime() | 1);
+        }
+    }
+
+    // Flags the current thread for a replica read unless the account was written recently; pass the
+    // result to endRead.
+    public boolean beginRead(int accountNumber) {
+        if (!enabled) {
+            return false;
+        }
+        long lastWrite = lastWriteNanos.get(stripeFor(accountNumber));
+        if (lastWrite != 0 && System.nanoTime() - lastWrite < windowNanos) {
+            return false;
+        }
+        replicaRead.set(Boolean.TRUE);
+        return true;
+    }
+
+    // Flags the current thread for a replica read regardless of recent writes, for bulk scans such as exports
+    // where replica lag is acceptable; pass the result to endRead.
+    public boolean beginBulkRead() {
+        if (!enabled) {
+            return false;
+        }
+        replicaRead.set(Boolean.TRUE);
+        return true;
+    }
+
+    public void endRead(boolean replica) {
+        if (replica) {
+            replicaRead.remove();
+        }
+    }
+
+    // True while the current thread is inside a replica-eligible read.
+    public boolean isReplicaRead() {
+        return enabled && replicaRead.get() != null;
+    }
+
+    private static int stripeFor(int accountNumber) {
+        return AccountLockManager.spread(accountNumber) & (WRITE_STRIPES - 1);
+    }
+}
@@ -0,0 +1,38 @@
+package Banking;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Component
+// Times each REST call end to end (JSON binding and error handling included) per HTTP method and route template.
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final BankingMetrics metrics;
+
+    public RequestTimingFilter(BankingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Route templates keep the number of histograms bounded regardless of account numbers in the path.
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.httpTimer(request.getMethod(), route instanceof String s ? s : UNMATCHED_ROUTE).recordSince(start);
+        }
+    }
+}
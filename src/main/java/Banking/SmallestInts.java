@@ -0,0 +1,67 @@
+package Banking;
+
+import java.util.Arrays;
+
+// Keeps the `limit` smallest ints offered, in a bounded max-heap: one keyset page from a store kept in hash order.
+final class SmallestInts {
+
+    private final int[] heap;
+    private int size;
+
+    SmallestInts(int limit) {
+        this.heap = new int[Math.max(0, limit)];
+    }
+
+    void offer(int value) {
+        if (size < heap.length) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (size > 0 && value < heap[0]) {
+            heap[0] = value;
+            siftDown();
+        }
+    }
+
+    // The kept values in ascending order.
+    int[] sorted() {
+        int[] values = Arrays.copyOf(heap, size);
+        Arrays.sort(values);
+        return values;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= heap[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown() {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            if (left < size && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (left + 1 < size && heap[left + 1] > heap[largest]) {
+                largest = left + 1;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(largest, index);
+            index = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int value = heap[a];
+        heap[a] = heap[b];
+        heap[b] = value;
+    }
+}
@@ -0,0 +1,139 @@
+package Banking;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Records the latency of every call on the wrapped AccountDAO, including ones that throw.
+public class TimedAccountDao implements AccountDAO {
+
+    private final AccountDAO delegate;
+    private final LatencyHistogram createAccountTimer;
+    private final LatencyHistogram createAccountsTimer;
+    private final LatencyHistogram updateBalanceTimer;
+    private final LatencyHistogram getBalanceTimer;
+    private final LatencyHistogram getAccountTimer;
+    private final LatencyHistogram applyDeltaTimer;
+    private final LatencyHistogram applyBatchTimer;
+    private final LatencyHistogram listAccountsTimer;
+    private final LatencyHistogram exportAccountsTimer;
+    private final LatencyHistogram transferTimer;
+
+    public TimedAccountDao(AccountDAO delegate, BankingMetrics metrics) {
+        this.delegate = delegate;
+        this.createAccountTimer = metrics.timer("dao.createAccount");
+        this.createAccountsTimer = metrics.timer("dao.createAccounts");
+        this.updateBalanceTimer = metrics.timer("dao.updateBalance");
+        this.getBalanceTimer = metrics.timer("dao.getBalance");
+        this.getAccountTimer = metrics.timer("dao.getAccount");
+        this.applyDeltaTimer = metrics.timer("dao.applyDelta");
+        this.applyBatchTimer = metrics.timer("dao.applyBatch");
+        this.listAccountsTimer = metrics.timer("dao.listAccounts");
+        this.exportAccountsTimer = metrics.timer("dao.exportAccounts");
+        this.transferTimer = metrics.timer("dao.transfer");
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        long start = System.nanoTime();
+        try {
+            delegate.createAccount(account);
+        } finally {
+            createAccountTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean[] createAccounts(List<Account> accounts) {
+        long start = System.nanoTime();
+        try {
+            return delegate.createAccounts(accounts);
+        } finally {
+            createAccountsTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateBalance(int accountNumber, long newBalanceCents) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateBalance(accountNumber, newBalanceCents);
+        } finally {
+            updateBalanceTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public long getBalance(int accountNumber) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBalance(accountNumber);
+        } finally {
+            getBalanceTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Account getAccount(int accountNumber) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAccount(accountNumber);
+        } finally {
+            getAccountTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Account applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        long start = System.nanoTime();
+        try {
+            return delegate.applyDelta(accountNumber, deltaCents, minBalanceCents);
+        } finally {
+            applyDeltaTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.listAccounts(afterAccountNumber, limit);
+        } finally {
+            listAccountsTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+        long start = System.nanoTime();
+        try {
+            return delegate.exportAccounts(filter, sink);
+        } finally {
+            exportAccountsTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+        long start = System.nanoTime();
+        try {
+            return delegate.applyBatch(operations);
+        } finally {
+            applyBatchTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        long start = System.nanoTime();
+        try {
+            return delegate.transfer(fromAccountNumber, toAccountNumber, amountCents);
+        } finally {
+            transferTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void invalidate(int accountNumber) {
+        delegate.invalidate(accountNumber);
+    }
+}
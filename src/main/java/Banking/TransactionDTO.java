@@ -1,17 +1,22 @@
 package Banking;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 // Request payload for deposit/withdraw/update balance operations.
 public class TransactionDTO {
     private int accountNumber;
-    private double amount;
+    // Minor units (cents); bound to the decimal JSON "amount" such as 50.25.
+    private long amountCents;
 
     public TransactionDTO() {
     }
 
     // Constructor
-    public TransactionDTO(int accountNumber, double amount) {
+    public TransactionDTO(int accountNumber, long amountCents) {
         this.accountNumber = accountNumber;
-        this.amount = amount;
+        this.amountCents = amountCents;
     }
 
     // Getters and setters
@@ -23,12 +28,16 @@ public class TransactionDTO {
         this.accountNumber = accountNumber;
     }
 
-    public double getAmount() {
-        return amount;
+    @JsonProperty("amount")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    @JsonProperty("amount")
+    @JsonDeserialize(using = Money.AmountDeserializer.class)
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 }
 
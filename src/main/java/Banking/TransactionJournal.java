@@ -0,0 +1,253 @@
+package Banking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Append-only journal of account operations in memory-mapped segment files of fixed-width records.
+public class TransactionJournal implements AutoCloseable {
+
+    // Record (big endian): sequence:8 | timestampMillis:8 | type:4 | account:4 | counterparty:4 | amountCents:8 |
+    // checksum:4. The type is stored last and doubles as the "slot written" marker; the checksum rejects torn slots.
+    static final int RECORD_SIZE = 40;
+    static final int SEQUENCE_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int TYPE_OFFSET = 16;
+    static final int ACCOUNT_OFFSET = 20;
+    static final int COUNTERPARTY_OFFSET = 24;
+    static final int AMOUNT_OFFSET = 28;
+    static final int CHECKSUM_OFFSET = 36;
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    // Pages are forced every fsyncEvery records and on the flusher's timer, bounding what a machine crash can lose.
+    private final int fsyncEvery;
+    private final ScheduledExecutorService flusher;
+    // Appends hold this across segment.force() every fsyncEvery records and across segment rolls; a monitor
+    // would pin the carrier of every request thread queued behind that fsync.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int slot;
+    private long nextSequence;
+    private int unsynced;
+    private boolean closed;
+
+    public TransactionJournal(Path directory, long segmentBytes, int fsyncEvery, long fsyncIntervalMillis) {
+        if (segmentBytes < RECORD_SIZE || segmentBytes > Integer.MAX_VALUE || fsyncEvery <= 0) {
+            throw new IllegalArgumentException("Journal segment size must fit one record and fsyncEvery must be positive");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = (int) (segmentBytes / RECORD_SIZE);
+        this.fsyncEvery = fsyncEvery;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal in " + directory, e);
+        }
+        if (fsyncIntervalMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    // Appends one record and returns its sequence number.
+    public long append(JournalRecordType type, int accountNumber, int counterpartyAccountNumber, long amountCents) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (slot == recordsPerSegment) {
+                roll();
+            }
+            long sequence = nextSequence++;
+            long timestamp = System.currentTimeMillis();
+            int base = slot * RECORD_SIZE;
+            segment.putLong(base + SEQUENCE_OFFSET, sequence);
+            segment.putLong(base + TIMESTAMP_OFFSET, timestamp);
+            segment.putInt(base + ACCOUNT_OFFSET, accountNumber);
+            segment.putInt(base + COUNTERPARTY_OFFSET, counterpartyAccountNumber);
+            segment.putLong(base + AMOUNT_OFFSET, amountCents);
+            segment.putInt(base + CHECKSUM_OFFSET,
+                    checksum(sequence, timestamp, type.code(), accountNumber, counterpartyAccountNumber, amountCents));
+            segment.putInt(base + TYPE_OFFSET, type.code());
+            slot++;
+            if (++unsynced >= fsyncEvery) {
+                segment.force();
+                unsynced = 0;
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Forces any records appended since the last sync to disk.
+    public void flush() {
+        lock.lock();
+        try {
+            if (!closed && unsynced > 0) {
+                segment.force();
+                unsynced = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (flusher != null) {
+                flusher.shutdownNow();
+            }
+            segment.force();
+            closed = true;
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reopens the newest segment and positions after its last intact record.
+    private void recover() throws IOException {
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            openSegment(1);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long baseSequence = baseSequenceOf(last);
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        slot = 0;
+        nextSequence = baseSequence;
+        while (slot < recordsPerSegment && readSlot(segment, slot, null) == nextSequence) {
+            slot++;
+            nextSequence++;
+        }
+        // Anything after the first bad slot is a torn tail; the next append overwrites it.
+    }
+
+    private void roll() {
+        segment.force();
+        unsynced = 0;
+        try {
+            channel.close();
+            openSegment(nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll journal segment in " + directory, e);
+        }
+    }
+
+    private void openSegment(long baseSequence) throws IOException {
+        Path file = directory.resolve(segmentName(baseSequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file; the new region reads as zeros, i.e. unwritten slots.
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        slot = 0;
+    }
+
+    static String segmentName(long baseSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX);
+    }
+
+    static long baseSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Segment files in sequence order (names are zero-padded, so lexical order is sequence order).
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    // Decodes the slot into record (when non-null) and returns its sequence, or -1 if the slot is not intact.
+    static long readSlot(ByteBuffer buffer, int slot, JournalRecord record) {
+        int base = slot * RECORD_SIZE;
+        if (base + RECORD_SIZE > buffer.limit()) {
+            return -1;
+        }
+        int code = buffer.getInt(base + TYPE_OFFSET);
+        JournalRecordType type = JournalRecordType.fromCode(code);
+        if (type == null) {
+            return -1;
+        }
+        long sequence = buffer.getLong(base + SEQUENCE_OFFSET);
+        long timestamp = buffer.getLong(base + TIMESTAMP_OFFSET);
+        int account = buffer.getInt(base + ACCOUNT_OFFSET);
+        int counterparty = buffer.getInt(base + COUNTERPARTY_OFFSET);
+        long amount = buffer.getLong(base + AMOUNT_OFFSET);
+        if (buffer.getInt(base + CHECKSUM_OFFSET) != checksum(sequence, timestamp, code, account, counterparty, amount)) {
+            return -1;
+        }
+        if (record != null) {
+            record.set(sequence, timestamp, type, account, counterparty, amount);
+        }
+        return sequence;
+    }
+
+    static int checksum(long sequence, long timestamp, int type, int account, int counterparty, long amount) {
+        long h = sequence * 0x9E3779B97F4A7C15L;
+        h = (h ^ timestamp) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ ((long) type << 32 | (account & 0xFFFFFFFFL))) * 0x94D049BB133111EBL;
+        h = (h ^ counterparty) * 0x9E3779B97F4A7C15L;
+        h = (h ^ amount) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
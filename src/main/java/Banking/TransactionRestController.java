@@ -1,8 +1,16 @@
 package Banking;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +18,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -27,10 +39,18 @@ import org.springframework.web.bind.annotation.RestController;
 // HTTP layer exposing account CRUD/transactions with basic validation responses.
 public class TransactionRestController {
 
+    // RFC 7240 preference that switches deposit and withdraw to queued submission.
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final TransactionService transactionService;
+    private final AsyncTransactionPipeline asyncPipeline;
+    private final BankingMetrics metrics;
 
-    public TransactionRestController(TransactionService transactionService) {
+    public TransactionRestController(TransactionService transactionService, AsyncTransactionPipeline asyncPipeline,
+                                     BankingMetrics metrics) {
         this.transactionService = transactionService;
+        this.asyncPipeline = asyncPipeline;
+        this.metrics = metrics;
     }
 
     @PostMapping
@@ -38,19 +58,97 @@ public class TransactionRestController {
         return transactionService.createAccount(account);
     }
 
+    // With "Prefer: respond-async" the operation is queued and answered 202 at once; poll the Location header
+    // for the outcome. Any other request is applied before answering.
     @PostMapping("/{accountNumber}/deposit")
-    public Account deposit(@PathVariable int accountNumber, @RequestBody TransactionDTO dto) {
-        return transactionService.deposit(accountNumber, dto.getAmount());
+    public ResponseEntity<?> deposit(@PathVariable int accountNumber, @RequestBody TransactionDTO dto,
+                                     @RequestHeader(value = "Prefer", required = false) List<String> prefer) {
+        if (prefersRespondAsync(prefer)) {
+            return accepted(asyncPipeline.submit(TransactionType.DEPOSIT, accountNumber, dto.getAmountCents()));
+        }
+        return ResponseEntity.ok(transactionService.deposit(accountNumber, dto.getAmountCents()));
     }
 
     @PostMapping("/{accountNumber}/withdraw")
-    public Account withdraw(@PathVariable int accountNumber, @RequestBody TransactionDTO dto) {
-        return transactionService.withdraw(accountNumber, dto.getAmount());
+    public ResponseEntity<?> withdraw(@PathVariable int accountNumber, @RequestBody TransactionDTO dto,
+                                      @RequestHeader(value = "Prefer", required = false) List<String> prefer) {
+        if (prefersRespondAsync(prefer)) {
+            return accepted(asyncPipeline.submit(TransactionType.WITHDRAW, accountNumber, dto.getAmountCents()));
+        }
+        return ResponseEntity.ok(transactionService.withdraw(accountNumber, dto.getAmountCents()));
+    }
+
+    @GetMapping("/operations/{operationId}")
+    public ResponseEntity<?> operationStatus(@PathVariable long operationId) {
+        OperationStatusDTO status = asyncPipeline.status(operationId);
+        if (status == null) {
+            metrics.recordNotFound();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Operation not found: " + operationId));
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/{accountNumber}/transfer")
+    public TransferResultDTO transfer(@PathVariable int accountNumber, @RequestBody TransferDTO dto) {
+        return transactionService.transfer(accountNumber, dto.getToAccountNumber(), dto.getAmountCents());
     }
 
     @PutMapping("/{accountNumber}/balance")
     public Account updateBalance(@PathVariable int accountNumber, @RequestBody TransactionDTO dto) {
-        return transactionService.updateBalance(accountNumber, dto.getAmount());
+        return transactionService.updateBalance(accountNumber, dto.getAmountCents());
+    }
+
+    @PostMapping("/transactions:batch")
+    public List<BatchResultDTO> applyBatch(@RequestBody List<BatchTransactionDTO> operations) {
+        return transactionService.applyBatch(operations);
+    }
+
+    // Streams CSV (text/csv) or NDJSON (application/x-ndjson) rows straight from the request body.
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ImportResultDTO importAccounts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                          InputStream body) {
+        AccountImportReader.Format format = MediaType.valueOf("text/csv").isCompatibleWith(contentType)
+                ? AccountImportReader.Format.CSV
+                : AccountImportReader.Format.NDJSON;
+        try (AccountImportReader reader = new AccountImportReader(body, format)) {
+            return transactionService.importAccounts(reader);
+        }
+    }
+
+    // Keyset-paginated listing: pass the previous page's nextAfter as after to get the next page.
+    @GetMapping
+    public AccountPageDTO listAccounts(@RequestParam(required = false) Integer after,
+                                       @RequestParam(defaultValue = "100") int limit) {
+        return transactionService.listAccounts(after, limit);
+    }
+
+    // Streams every matching account as NDJSON (default) or CSV; minBalance/maxBalance are decimal amounts
+    // and name matches customer names containing it.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(required = false) String minBalance,
+                                                                @RequestParam(required = false) String maxBalance,
+                                                                @RequestParam(required = false) String name) {
+        AccountExportWriter.Format exportFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> AccountExportWriter.Format.CSV;
+            case "ndjson" -> AccountExportWriter.Format.NDJSON;
+            default -> throw new IllegalArgumentException("format must be csv or ndjson");
+        };
+        AccountExportFilter filter = new AccountExportFilter(
+                minBalance == null ? null : Money.parse(minBalance),
+                maxBalance == null ? null : Money.parse(maxBalance),
+                name);
+        TransactionService.validateExportFilter(filter);
+        StreamingResponseBody body = out -> {
+            try (AccountExportWriter writer = AccountExportWriter.create(exportFormat, out)) {
+                transactionService.exportAccounts(filter, writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat == AccountExportWriter.Format.CSV
+                        ? MediaType.valueOf("text/csv")
+                        : MediaType.valueOf("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping("/{accountNumber}")
@@ -58,15 +156,71 @@ public class TransactionRestController {
         return transactionService.viewAccount(accountNumber);
     }
 
+    @ExceptionHandler(PipelineFullException.class)
+    public ResponseEntity<Map<String, String>> handlePipelineFull(PipelineFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(AccountNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public Map<String, String> handleNotFound(AccountNotFoundException ex) {
+        metrics.recordNotFound();
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInsufficientFunds(InsufficientFundsException ex) {
+        metrics.recordInsufficientFunds();
         return Map.of("error", ex.getMessage());
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleBadRequest(IllegalArgumentException ex) {
+        metrics.recordBadRequest();
         return Map.of("error", ex.getMessage());
     }
+
+    @ExceptionHandler({HttpMessageNotReadableException.class, MethodArgumentTypeMismatchException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleMalformedRequest(Exception ex) {
+        metrics.recordBadRequest();
+        return Map.of("error", "Malformed request");
+    }
+
+    private static ResponseEntity<OperationStatusDTO> accepted(OperationStatusDTO status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/accounts/operations/" + status.getOperationId()))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(status);
+    }
+
+    // True when any Prefer header carries the respond-async preference, e.g. "respond-async, wait=5"; names are
+    // case-insensitive. Preferences are comma-separated, and what follows a ';' is a parameter of the preference
+    // before it, so "handling=lenient; respond-async" does not ask for async handling.
+    static boolean prefersRespondAsync(List<String> prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String value : prefer) {
+            for (String preference : value.split(",")) {
+                int end = preference.length();
+                for (int i = 0; i < preference.length(); i++) {
+                    char c = preference.charAt(i);
+                    if (c == ';' || c == '=') {
+                        end = i;
+                        break;
+                    }
+                }
+                String name = preference.substring(0, end).trim();
+                if (name.equalsIgnoreCase(RESPOND_ASYNC)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
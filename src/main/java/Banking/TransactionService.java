@@ -1,59 +1,387 @@
 package Banking;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 @Service
-// Business rules for account operations layered over the DAO.
+// Business rules for account operations layered over the DAO. Writes are serialized in-process per account
+// stripe, so same-account requests queue in the JVM rather than on MySQL row locks; a batch chunk (including
+// the async pipeline's) holds the stripes of all its accounts for its transaction.
 public class TransactionService {
 
+    static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final AccountDAO accountDAO;
+    private final AccountLockManager lockManager;
+    private final int batchChunkSize;
+    private final ReplicaRouting replicaRouting;
+    private final HotAccounts hotAccounts;
+    private final LatencyHistogram createAccountTimer;
+    private final LatencyHistogram depositTimer;
+    private final LatencyHistogram withdrawTimer;
+    private final LatencyHistogram updateBalanceTimer;
+    private final LatencyHistogram transferTimer;
+    private final LatencyHistogram viewAccountTimer;
+    private final LatencyHistogram applyBatchTimer;
+    private final LatencyHistogram importAccountsTimer;
+    private final LatencyHistogram listAccountsTimer;
+    private final LatencyHistogram exportAccountsTimer;
 
     public TransactionService(AccountDAO accountDAO) {
+        this(accountDAO, new AccountLockManager(AccountLockManager.DEFAULT_STRIPES, false), DEFAULT_BATCH_CHUNK_SIZE);
+    }
+
+    public TransactionService(AccountDAO accountDAO, AccountLockManager lockManager, int batchChunkSize) {
+        this(accountDAO, lockManager, batchChunkSize, new BankingMetrics());
+    }
+
+    public TransactionService(AccountDAO accountDAO, AccountLockManager lockManager, int batchChunkSize,
+                              BankingMetrics metrics) {
+        this(accountDAO, lockManager, batchChunkSize, metrics, new ReplicaRouting());
+    }
+
+    public TransactionService(AccountDAO accountDAO, AccountLockManager lockManager, int batchChunkSize,
+                              BankingMetrics metrics, ReplicaRouting replicaRouting) {
+        this(accountDAO, lockManager, batchChunkSize, metrics, replicaRouting, new HotAccounts());
+    }
+
+    @Autowired
+    public TransactionService(AccountDAO accountDAO,
+                              AccountLockManager lockManager,
+                              @Value("${banking.batch.chunk-size:" + DEFAULT_BATCH_CHUNK_SIZE + "}") int batchChunkSize,
+                              BankingMetrics metrics,
+                              ReplicaRouting replicaRouting,
+                              HotAccounts hotAccounts) {
+        if (batchChunkSize <= 0) {
+            throw new IllegalArgumentException("banking.batch.chunk-size must be positive");
+        }
         this.accountDAO = accountDAO;
+        this.lockManager = lockManager;
+        this.batchChunkSize = batchChunkSize;
+        this.replicaRouting = replicaRouting;
+        this.hotAccounts = hotAccounts;
+        this.createAccountTimer = metrics.timer("service.createAccount");
+        this.depositTimer = metrics.timer("service.deposit");
+        this.withdrawTimer = metrics.timer("service.withdraw");
+        this.updateBalanceTimer = metrics.timer("service.updateBalance");
+        this.transferTimer = metrics.timer("service.transfer");
+        this.viewAccountTimer = metrics.timer("service.viewAccount");
+        this.applyBatchTimer = metrics.timer("service.applyBatch");
+        this.importAccountsTimer = metrics.timer("service.importAccounts");
+        this.listAccountsTimer = metrics.timer("service.listAccounts");
+        this.exportAccountsTimer = metrics.timer("service.exportAccounts");
     }
 
     public Account createAccount(Account account) {
-        if (account.getBalance() < 0) {
-            throw new IllegalArgumentException("Initial balance cannot be negative");
+        long start = System.nanoTime();
+        try {
+            String problem = validateNewAccount(account);
+            if (problem != null) {
+                throw new IllegalArgumentException(problem);
+            }
+            try {
+                accountDAO.createAccount(account);
+            } finally {
+                replicaRouting.recordWrite(account.getAccountNumber());
+            }
+            return account;
+        } finally {
+            createAccountTimer.recordSince(start);
         }
-        accountDAO.createAccount(account);
-        return account;
     }
 
-    public Account deposit(int accountNumber, double amount) {
-        validateAmount(amount);
-        Account existing = accountDAO.getAccount(accountNumber);
-        double newBalance = existing.getBalance() + amount;
-        accountDAO.updateBalance(accountNumber, newBalance);
-        existing.setBalance(newBalance);
-        return existing;
+    public Account deposit(int accountNumber, long amountCents) {
+        long start = System.nanoTime();
+        try {
+            validateAmount(amountCents);
+            if (hotAccounts.isHot(accountNumber)) {
+                // Deposits to a hot account land on independent sub-balance rows; queueing them on one stripe
+                // would undo the point of splitting the balance.
+                try {
+                    return accountDAO.applyDelta(accountNumber, amountCents, AccountDAO.NO_MIN_BALANCE);
+                } finally {
+                    replicaRouting.recordWrite(accountNumber);
+                }
+            }
+            lockManager.lock(accountNumber);
+            try {
+                return accountDAO.applyDelta(accountNumber, amountCents, AccountDAO.NO_MIN_BALANCE);
+            } finally {
+                replicaRouting.recordWrite(accountNumber);
+                lockManager.unlock(accountNumber);
+            }
+        } finally {
+            depositTimer.recordSince(start);
+        }
     }
 
-    public Account withdraw(int accountNumber, double amount) {
-        validateAmount(amount);
-        Account existing = accountDAO.getAccount(accountNumber);
-        if (amount > existing.getBalance()) {
-            throw new IllegalArgumentException("Insufficient funds for withdrawal");
+    public Account withdraw(int accountNumber, long amountCents) {
+        long start = System.nanoTime();
+        try {
+            validateAmount(amountCents);
+            lockManager.lock(accountNumber);
+            try {
+                // The DAO enforces the no-overdraft rule atomically with the debit.
+                return accountDAO.applyDelta(accountNumber, -amountCents, 0);
+            } finally {
+                replicaRouting.recordWrite(accountNumber);
+                lockManager.unlock(accountNumber);
+            }
+        } finally {
+            withdrawTimer.recordSince(start);
         }
-        double newBalance = existing.getBalance() - amount;
-        accountDAO.updateBalance(accountNumber, newBalance);
-        existing.setBalance(newBalance);
-        return existing;
     }
 
-    public Account updateBalance(int accountNumber, double newBalance) {
-        Account existing = accountDAO.getAccount(accountNumber);
-        accountDAO.updateBalance(accountNumber, newBalance);
-        existing.setBalance(newBalance);
-        return existing;
+    public Account updateBalance(int accountNumber, long newBalanceCents) {
+        long start = System.nanoTime();
+        lockManager.lock(accountNumber);
+        try {
+            Account existing = accountDAO.getAccount(accountNumber);
+            accountDAO.updateBalance(accountNumber, newBalanceCents);
+            existing.setBalanceCents(newBalanceCents);
+            return existing;
+        } finally {
+            replicaRouting.recordWrite(accountNumber);
+            lockManager.unlock(accountNumber);
+            updateBalanceTimer.recordSince(start);
+        }
     }
 
+    public TransferResultDTO transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        long start = System.nanoTime();
+        try {
+            validateAmount(amountCents);
+            if (fromAccountNumber == toAccountNumber) {
+                throw new IllegalArgumentException("Cannot transfer to the same account");
+            }
+            lockManager.lockPair(fromAccountNumber, toAccountNumber);
+            try {
+                return accountDAO.transfer(fromAccountNumber, toAccountNumber, amountCents);
+            } finally {
+                replicaRouting.recordWrite(fromAccountNumber);
+                replicaRouting.recordWrite(toAccountNumber);
+                lockManager.unlockPair(fromAccountNumber, toAccountNumber);
+            }
+        } finally {
+            transferTimer.recordSince(start);
+        }
+    }
+
+    // Read-only: may be served by a replica unless this account was written within the read-your-writes window.
     public Account viewAccount(int accountNumber) {
-        return accountDAO.getAccount(accountNumber);
+        long start = System.nanoTime();
+        boolean replica = replicaRouting.beginRead(accountNumber);
+        try {
+            return accountDAO.getAccount(accountNumber);
+        } finally {
+            replicaRouting.endRead(replica);
+            viewAccountTimer.recordSince(start);
+        }
+    }
+
+    // Applies the operations in submission order, one DAO batch (and transaction) per chunk.
+    // Invalid items are rejected up front; a chunk that fails in the database fails only its own items.
+    public List<BatchResultDTO> applyBatch(List<BatchTransactionDTO> operations) {
+        long start = System.nanoTime();
+        try {
+            return applyChunks(operations);
+        } finally {
+            applyBatchTimer.recordSince(start);
+        }
+    }
+
+    private List<BatchResultDTO> applyChunks(List<BatchTransactionDTO> operations) {
+        BatchResultDTO[] results = new BatchResultDTO[operations.size()];
+        List<BatchTransactionDTO> chunk = new ArrayList<>(Math.min(batchChunkSize, operations.size()));
+        int[] chunkIndexes = new int[batchChunkSize];
+        for (int i = 0; i < operations.size(); i++) {
+            BatchTransactionDTO op = operations.get(i);
+            String problem = validateBatchOperation(op);
+            if (problem != null) {
+                results[i] = new BatchResultDTO(op == null ? 0 : op.getAccountNumber(), BatchStatus.INVALID, problem);
+                continue;
+            }
+            chunkIndexes[chunk.size()] = i;
+            chunk.add(op);
+            if (chunk.size() == batchChunkSize) {
+                applyChunk(chunk, chunkIndexes, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, chunkIndexes, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void applyChunk(List<BatchTransactionDTO> chunk, int[] chunkIndexes, BatchResultDTO[] results) {
+        int[] accountNumbers = new int[chunk.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = chunk.get(i).getAccountNumber();
+        }
+        int[] stripes = lockManager.lockAll(accountNumbers);
+        try {
+            BatchStatus[] outcomes = accountDAO.applyBatch(chunk);
+            for (int i = 0; i < outcomes.length; i++) {
+                results[chunkIndexes[i]] = new BatchResultDTO(chunk.get(i).getAccountNumber(), outcomes[i],
+                        errorFor(outcomes[i], chunk.get(i).getAccountNumber()));
+            }
+        } catch (DataAccessException ex) {
+            // The chunk's transaction rolled back, so none of its operations were applied.
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunkIndexes[i]] = new BatchResultDTO(chunk.get(i).getAccountNumber(), BatchStatus.FAILED,
+                        ex.getMostSpecificCause().getMessage());
+            }
+        } finally {
+            for (int accountNumber : accountNumbers) {
+                replicaRouting.recordWrite(accountNumber);
+            }
+            lockManager.unlockAll(stripes);
+        }
+    }
+
+    // Creates accounts from the stream in chunks of the batch chunk size, one multi-row insert transaction per
+    // chunk, so only one chunk of rows is ever held in memory. Rows get the same checks as createAccount.
+    public ImportResultDTO importAccounts(AccountImportReader reader) {
+        long start = System.nanoTime();
+        try {
+            ImportResultDTO result = new ImportResultDTO();
+            List<Account> chunk = new ArrayList<>(batchChunkSize);
+            long[] chunkLines = new long[batchChunkSize];
+            for (AccountImportReader.Row row; (row = reader.next()) != null; ) {
+                String problem = row.getError() != null ? row.getError() : validateNewAccount(row.getAccount());
+                if (problem != null) {
+                    result.recordRejected(row.getLine(), row.getAccountNumber(), problem);
+                    continue;
+                }
+                chunkLines[chunk.size()] = row.getLine();
+                chunk.add(row.getAccount());
+                if (chunk.size() == batchChunkSize) {
+                    importChunk(chunk, chunkLines, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, chunkLines, result);
+            }
+            return result;
+        } finally {
+            importAccountsTimer.recordSince(start);
+        }
+    }
+
+    // One page of accounts after the cursor. Fetches one extra row so the last page is known without another
+    // request; nextAfter is null when there is nothing more. Browsing tolerates replica lag like exports do.
+    public AccountPageDTO listAccounts(Integer afterAccountNumber, int limit) {
+        long start = System.nanoTime();
+        try {
+            if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            List<Account> accounts;
+            boolean replica = replicaRouting.beginBulkRead();
+            try {
+                accounts = accountDAO.listAccounts(afterAccountNumber, limit + 1);
+            } finally {
+                replicaRouting.endRead(replica);
+            }
+            Integer nextAfter = null;
+            if (accounts.size() > limit) {
+                accounts = accounts.subList(0, limit);
+                nextAfter = accounts.get(limit - 1).getAccountNumber();
+            }
+            return new AccountPageDTO(accounts, nextAfter);
+        } finally {
+            listAccountsTimer.recordSince(start);
+        }
+    }
+
+    // Streams matching accounts to the writer and returns how many were written. A full dump is read-only and
+    // tolerates replica lag, so it runs on a replica when one is configured.
+    public long exportAccounts(AccountExportFilter filter, AccountExportWriter writer) {
+        long start = System.nanoTime();
+        validateExportFilter(filter);
+        boolean replica = replicaRouting.beginBulkRead();
+        try {
+            return accountDAO.exportAccounts(filter, writer::write);
+        } finally {
+            replicaRouting.endRead(replica);
+            exportAccountsTimer.recordSince(start);
+        }
+    }
+
+    // Separate from exportAccounts so the controller can reject a bad filter before the response starts streaming.
+    public static void validateExportFilter(AccountExportFilter filter) {
+        if (filter.getMinBalanceCents() != null && filter.getMaxBalanceCents() != null
+                && filter.getMinBalanceCents() > filter.getMaxBalanceCents()) {
+            throw new IllegalArgumentException("minBalance cannot be greater than maxBalance");
+        }
+    }
+
+    private void importChunk(List<Account> chunk, long[] chunkLines, ImportResultDTO result) {
+        try {
+            boolean[] created = accountDAO.createAccounts(chunk);
+            for (int i = 0; i < created.length; i++) {
+                if (created[i]) {
+                    result.recordCreated();
+                } else {
+                    result.recordRejected(chunkLines[i], chunk.get(i).getAccountNumber(),
+                            "Account already exists: " + chunk.get(i).getAccountNumber());
+                }
+            }
+        } catch (DataAccessException ex) {
+            // The chunk's transaction rolled back, so none of its accounts were created.
+            for (int i = 0; i < chunk.size(); i++) {
+                result.recordRejected(chunkLines[i], chunk.get(i).getAccountNumber(), ex.getMostSpecificCause().getMessage());
+            }
+        } finally {
+            for (Account account : chunk) {
+                replicaRouting.recordWrite(account.getAccountNumber());
+            }
+        }
+    }
+
+    // The validation helpers below are shared with ReactiveTransactionService in the reactive build.
+    static String validateNewAccount(Account account) {
+        if (account == null) {
+            return "Account is required";
+        }
+        if (account.getCustomerName() == null) {
+            return "Customer name is required";
+        }
+        if (account.getBalanceCents() < 0) {
+            return "Initial balance cannot be negative";
+        }
+        return null;
+    }
+
+    static String validateBatchOperation(BatchTransactionDTO op) {
+        if (op == null || op.getType() == null) {
+            return "Operation type is required";
+        }
+        if (op.getType() != TransactionType.SET_BALANCE && op.getAmountCents() <= 0) {
+            return "Amount must be positive";
+        }
+        return null;
+    }
+
+    static String errorFor(BatchStatus status, int accountNumber) {
+        return switch (status) {
+            case NOT_FOUND -> "Account not found: " + accountNumber;
+            case INSUFFICIENT_FUNDS -> "Insufficient funds for withdrawal";
+            default -> null;
+        };
     }
 
-    private void validateAmount(double amount) {
-        if (amount <= 0) {
+    static void validateAmount(long amountCents) {
+        if (amountCents <= 0) {
             // Block zero/negative transfers before hitting the database.
             throw new IllegalArgumentException("Amount must be positive");
         }
@@ -0,0 +1,8 @@
+package Banking;
+
+// Kinds of balance operations accepted by the batch endpoint.
+public enum TransactionType {
+    DEPOSIT,
+    WITHDRAW,
+    SET_BALANCE
+}
@@ -0,0 +1,42 @@
+package Banking;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Request payload for moving money from the path account to another account.
+public class TransferDTO {
+    private int toAccountNumber;
+    // Minor units (cents); bound to the decimal JSON "amount" such as 50.25.
+    private long amountCents;
+
+    public TransferDTO() {
+    }
+
+    // Constructor
+    public TransferDTO(int toAccountNumber, long amountCents) {
+        this.toAccountNumber = toAccountNumber;
+        this.amountCents = amountCents;
+    }
+
+    // Getters and setters
+    public int getToAccountNumber() {
+        return toAccountNumber;
+    }
+
+    public void setToAccountNumber(int toAccountNumber) {
+        this.toAccountNumber = toAccountNumber;
+    }
+
+    @JsonProperty("amount")
+    @JsonSerialize(using = Money.AmountSerializer.class)
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    @JsonProperty("amount")
+    @JsonDeserialize(using = Money.AmountDeserializer.class)
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+}
@@ -0,0 +1,33 @@
+package Banking;
+
+// Response for a transfer: both accounts as they stand after the transfer committed.
+public class TransferResultDTO {
+    private Account from;
+    private Account to;
+
+    public TransferResultDTO() {
+    }
+
+    // Constructor
+    public TransferResultDTO(Account from, Account to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters and setters
+    public Account getFrom() {
+        return from;
+    }
+
+    public void setFrom(Account from) {
+        this.from = from;
+    }
+
+    public Account getTo() {
+        return to;
+    }
+
+    public void setTo(Account to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,21 @@
+package Banking;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "banking.threads.virtual", havingValue = "true")
+// Opt-in mode that runs every HTTP request, and so every service and JDBC call it makes, on its own virtual
+// thread. A request blocked on MySQL then parks cheaply instead of holding one of Tomcat's platform threads;
+// the real limit becomes the connection pool, which application-virtual.properties sizes accordingly.
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,146 @@
+package Banking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The /api/accounts contract on the WebFlux + R2DBC stack, against H2 in MySQL mode.
+@SpringBootTest(
+        classes = ReactiveBankingApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "banking.batch.chunk-size=2"
+        })
+class ReactiveTransactionRestControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS accounts ("
+                + "account_number INT PRIMARY KEY, "
+                + "customer_name VARCHAR(255) NOT NULL, "
+                + "balance DECIMAL(15,2) NOT NULL DEFAULT 0)").then().block();
+        create(1, "Alice", "100.00");
+        create(2, "Bob", "5.50");
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM accounts").then().block();
+    }
+
+    @Test
+    void depositWithdrawAndView() {
+        post("/api/accounts/1/deposit", "{\"amount\":25.25}").expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(125.25);
+        post("/api/accounts/1/withdraw", "{\"amount\":200}").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Insufficient funds for withdrawal");
+        post("/api/accounts/1/withdraw", "{\"amount\":0}").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Amount must be positive");
+
+        client.get().uri("/api/accounts/1").exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.customerName").isEqualTo("Alice").jsonPath("$.balance").isEqualTo(125.25);
+        client.get().uri("/api/accounts/99").exchange().expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Account not found: 99");
+    }
+
+    @Test
+    void transferAndSetBalance() {
+        post("/api/accounts/1/transfer", "{\"toAccountNumber\":2,\"amount\":40}").expectStatus().isOk()
+                .expectBody().jsonPath("$.from.balance").isEqualTo(60.0).jsonPath("$.to.balance").isEqualTo(45.5);
+        post("/api/accounts/1/transfer", "{\"toAccountNumber\":1,\"amount\":1}").expectStatus().isBadRequest();
+
+        client.put().uri("/api/accounts/2/balance").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"amount\":7}").exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(7.0);
+    }
+
+    @Test
+    void batchReportsOutcomePerOperationAcrossChunks() {
+        post("/api/accounts/transactions:batch", "["
+                + "{\"type\":\"DEPOSIT\",\"accountNumber\":2,\"amount\":1},"
+                + "{\"type\":\"WITHDRAW\",\"accountNumber\":2,\"amount\":500},"
+                + "{\"type\":\"WITHDRAW\",\"accountNumber\":2,\"amount\":-1},"
+                + "{\"type\":\"DEPOSIT\",\"accountNumber\":42,\"amount\":1},"
+                + "{\"type\":\"WITHDRAW\",\"accountNumber\":2,\"amount\":0.5}]")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("APPLIED")
+                .jsonPath("$[1].status").isEqualTo("INSUFFICIENT_FUNDS")
+                .jsonPath("$[2].status").isEqualTo("INVALID")
+                .jsonPath("$[3].status").isEqualTo("NOT_FOUND")
+                .jsonPath("$[4].status").isEqualTo("APPLIED");
+
+        client.get().uri("/api/accounts/2").exchange().expectBody().jsonPath("$.balance").isEqualTo(6.0);
+    }
+
+    @Test
+    void listPagesWithKeysetCursor() {
+        create(3, "Carol", "1");
+
+        client.get().uri("/api/accounts?limit=2").exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.accounts.length()").isEqualTo(2).jsonPath("$.nextAfter").isEqualTo(2);
+        client.get().uri("/api/accounts?after=2&limit=2").exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.accounts[0].accountNumber").isEqualTo(3).jsonPath("$.nextAfter").isEmpty();
+        client.get().uri("/api/accounts?limit=0").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void importThenExportRoundTrips() {
+        client.post().uri("/api/accounts/import").contentType(MediaType.valueOf("text/csv"))
+                .bodyValue("accountNumber,customerName,balance\n10,\"Smith, Jo\",12.34\n\n11,Bad,-1\n1,Dup,1\n")
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(1)
+                .jsonPath("$.rejected").isEqualTo(2)
+                .jsonPath("$.rejections[0].line").isEqualTo(4)
+                .jsonPath("$.rejections[1].error").isEqualTo("Account already exists: 1");
+
+        String csv = client.get().uri("/api/accounts/export?format=csv&minBalance=10").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("text/csv")
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertEquals("accountNumber,customerName,balance\n1,Alice,100.00\n10,\"Smith, Jo\",12.34\n", csv);
+
+        String ndjson = client.get().uri("/api/accounts/export?name=Bob").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertEquals("{\"accountNumber\":2,\"customerName\":\"Bob\",\"balance\":5.50}\n", ndjson);
+
+        client.get().uri("/api/accounts/export?minBalance=5&maxBalance=1").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void rejectsInvalidAndMalformedRequests() {
+        post("/api/accounts", "{\"accountNumber\":5,\"balance\":1}").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Customer name is required");
+        post("/api/accounts/1/deposit", "{\"amount\":").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Malformed request");
+        client.get().uri("/api/accounts/abc").exchange().expectStatus().isBadRequest();
+    }
+
+    private void create(int accountNumber, String name, String balance) {
+        post("/api/accounts", "{\"accountNumber\":" + accountNumber + ",\"customerName\":\"" + name
+                + "\",\"balance\":" + balance + "}").expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, String json) {
+        return client.post().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue(json).exchange();
+    }
+}
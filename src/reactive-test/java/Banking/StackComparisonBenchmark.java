@@ -0,0 +1,106 @@
+package Banking;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Side-by-side HTTP load test of the servlet and reactive stacks, each on its own account range.
+public class StackComparisonBenchmark {
+
+    private static final int SERVLET_FIRST_ACCOUNT = 900_000_000;
+    private static final int REACTIVE_FIRST_ACCOUNT = 950_000_000;
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Both servers must already be running against the same kind of database, e.g.
+    // mvn -P reactive test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Banking.StackComparisonBenchmark \
+    //     -Dexec.args="http://localhost:8080 http://localhost:8081 256 30"
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StackComparisonBenchmark <servletBaseUrl> <reactiveBaseUrl> "
+                    + "[clients=64] [seconds=30] [accounts=1000]");
+            System.exit(2);
+        }
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int accounts = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        StackComparisonBenchmark benchmark = new StackComparisonBenchmark();
+        System.out.printf("%-9s %9s %11s %9s %9s %9s %9s %7s%n",
+                "stack", "requests", "req/s", "mean_us", "p50_us", "p99_us", "p99.9_us", "errors");
+        benchmark.run("servlet", args[0], SERVLET_FIRST_ACCOUNT, accounts, clients, seconds);
+        benchmark.run("reactive", args[1], REACTIVE_FIRST_ACCOUNT, accounts, clients, seconds);
+    }
+
+    private void run(String stack, String baseUrl, int firstAccount, int accounts, int clients, int seconds)
+            throws Exception {
+        for (int i = 0; i < accounts; i++) {
+            // Accounts left over from an earlier run answer 400 and are reused as they are.
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"accountNumber\":" + (firstAccount + i)
+                            + ",\"customerName\":\"Load " + i + "\",\"balance\":0}"))
+                    .build());
+        }
+        drive(baseUrl, firstAccount, accounts, clients, Math.max(1, seconds / 3), new LatencyHistogram(), new LongAdder());
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long elapsedNanos = drive(baseUrl, firstAccount, accounts, clients, seconds, latencies, errors);
+        long[] p = latencies.percentiles(PERCENTILES);
+        System.out.printf("%-9s %9d %11.1f %9.0f %9d %9d %9d %7d%n",
+                stack, latencies.getCount(), latencies.getCount() * 1e9 / elapsedNanos,
+                latencies.getMeanNanos() / 1000, p[0] / 1000, p[1] / 1000, p[2] / 1000, errors.sum());
+    }
+
+    // Each client sends its next request as soon as the previous response arrives; returns the wall time.
+    private long drive(String baseUrl, int firstAccount, int accounts, int clients, int seconds,
+                       LatencyHistogram latencies, LongAdder errors) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                pool.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int accountNumber = firstAccount + random.nextInt(accounts);
+                        // 80% balance reads, 20% deposits.
+                        HttpRequest request = random.nextInt(10) < 8
+                                ? HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + accountNumber))
+                                        .GET().build()
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + accountNumber + "/deposit"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1}"))
+                                        .build();
+                        long sent = System.nanoTime();
+                        int status = send(request);
+                        latencies.recordSince(sent);
+                        if (status != 200) {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
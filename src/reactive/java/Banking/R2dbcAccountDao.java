@@ -0,0 +1,291 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC implementation of ReactiveAccountDAO; the same SQL as BnkAccountDaoImpl with named bind markers.
+public class R2dbcAccountDao implements ReactiveAccountDAO {
+
+    // Amounts cross the driver boundary as BIGINT cents, scaled exactly in SQL as in BnkAccountDaoImpl.
+    private static final String SELECT_ACCOUNT_SQL =
+            "SELECT account_number, customer_name, ROUND(balance * 100) AS balance_cents FROM accounts";
+    private static final String SET_BALANCE_SQL =
+            "UPDATE accounts SET balance = :cents * 0.01 WHERE account_number = :accountNumber";
+    private static final String ADD_DELTA_SQL =
+            "UPDATE accounts SET balance = balance + :delta * 0.01 WHERE account_number = :accountNumber";
+    private static final String ADD_GUARDED_DELTA_SQL =
+            "UPDATE accounts SET balance = balance + :delta * 0.01"
+                    + " WHERE account_number = :accountNumber AND balance * 100 + :delta >= :minBalance";
+    private static final String TRANSFER_SQL =
+            "UPDATE accounts SET balance = balance + CASE WHEN account_number = :from THEN :debit ELSE :credit END * 0.01"
+                    + " WHERE account_number IN (:from, :to)";
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO accounts (account_number, customer_name, balance) VALUES (:accountNumber, :customerName, :cents * 0.01)";
+
+    private final DatabaseClient client;
+    private final TransactionalOperator transactional;
+
+    public R2dbcAccountDao(DatabaseClient client, ReactiveTransactionManager transactionManager) {
+        this.client = client;
+        this.transactional = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public Mono<Void> createAccount(Account account) {
+        return client.sql(INSERT_ACCOUNT_SQL)
+                .bind("accountNumber", account.getAccountNumber())
+                .bind("customerName", account.getCustomerName())
+                .bind("cents", account.getBalanceCents())
+                .then();
+    }
+
+    @Override
+    public Mono<boolean[]> createAccounts(List<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return Mono.just(new boolean[0]);
+        }
+        List<Integer> accountNumbers = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            accountNumbers.add(account.getAccountNumber());
+        }
+        Mono<boolean[]> insert = existingAccounts(accountNumbers).flatMap(taken -> {
+            boolean[] created = new boolean[accounts.size()];
+            List<Account> fresh = new ArrayList<>(accounts.size());
+            for (int i = 0; i < created.length; i++) {
+                // add() also rejects a number repeated within this list, as a second INSERT of it would fail.
+                if (taken.add(accounts.get(i).getAccountNumber())) {
+                    created[i] = true;
+                    fresh.add(accounts.get(i));
+                }
+            }
+            return Flux.fromIterable(partition(fresh, BnkAccountDaoImpl.INSERT_ROWS_PER_STATEMENT))
+                    .concatMap(this::insertRows)
+                    .then(Mono.just(created));
+        });
+        return transactional.transactional(insert);
+    }
+
+    @Override
+    public Mono<Void> updateBalance(int accountNumber, long newBalanceCents) {
+        return client.sql(SET_BALANCE_SQL)
+                .bind("cents", newBalanceCents)
+                .bind("accountNumber", accountNumber)
+                .fetch().rowsUpdated()
+                .flatMap(updated -> updated == 0 ? Mono.error(notFound(accountNumber)) : Mono.empty());
+    }
+
+    @Override
+    public Mono<Account> getAccount(int accountNumber) {
+        return client.sql(SELECT_ACCOUNT_SQL + " WHERE account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map(R2dbcAccountDao::toAccount)
+                .one()
+                .switchIfEmpty(Mono.error(() -> notFound(accountNumber)));
+    }
+
+    @Override
+    public Mono<Account> applyDelta(int accountNumber, long deltaCents, long minBalanceCents) {
+        // As in BnkAccountDaoImpl, the guard runs inside the UPDATE and the read-back shares its transaction.
+        Mono<Account> apply = delta(accountNumber, deltaCents, minBalanceCents)
+                .flatMap(updated -> {
+                    if (updated != 0) {
+                        return getAccount(accountNumber);
+                    }
+                    return exists(accountNumber).flatMap(exists -> Mono.error(exists
+                            ? new InsufficientFundsException("Insufficient funds for withdrawal")
+                            : notFound(accountNumber)));
+                });
+        return transactional.transactional(apply);
+    }
+
+    @Override
+    public Mono<TransferResultDTO> transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        // Rows are locked lowest account number first, so opposite transfers between a pair cannot deadlock.
+        Mono<TransferResultDTO> transfer = client.sql(SELECT_ACCOUNT_SQL
+                        + " WHERE account_number IN (:low, :high) ORDER BY account_number FOR UPDATE")
+                .bind("low", Math.min(fromAccountNumber, toAccountNumber))
+                .bind("high", Math.max(fromAccountNumber, toAccountNumber))
+                .map(R2dbcAccountDao::toAccount)
+                .all()
+                .collectList()
+                .flatMap(locked -> {
+                    Account from = null;
+                    Account to = null;
+                    for (Account account : locked) {
+                        if (account.getAccountNumber() == fromAccountNumber) {
+                            from = account;
+                        } else {
+                            to = account;
+                        }
+                    }
+                    if (from == null) {
+                        return Mono.error(notFound(fromAccountNumber));
+                    }
+                    if (to == null) {
+                        return Mono.error(notFound(toAccountNumber));
+                    }
+                    if (from.getBalanceCents() < amountCents) {
+                        return Mono.error(new InsufficientFundsException("Insufficient funds for transfer"));
+                    }
+                    from.setBalanceCents(from.getBalanceCents() - amountCents);
+                    to.setBalanceCents(to.getBalanceCents() + amountCents);
+                    TransferResultDTO result = new TransferResultDTO(from, to);
+                    return client.sql(TRANSFER_SQL)
+                            .bind("from", fromAccountNumber)
+                            .bind("debit", -amountCents)
+                            .bind("credit", amountCents)
+                            .bind("to", toAccountNumber)
+                            .then()
+                            .thenReturn(result);
+                });
+        return transactional.transactional(transfer);
+    }
+
+    @Override
+    public Mono<BatchStatus[]> applyBatch(List<BatchTransactionDTO> operations) {
+        // Applied lowest account number first, the order BnkAccountDaoImpl.applyBatch locks its rows in, so
+        // batches touching the same accounts in opposite orders cannot deadlock; each account's own operations
+        // keep their order.
+        int[] order = BnkAccountDaoImpl.lockOrder(operations);
+        BatchStatus[] outcomes = new BatchStatus[operations.size()];
+        Mono<BatchStatus[]> batch = Flux.range(0, order.length)
+                .concatMap(i -> applyOperation(operations.get(order[i]))
+                        .doOnNext(outcome -> outcomes[order[i]] = outcome))
+                .then(Mono.fromSupplier(() -> outcomes));
+        return transactional.transactional(batch);
+    }
+
+    @Override
+    public Flux<Account> listAccounts(Integer afterAccountNumber, int limit) {
+        // Keyset pagination, as in BnkAccountDaoImpl.
+        if (afterAccountNumber == null) {
+            return client.sql(SELECT_ACCOUNT_SQL + " ORDER BY account_number LIMIT :limit")
+                    .bind("limit", limit)
+                    .map(R2dbcAccountDao::toAccount)
+                    .all();
+        }
+        return client.sql(SELECT_ACCOUNT_SQL + " WHERE account_number > :after ORDER BY account_number LIMIT :limit")
+                .bind("after", afterAccountNumber)
+                .bind("limit", limit)
+                .map(R2dbcAccountDao::toAccount)
+                .all();
+    }
+
+    @Override
+    public Flux<Account> exportAccounts(AccountExportFilter filter) {
+        StringBuilder sql = new StringBuilder(SELECT_ACCOUNT_SQL).append(" WHERE 1 = 1");
+        if (filter.getMinBalanceCents() != null) {
+            sql.append(" AND balance >= :minBalance * 0.01");
+        }
+        if (filter.getMaxBalanceCents() != null) {
+            sql.append(" AND balance <= :maxBalance * 0.01");
+        }
+        boolean byName = filter.getCustomerName() != null && !filter.getCustomerName().isEmpty();
+        if (byName) {
+            sql.append(" AND customer_name LIKE :name ESCAPE '!'");
+        }
+        sql.append(" ORDER BY account_number");
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString());
+        if (filter.getMinBalanceCents() != null) {
+            spec = spec.bind("minBalance", filter.getMinBalanceCents());
+        }
+        if (filter.getMaxBalanceCents() != null) {
+            spec = spec.bind("maxBalance", filter.getMaxBalanceCents());
+        }
+        if (byName) {
+            spec = spec.bind("name", "%" + BnkAccountDaoImpl.escapeLike(filter.getCustomerName()) + "%");
+        }
+        // Rows are pulled from the driver only as fast as the response consumes them.
+        return spec.map(R2dbcAccountDao::toAccount).all();
+    }
+
+    private Mono<BatchStatus> applyOperation(BatchTransactionDTO op) {
+        int accountNumber = op.getAccountNumber();
+        Mono<Long> updated = switch (op.getType()) {
+            case DEPOSIT -> delta(accountNumber, op.getAmountCents(), AccountDAO.NO_MIN_BALANCE);
+            case WITHDRAW -> delta(accountNumber, -op.getAmountCents(), 0);
+            case SET_BALANCE -> client.sql(SET_BALANCE_SQL)
+                    .bind("cents", op.getAmountCents())
+                    .bind("accountNumber", accountNumber)
+                    .fetch().rowsUpdated();
+        };
+        return updated.flatMap(count -> {
+            if (count != 0) {
+                return Mono.just(BatchStatus.APPLIED);
+            }
+            if (op.getType() != TransactionType.WITHDRAW) {
+                return Mono.just(BatchStatus.NOT_FOUND);
+            }
+            return exists(accountNumber).map(exists -> exists ? BatchStatus.INSUFFICIENT_FUNDS : BatchStatus.NOT_FOUND);
+        });
+    }
+
+    private Mono<Long> delta(int accountNumber, long deltaCents, long minBalanceCents) {
+        if (minBalanceCents == AccountDAO.NO_MIN_BALANCE) {
+            return client.sql(ADD_DELTA_SQL)
+                    .bind("delta", deltaCents)
+                    .bind("accountNumber", accountNumber)
+                    .fetch().rowsUpdated();
+        }
+        return client.sql(ADD_GUARDED_DELTA_SQL)
+                .bind("delta", deltaCents)
+                .bind("accountNumber", accountNumber)
+                .bind("minBalance", minBalanceCents)
+                .fetch().rowsUpdated();
+    }
+
+    private Mono<Void> insertRows(List<Account> rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO accounts (account_number, customer_name, balance) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:n").append(i).append(", :c").append(i).append(", :b").append(i).append(" * 0.01)");
+        }
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString());
+        for (int i = 0; i < rows.size(); i++) {
+            spec = spec.bind("n" + i, rows.get(i).getAccountNumber())
+                    .bind("c" + i, rows.get(i).getCustomerName())
+                    .bind("b" + i, rows.get(i).getBalanceCents());
+        }
+        return spec.then();
+    }
+
+    private Mono<Set<Integer>> existingAccounts(List<Integer> accountNumbers) {
+        return client.sql("SELECT account_number FROM accounts WHERE account_number IN (:accountNumbers)")
+                .bind("accountNumbers", accountNumbers)
+                .map(row -> row.get("account_number", Integer.class))
+                .all()
+                .collect(HashSet::new, Set::add);
+    }
+
+    private Mono<Boolean> exists(int accountNumber) {
+        return existingAccounts(List.of(accountNumber)).map(found -> !found.isEmpty());
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += size) {
+            parts.add(items.subList(start, Math.min(items.size(), start + size)));
+        }
+        return parts;
+    }
+
+    private static Account toAccount(Readable row) {
+        return new Account(
+                row.get("account_number", Integer.class),
+                row.get("customer_name", String.class),
+                row.get("balance_cents", Number.class).longValue());
+    }
+
+    private static AccountNotFoundException notFound(int accountNumber) {
+        return new AccountNotFoundException("Account not found: " + accountNumber);
+    }
+}
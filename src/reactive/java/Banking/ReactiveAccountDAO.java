@@ -0,0 +1,32 @@
+package Banking;
+
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of AccountDAO: the same operations and failure types, delivered as Mono/Flux signals.
+public interface ReactiveAccountDAO {
+
+    Mono<Void> createAccount(Account account);
+
+    // Per account, whether it was created; false means the account number already existed. All or nothing.
+    Mono<boolean[]> createAccounts(List<Account> accounts);
+
+    Mono<Void> updateBalance(int accountNumber, long newBalanceCents);
+
+    Mono<Account> getAccount(int accountNumber);
+
+    // Adds deltaCents unless the result would drop below minBalanceCents (AccountDAO.NO_MIN_BALANCE = no floor).
+    Mono<Account> applyDelta(int accountNumber, long deltaCents, long minBalanceCents);
+
+    Mono<TransferResultDTO> transfer(int fromAccountNumber, int toAccountNumber, long amountCents);
+
+    // Applies the operations in order in one transaction and reports an outcome per operation.
+    Mono<BatchStatus[]> applyBatch(List<BatchTransactionDTO> operations);
+
+    Flux<Account> listAccounts(Integer afterAccountNumber, int limit);
+
+    // Matching accounts in account-number order, fetched as the subscriber requests them.
+    Flux<Account> exportAccounts(AccountExportFilter filter);
+}
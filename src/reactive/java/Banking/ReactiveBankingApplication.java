@@ -0,0 +1,44 @@
+package Banking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+
+@Configuration
+@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@Import(ReactiveTransactionRestController.class)
+// Skipped by the servlet application's component scan, which also sees this class in the reactive build.
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+// Entry point of the optional WebFlux + R2DBC stack: Netty event loops and a non-blocking MySQL driver.
+// No JDBC pool or component scan; it wires only the reactive service, DAO and controller.
+public class ReactiveBankingApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBankingApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("server.port=8081")
+                .run(args);
+    }
+
+    @Bean
+    public ReactiveAccountDAO reactiveAccountDAO(DatabaseClient databaseClient,
+                                                 ReactiveTransactionManager transactionManager) {
+        return new R2dbcAccountDao(databaseClient, transactionManager);
+    }
+
+    @Bean
+    public ReactiveTransactionService reactiveTransactionService(
+            ReactiveAccountDAO accountDAO,
+            @Value("${banking.batch.chunk-size:" + TransactionService.DEFAULT_BATCH_CHUNK_SIZE + "}") int batchChunkSize) {
+        return new ReactiveTransactionService(accountDAO, batchChunkSize);
+    }
+}
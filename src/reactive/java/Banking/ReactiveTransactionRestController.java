@@ -0,0 +1,180 @@
+package Banking;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebInputException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/accounts")
+@CrossOrigin(
+    origins = {
+        "http://localhost:3000",
+        "https://banking-web-app-uu95.vercel.app",
+        "https://mjabank.vercel.app"
+    }
+)
+// Only registered by ReactiveBankingApplication; the servlet application skips it when the reactive build is on its classpath.
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+// WebFlux twin of TransactionRestController: the same /api/accounts paths, payloads and error responses.
+public class ReactiveTransactionRestController {
+
+    // Exported rows encoded per response chunk.
+    static final int EXPORT_CHUNK_ROWS = 256;
+
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    private static final MediaType NDJSON = MediaType.valueOf("application/x-ndjson");
+    private static final StringDecoder LINES = StringDecoder.textPlainOnly();
+
+    private final ReactiveTransactionService transactionService;
+
+    public ReactiveTransactionRestController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PostMapping
+    public Mono<Account> createAccount(@RequestBody Account account) {
+        return transactionService.createAccount(account);
+    }
+
+    @PostMapping("/{accountNumber}/deposit")
+    public Mono<Account> deposit(@PathVariable int accountNumber, @RequestBody TransactionDTO dto) {
+        return transactionService.deposit(accountNumber, dto.getAmountCents());
+    }
+
+    @PostMapping("/{accountNumber}/withdraw")
+    public Mono<Account> withdraw(@PathVariable int accountNumber, @RequestBody TransactionDTO dto) {
+        return transactionService.withdraw(accountNumber, dto.getAmountCents());
+    }
+
+    @PostMapping("/{accountNumber}/transfer")
+    public Mono<TransferResultDTO> transfer(@PathVariable int accountNumber, @RequestBody TransferDTO dto) {
+        return transactionService.transfer(accountNumber, dto.getToAccountNumber(), dto.getAmountCents());
+    }
+
+    @PutMapping("/{accountNumber}/balance")
+    public Mono<Account> updateBalance(@PathVariable int accountNumber, @RequestBody TransactionDTO dto) {
+        return transactionService.updateBalance(accountNumber, dto.getAmountCents());
+    }
+
+    @PostMapping("/transactions:batch")
+    public Mono<List<BatchResultDTO>> applyBatch(@RequestBody List<BatchTransactionDTO> operations) {
+        return transactionService.applyBatch(operations);
+    }
+
+    // Decodes the body line by line as it arrives, so an import never buffers the whole upload.
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public Mono<ImportResultDTO> importAccounts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                @RequestBody Flux<DataBuffer> body) {
+        AccountImportReader.Format format = TEXT_CSV.isCompatibleWith(contentType)
+                ? AccountImportReader.Format.CSV
+                : AccountImportReader.Format.NDJSON;
+        Flux<AccountImportReader.Row> rows = LINES.decode(body, ResolvableType.forClass(String.class), null, null)
+                .index()
+                .handle((line, sink) -> {
+                    AccountImportReader.Row row = AccountImportReader.parseLine(line.getT2(), line.getT1() + 1, format);
+                    if (row != null) {
+                        sink.next(row);
+                    }
+                });
+        return transactionService.importAccounts(rows);
+    }
+
+    @GetMapping
+    public Mono<AccountPageDTO> listAccounts(@RequestParam(required = false) Integer after,
+                                             @RequestParam(defaultValue = "100") int limit) {
+        return transactionService.listAccounts(after, limit);
+    }
+
+    // Streams matching accounts with backpressure: rows are read from the driver as chunks are written out.
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> exportAccounts(@RequestParam(defaultValue = "ndjson") String format,
+                                                           @RequestParam(required = false) String minBalance,
+                                                           @RequestParam(required = false) String maxBalance,
+                                                           @RequestParam(required = false) String name) {
+        AccountExportWriter.Format exportFormat = switch (format.toLowerCase()) {
+            case "csv" -> AccountExportWriter.Format.CSV;
+            case "ndjson" -> AccountExportWriter.Format.NDJSON;
+            default -> throw new IllegalArgumentException("format must be csv or ndjson");
+        };
+        AccountExportFilter filter = new AccountExportFilter(
+                minBalance == null ? null : Money.parse(minBalance),
+                maxBalance == null ? null : Money.parse(maxBalance),
+                name);
+        TransactionService.validateExportFilter(filter);
+        Flux<DataBuffer> rows = transactionService.exportAccounts(filter)
+                .buffer(EXPORT_CHUNK_ROWS)
+                .map(chunk -> encode(exportFormat, chunk, false));
+        Flux<DataBuffer> body = exportFormat == AccountExportWriter.Format.CSV
+                ? Flux.concat(Mono.fromSupplier(() -> encode(exportFormat, List.of(), true)), rows)
+                : rows;
+        return ResponseEntity.ok()
+                .contentType(exportFormat == AccountExportWriter.Format.CSV ? TEXT_CSV : NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/{accountNumber}")
+    public Mono<Account> viewAccount(@PathVariable int accountNumber) {
+        return transactionService.viewAccount(accountNumber);
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleNotFound(AccountNotFoundException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInsufficientFunds(InsufficientFundsException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    // Unreadable JSON and non-numeric path or query values.
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleMalformedRequest(ServerWebInputException ex) {
+        return Map.of("error", "Malformed request");
+    }
+
+    private static DataBuffer encode(AccountExportWriter.Format format, List<Account> accounts, boolean header) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(accounts.size() * 48 + 64);
+        try (AccountExportWriter writer = AccountExportWriter.create(format, out, header)) {
+            for (Account account : accounts) {
+                writer.write(account);
+            }
+        }
+        return DefaultDataBufferFactory.sharedInstance.wrap(out.toByteArray());
+    }
+}
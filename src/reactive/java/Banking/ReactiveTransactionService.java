@@ -0,0 +1,182 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Business rules of TransactionService over a ReactiveAccountDAO, with the same validation and error types.
+// There is no in-process lock manager here: a stripe lock would park the event loop, so concurrent writes to
+// one account serialize on the database row lock alone.
+public class ReactiveTransactionService {
+
+    private final ReactiveAccountDAO accountDAO;
+    private final int batchChunkSize;
+
+    public ReactiveTransactionService(ReactiveAccountDAO accountDAO, int batchChunkSize) {
+        if (batchChunkSize <= 0) {
+            throw new IllegalArgumentException("banking.batch.chunk-size must be positive");
+        }
+        this.accountDAO = accountDAO;
+        this.batchChunkSize = batchChunkSize;
+    }
+
+    public Mono<Account> createAccount(Account account) {
+        String problem = TransactionService.validateNewAccount(account);
+        if (problem != null) {
+            return Mono.error(new IllegalArgumentException(problem));
+        }
+        return accountDAO.createAccount(account).thenReturn(account);
+    }
+
+    public Mono<Account> deposit(int accountNumber, long amountCents) {
+        return Mono.defer(() -> {
+            TransactionService.validateAmount(amountCents);
+            return accountDAO.applyDelta(accountNumber, amountCents, AccountDAO.NO_MIN_BALANCE);
+        });
+    }
+
+    public Mono<Account> withdraw(int accountNumber, long amountCents) {
+        return Mono.defer(() -> {
+            TransactionService.validateAmount(amountCents);
+            // The DAO enforces the no-overdraft rule atomically with the debit.
+            return accountDAO.applyDelta(accountNumber, -amountCents, 0);
+        });
+    }
+
+    public Mono<Account> updateBalance(int accountNumber, long newBalanceCents) {
+        return accountDAO.getAccount(accountNumber)
+                .flatMap(existing -> accountDAO.updateBalance(accountNumber, newBalanceCents)
+                        .then(Mono.fromSupplier(() -> {
+                            existing.setBalanceCents(newBalanceCents);
+                            return existing;
+                        })));
+    }
+
+    public Mono<TransferResultDTO> transfer(int fromAccountNumber, int toAccountNumber, long amountCents) {
+        return Mono.defer(() -> {
+            TransactionService.validateAmount(amountCents);
+            if (fromAccountNumber == toAccountNumber) {
+                throw new IllegalArgumentException("Cannot transfer to the same account");
+            }
+            return accountDAO.transfer(fromAccountNumber, toAccountNumber, amountCents);
+        });
+    }
+
+    public Mono<Account> viewAccount(int accountNumber) {
+        return accountDAO.getAccount(accountNumber);
+    }
+
+    // Same contract as TransactionService.applyBatch: submission order, one DAO transaction per chunk, invalid
+    // items rejected up front, and a chunk that fails in the database fails only its own items.
+    public Mono<List<BatchResultDTO>> applyBatch(List<BatchTransactionDTO> operations) {
+        BatchResultDTO[] results = new BatchResultDTO[operations.size()];
+        List<int[]> chunkIndexes = new ArrayList<>();
+        List<List<BatchTransactionDTO>> chunks = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchTransactionDTO op = operations.get(i);
+            String problem = TransactionService.validateBatchOperation(op);
+            if (problem != null) {
+                results[i] = new BatchResultDTO(op == null ? 0 : op.getAccountNumber(), BatchStatus.INVALID, problem);
+                continue;
+            }
+            if (chunks.isEmpty() || chunks.get(chunks.size() - 1).size() == batchChunkSize) {
+                chunks.add(new ArrayList<>(batchChunkSize));
+                chunkIndexes.add(new int[batchChunkSize]);
+            }
+            List<BatchTransactionDTO> chunk = chunks.get(chunks.size() - 1);
+            chunkIndexes.get(chunkIndexes.size() - 1)[chunk.size()] = i;
+            chunk.add(op);
+        }
+        return Flux.range(0, chunks.size())
+                .concatMap(c -> applyChunk(chunks.get(c), chunkIndexes.get(c), results))
+                .then(Mono.fromSupplier(() -> List.of(results)));
+    }
+
+    // Streams parsed rows into chunked multi-row inserts, holding one chunk at a time; rows get the same checks
+    // as createAccount. Lines are numbered from 1 in the order they arrive.
+    public Mono<ImportResultDTO> importAccounts(Flux<AccountImportReader.Row> rows) {
+        ImportResultDTO result = new ImportResultDTO();
+        return rows
+                .filter(row -> {
+                    String problem = row.getError() != null ? row.getError() : TransactionService.validateNewAccount(row.getAccount());
+                    if (problem != null) {
+                        result.recordRejected(row.getLine(), row.getAccountNumber(), problem);
+                        return false;
+                    }
+                    return true;
+                })
+                .buffer(batchChunkSize)
+                .concatMap(chunk -> importChunk(chunk, result))
+                .then(Mono.just(result));
+    }
+
+    public Mono<AccountPageDTO> listAccounts(Integer afterAccountNumber, int limit) {
+        if (limit <= 0 || limit > TransactionService.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("limit must be between 1 and " + TransactionService.MAX_PAGE_SIZE));
+        }
+        // One extra row tells whether this is the last page, as in TransactionService.
+        return accountDAO.listAccounts(afterAccountNumber, limit + 1)
+                .collectList()
+                .map(accounts -> {
+                    if (accounts.size() <= limit) {
+                        return new AccountPageDTO(accounts, null);
+                    }
+                    List<Account> page = accounts.subList(0, limit);
+                    return new AccountPageDTO(page, page.get(limit - 1).getAccountNumber());
+                });
+    }
+
+    public Flux<Account> exportAccounts(AccountExportFilter filter) {
+        return Flux.defer(() -> {
+            TransactionService.validateExportFilter(filter);
+            return accountDAO.exportAccounts(filter);
+        });
+    }
+
+    private Mono<Void> applyChunk(List<BatchTransactionDTO> chunk, int[] indexes, BatchResultDTO[] results) {
+        return accountDAO.applyBatch(chunk)
+                .doOnNext(outcomes -> {
+                    for (int i = 0; i < outcomes.length; i++) {
+                        int accountNumber = chunk.get(i).getAccountNumber();
+                        results[indexes[i]] = new BatchResultDTO(accountNumber, outcomes[i],
+                                TransactionService.errorFor(outcomes[i], accountNumber));
+                    }
+                })
+                // The chunk's transaction rolled back, so none of its operations were applied.
+                .onErrorResume(DataAccessException.class, ex -> Mono.fromRunnable(() -> {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        results[indexes[i]] = new BatchResultDTO(chunk.get(i).getAccountNumber(), BatchStatus.FAILED,
+                                ex.getMostSpecificCause().getMessage());
+                    }
+                }))
+                .then();
+    }
+
+    private Mono<Void> importChunk(List<AccountImportReader.Row> chunk, ImportResultDTO result) {
+        List<Account> accounts = new ArrayList<>(chunk.size());
+        for (AccountImportReader.Row row : chunk) {
+            accounts.add(row.getAccount());
+        }
+        return accountDAO.createAccounts(accounts)
+                .doOnNext(created -> {
+                    for (int i = 0; i < created.length; i++) {
+                        if (created[i]) {
+                            result.recordCreated();
+                        } else {
+                            result.recordRejected(chunk.get(i).getLine(), accounts.get(i).getAccountNumber(),
+                                    "Account already exists: " + accounts.get(i).getAccountNumber());
+                        }
+                    }
+                })
+                .onErrorResume(DataAccessException.class, ex -> Mono.fromRunnable(() -> {
+                    for (AccountImportReader.Row row : chunk) {
+                        result.recordRejected(row.getLine(), row.getAccountNumber(), ex.getMostSpecificCause().getMessage());
+                    }
+                }))
+                .then();
+    }
+}
@@ -0,0 +1,72 @@
+package Banking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Filtered, streamed account export from H2 in both output formats.
+class AccountExportTest {
+
+    private H2TestDatabase database;
+    private TransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("export");
+        BnkAccountDaoImpl dao = database.newAccountDao();
+        service = new TransactionService(dao);
+        dao.createAccount(new Account(3, "Carol \"CJ\", Jr", 30_000));
+        dao.createAccount(new Account(1, "Alice", 1_050));
+        dao.createAccount(new Account(2, "Bob_100%", 200_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void exportsCsvInAccountOrderThatReimportsUnchanged() {
+        String csv = export(AccountExportWriter.Format.CSV, new AccountExportFilter());
+
+        assertEquals("accountNumber,customerName,balance\n"
+                + "1,Alice,10.50\n"
+                + "2,Bob_100%,2000.00\n"
+                + "3,\"Carol \"\"CJ\"\", Jr\",300.00\n", csv);
+        AccountImportReader reader = new AccountImportReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), AccountImportReader.Format.CSV);
+        reader.next();
+        reader.next();
+        assertEquals("Carol \"CJ\", Jr", reader.next().getAccount().getCustomerName());
+    }
+
+    @Test
+    void exportsNdjsonWithBalanceAndNameFilters() {
+        assertEquals("{\"accountNumber\":3,\"customerName\":\"Carol \\\"CJ\\\", Jr\",\"balance\":300.00}\n",
+                export(AccountExportWriter.Format.NDJSON, new AccountExportFilter(10_000L, 100_000L, null)));
+        assertEquals("{\"accountNumber\":2,\"customerName\":\"Bob_100%\",\"balance\":2000.00}\n",
+                export(AccountExportWriter.Format.NDJSON, new AccountExportFilter(null, null, "_100%")));
+        assertEquals("", export(AccountExportWriter.Format.NDJSON, new AccountExportFilter(null, 1_000L, null)));
+    }
+
+    @Test
+    void rejectsInvertedBalanceRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> export(AccountExportWriter.Format.CSV, new AccountExportFilter(500L, 100L, null)));
+    }
+
+    private String export(AccountExportWriter.Format format, AccountExportFilter filter) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AccountExportWriter writer = AccountExportWriter.create(format, out)) {
+            service.exportAccounts(filter, writer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
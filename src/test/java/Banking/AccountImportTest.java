@@ -0,0 +1,85 @@
+package Banking;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Streaming CSV/NDJSON import through TransactionService into H2 with multi-row INSERTs.
+class AccountImportTest {
+
+    private H2TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BnkAccountDaoImpl dao;
+    private TransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("import");
+        jdbcTemplate = database.getJdbcTemplate();
+        dao = database.newAccountDao();
+        service = new TransactionService(dao, new AccountLockManager(16, false), 250);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void importsCsvInChunksAndReportsRejectedRows() {
+        dao.createAccount(new Account(7, "Existing", 100));
+        StringBuilder csv = new StringBuilder("accountNumber,customerName,balance\n");
+        for (int i = 1; i <= 600; i++) {
+            csv.append(i).append(",Customer ").append(i).append(',').append(i).append(".50\n");
+        }
+        csv.append("601,\"Smith, Jane \"\"JJ\"\"\",12\n");
+        csv.append("\n");
+        csv.append("602,Negative,-1.00\n");
+        csv.append("abc,Bad Number,1\n");
+        csv.append("603,Too Precise,1.001\n");
+        csv.append("5,Repeated,1\n");
+
+        ImportResultDTO result = service.importAccounts(reader(csv.toString(), AccountImportReader.Format.CSV));
+
+        assertEquals(600, result.getCreated());
+        assertEquals(5, result.getRejected());
+        assertEquals(601, count());
+        assertEquals(100, dao.getBalance(7));
+        assertEquals(1_050, dao.getBalance(10));
+        assertEquals("Smith, Jane \"JJ\"", dao.getAccount(601).getCustomerName());
+        assertEquals(8, result.getRejections().get(0).getLine());
+        assertEquals("Account already exists: 7", result.getRejections().get(0).getError());
+        assertEquals("Initial balance cannot be negative", result.getRejections().get(1).getError());
+        assertEquals(5, result.getRejections().get(4).getAccountNumber());
+    }
+
+    @Test
+    void importsNdjson() {
+        String ndjson = "{\"accountNumber\":1,\"customerName\":\"Alice\",\"balance\":10.25}\n"
+                + "{\"accountNumber\":2,\"customerName\":\"Bob\",\"balance\":0,\"branch\":\"ignored\"}\n"
+                + "{\"accountNumber\":3,\"balance\":1}\n"
+                + "{\"accountNumber\":4,\n";
+
+        ImportResultDTO result = service.importAccounts(reader(ndjson, AccountImportReader.Format.NDJSON));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(1_025, dao.getBalance(1));
+        assertEquals("Customer name is required", result.getRejections().get(0).getError());
+        assertEquals(4, result.getRejections().get(1).getLine());
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+    }
+
+    private static AccountImportReader reader(String body, AccountImportReader.Format format) {
+        return new AccountImportReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
@@ -0,0 +1,103 @@
+package Banking;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Striped lock manager: same-account exclusion, contention counters and the most contended stripes.
+class AccountLockManagerTest {
+
+    @Test
+    void sameAccountWaitsAndIsCountedAsContended() throws InterruptedException {
+        AccountLockManager locks = new AccountLockManager(64, false);
+        int stripe = locks.stripeFor(42);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        locks.lock(42);
+        Thread waiter = new Thread(() -> {
+            held.countDown();
+            locks.lock(42);
+            locks.unlock(42);
+            done.countDown();
+        });
+        waiter.start();
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        locks.unlock(42);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(2, locks.getAcquisitions(stripe));
+        assertEquals(1, locks.getContended(stripe));
+        assertTrue(locks.getWaitNanos(stripe) > 0);
+    }
+
+    @Test
+    void lockAllTakesEachDistinctStripeOnce() throws InterruptedException {
+        AccountLockManager locks = new AccountLockManager(64, false);
+        int[] stripes = locks.lockAll(new int[] {7, 3, 7, 12});
+
+        assertEquals(IntStream.of(3, 7, 12).map(locks::stripeFor).distinct().count(), stripes.length);
+        for (int i = 1; i < stripes.length; i++) {
+            assertTrue(stripes[i - 1] < stripes[i]);
+        }
+        assertEquals(1, locks.getAcquisitions(locks.stripeFor(7)));
+        Thread other = new Thread(() -> {
+            locks.lock(12);
+            locks.unlock(12);
+        });
+        other.start();
+        other.join(100);
+        assertTrue(other.isAlive());
+        locks.unlockAll(stripes);
+        other.join(5000);
+        assertFalse(other.isAlive());
+    }
+
+    @Test
+    void mostContendedStripesAreOrderedByTotalWait() throws InterruptedException {
+        AccountLockManager locks = new AccountLockManager(64, false);
+        int briefly = 1;
+        int longer = 2;
+        assertNotEquals(locks.stripeFor(briefly), locks.stripeFor(longer));
+        locks.lock(3);
+        locks.unlock(3);
+
+        holdWhileAnotherThreadWaits(locks, briefly, 20);
+        holdWhileAnotherThreadWaits(locks, longer, 200);
+
+        assertArrayEquals(new int[] {locks.stripeFor(longer), locks.stripeFor(briefly)},
+                locks.getMostContendedStripes(10));
+        assertArrayEquals(new int[] {locks.stripeFor(longer)}, locks.getMostContendedStripes(1));
+    }
+
+    private static void holdWhileAnotherThreadWaits(AccountLockManager locks, int accountNumber, long holdMillis)
+            throws InterruptedException {
+        locks.lock(accountNumber);
+        Thread waiter = new Thread(() -> {
+            locks.lock(accountNumber);
+            locks.unlock(accountNumber);
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(holdMillis);
+        locks.unlock(accountNumber);
+        waiter.join();
+    }
+
+    @Test
+    void stripeCountMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AccountLockManager(100, false));
+    }
+}
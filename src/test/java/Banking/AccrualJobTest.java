@@ -0,0 +1,167 @@
+package Banking;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Range-parallel accrual with checkpoints against H2 in MySQL mode.
+class AccrualJobTest {
+
+    // 5% interest and a 1.00 fee per run.
+    private static final long RATE_MICROS = 50_000;
+    private static final long FEE_CENTS = 100;
+
+    private H2TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private BnkAccountDaoImpl dao;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("accrual").withBalanceSlots().withAccrualTables();
+        jdbcTemplate = database.getJdbcTemplate();
+        transactionManager = database.getTransactionManager();
+        dao = database.newAccountDao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void accruesEveryRangeInParallel() {
+        for (int i = 1; i <= 50; i++) {
+            dao.createAccount(new Account(i, "Customer " + i, 10_000));
+        }
+        dao.updateBalance(7, 50);
+        dao.updateBalance(8, -500);
+        AccrualJob job = newJob(new HotAccounts(), dao, 10, 4);
+
+        AccrualRunDTO run = job.run("2026-10-18", RATE_MICROS, FEE_CENTS);
+
+        assertEquals(AccrualStatus.COMPLETED, run.getStatus());
+        assertEquals(5, run.getRanges());
+        assertEquals(5, run.getRangesDone());
+        assertEquals(50, run.getAccounts());
+        assertEquals(10_400, dao.getBalance(1));
+        // 0.50 earns 0.03, then the fee takes all 0.53 rather than going negative.
+        assertEquals(0, dao.getBalance(7));
+        assertEquals(-500, dao.getBalance(8));
+        assertEquals(48 * 500 + 3, run.getInterestCents());
+        assertEquals(48 * 100 + 53, run.getFeeCents());
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accrual_checkpoints WHERE run_id = '2026-10-18'", Integer.class));
+        assertEquals(AccrualStatus.COMPLETED, job.status("2026-10-18").getStatus());
+    }
+
+    @Test
+    void accruesBalancesAboveThirtyTwoBitCents() {
+        dao.createAccount(new Account(1, "Customer 1", 3_000_000_000L));
+        AccrualJob job = newJob(new HotAccounts(), dao, 10, 1);
+
+        AccrualRunDTO run = job.run("2026-10-18", RATE_MICROS, FEE_CENTS);
+
+        assertEquals(AccrualStatus.COMPLETED, run.getStatus());
+        assertEquals(150_000_000, run.getInterestCents());
+        assertEquals(3_000_000_000L + 150_000_000 - FEE_CENTS, dao.getBalance(1));
+    }
+
+    @Test
+    void accrualInvalidatesCachedAndCoalescedReads() {
+        dao.createAccount(new Account(1, "Customer 1", 10_000));
+        AccountCache cache = new AccountCache(100, 60_000);
+        AccountDAO reads = new CachingAccountDao(
+                new CoalescingAccountDao(dao, new ReplicaRouting(), new BankingMetrics()), cache);
+        assertEquals(10_000, reads.getBalance(1));
+
+        newJob(new HotAccounts(), reads, 10, 1).run("2026-10-18", RATE_MICROS, FEE_CENTS);
+
+        assertEquals(10_400, reads.getBalance(1));
+    }
+
+    @Test
+    void rangesFollowExistingAccountsNotTheKeySpan() {
+        // Far apart numbers: aligned blocks of 10 would be about 200 million mostly empty ranges.
+        int[] accountNumbers = {-2_000_000_000, -5, 3, 40, 41, 1_000_000, 7_000_000, 2_000_000_000};
+        for (int accountNumber : accountNumbers) {
+            dao.createAccount(new Account(accountNumber, "Customer " + accountNumber, 10_000));
+        }
+
+        AccrualRunDTO run = newJob(new HotAccounts(), dao, 3, 2).run("sparse", RATE_MICROS, FEE_CENTS);
+
+        assertEquals(3, run.getRanges());
+        assertEquals(8, run.getAccounts());
+        assertEquals(List.of(Integer.MIN_VALUE, 40, 7_000_000), jdbcTemplate.queryForList(
+                "SELECT range_start FROM accrual_ranges WHERE run_id = 'sparse' ORDER BY range_start", Integer.class));
+        for (int accountNumber : accountNumbers) {
+            assertEquals(10_400, dao.getBalance(accountNumber));
+        }
+    }
+
+    @Test
+    void resumedRunSkipsCheckpointedRanges() {
+        for (int i = 1; i <= 30; i++) {
+            dao.createAccount(new Account(i, "Customer " + i, 10_000));
+        }
+        // A crashed run planned in ranges of 10 that had committed the range 10-19 only.
+        jdbcTemplate.update("INSERT INTO accrual_runs (run_id, interest_rate_micros, fee_cents, range_size) "
+                + "VALUES ('nightly', ?, ?, 10)", RATE_MICROS, FEE_CENTS);
+        jdbcTemplate.update("INSERT INTO accrual_ranges VALUES ('nightly', ?, 9), ('nightly', 10, 19), "
+                + "('nightly', 20, ?)", Integer.MIN_VALUE, Integer.MAX_VALUE);
+        jdbcTemplate.update("INSERT INTO accrual_checkpoints VALUES ('nightly', 10, 10, 5000, 1000)");
+        AccrualJob job = newJob(new HotAccounts(), dao, 1000, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> job.run("nightly", RATE_MICROS + 1, FEE_CENTS));
+        AccrualRunDTO run = job.run("nightly", RATE_MICROS, FEE_CENTS);
+
+        assertEquals(AccrualStatus.COMPLETED, run.getStatus());
+        assertEquals(3, run.getRanges());
+        assertEquals(1, run.getRangesResumed());
+        assertEquals(20, run.getAccounts());
+        assertEquals(10_400, dao.getBalance(9));
+        assertEquals(10_000, dao.getBalance(15));
+        assertEquals(10_400, dao.getBalance(20));
+        assertThrows(IllegalArgumentException.class, () -> job.run("nightly", RATE_MICROS, FEE_CENTS));
+    }
+
+    @Test
+    void foldsHotAccountSlotsBeforeAccruing() {
+        dao.createAccount(new Account(5, "Hot", 10_000));
+        jdbcTemplate.update("INSERT INTO account_balance_slots VALUES (5, 0, 50.00), (5, 3, 50.00)");
+        AccrualJob job = newJob(new HotAccounts(new int[] {5}, 4), dao, 10, 1);
+
+        job.run("hot", RATE_MICROS, 0);
+
+        assertEquals(21_000, dao.getBalance(5));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT ROUND(SUM(balance) * 100) FROM account_balance_slots", Long.class));
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        AccrualJob job = newJob(new HotAccounts(), dao, 10, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> job.run("", RATE_MICROS, FEE_CENTS));
+        assertThrows(IllegalArgumentException.class, () -> job.run("zero", 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> job.run("negative", RATE_MICROS, -1));
+        assertThrows(IllegalArgumentException.class, () -> AccrualJob.rateMicros(new BigDecimal("0.0000001")));
+        assertEquals(137, AccrualJob.rateMicros(new BigDecimal("0.000137")));
+        assertEquals(1, AccrualJob.interestCents(10, 50_000));
+        assertEquals(999_999_999_999_999L, AccrualJob.interestCents(999_999_999_999_999L, 1_000_000));
+        assertEquals(AccrualStatus.COMPLETED, job.run("empty", RATE_MICROS, FEE_CENTS).getStatus());
+    }
+
+    private AccrualJob newJob(HotAccounts hotAccounts, AccountDAO accountDAO, int rangeSize, int parallelism) {
+        return new AccrualJob(jdbcTemplate, transactionManager, hotAccounts, accountDAO,
+                new AccountLockManager(64, false), new ReplicaRouting(), (TransactionJournal) null, rangeSize, parallelism);
+    }
+}
@@ -0,0 +1,171 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Queued deposits/withdrawals applied by pipeline workers against H2 in MySQL mode.
+class AsyncTransactionPipelineTest {
+
+    private H2TestDatabase database;
+    private BnkAccountDaoImpl dao;
+    private AsyncTransactionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("async");
+        dao = database.newAccountDao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+        database.drop();
+    }
+
+    @Test
+    void appliesOperationsPerAccountInSubmissionOrder() throws InterruptedException {
+        dao.createAccount(new Account(1, "Alice", 0));
+        dao.createAccount(new Account(2, "Bob", 1000));
+        pipeline = new AsyncTransactionPipeline(new TransactionService(dao), 100, 2, 4, 100);
+
+        List<OperationStatusDTO> submitted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            submitted.add(pipeline.submit(TransactionType.DEPOSIT, 1, 100));
+            submitted.add(pipeline.submit(TransactionType.WITHDRAW, 1, 100));
+        }
+        OperationStatusDTO overdraft = pipeline.submit(TransactionType.WITHDRAW, 2, 5000);
+        OperationStatusDTO missing = pipeline.submit(TransactionType.DEPOSIT, 99, 100);
+        assertEquals(BatchStatus.PENDING, missing.getStatus());
+
+        for (OperationStatusDTO operation : submitted) {
+            assertEquals(BatchStatus.APPLIED, awaitOutcome(operation).getStatus());
+        }
+        assertEquals(BatchStatus.INSUFFICIENT_FUNDS, awaitOutcome(overdraft).getStatus());
+        OperationStatusDTO notFound = awaitOutcome(missing);
+        assertEquals(BatchStatus.NOT_FOUND, notFound.getStatus());
+        assertEquals("Account not found: 99", notFound.getError());
+        assertEquals(0, dao.getBalance(1));
+        assertEquals(1000, dao.getBalance(2));
+    }
+
+    @Test
+    void rejectsInvalidAmountsBeforeQueueing() {
+        pipeline = new AsyncTransactionPipeline(new TransactionService(dao), 10, 1, 10, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.submit(TransactionType.DEPOSIT, 1, 0));
+        assertEquals(0, pipeline.getPending());
+    }
+
+    @Test
+    void fullQueueRejectsUntilWorkersCatchUp() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        TransactionService blocked = new TransactionService(dao) {
+            @Override
+            public List<BatchResultDTO> applyBatch(List<BatchTransactionDTO> operations) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                List<BatchResultDTO> results = new ArrayList<>();
+                for (BatchTransactionDTO op : operations) {
+                    results.add(new BatchResultDTO(op.getAccountNumber(), BatchStatus.APPLIED, null));
+                }
+                return results;
+            }
+        };
+        pipeline = new AsyncTransactionPipeline(blocked, 2, 1, 1, 10);
+
+        OperationStatusDTO inFlight = pipeline.submit(TransactionType.DEPOSIT, 1, 100);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pipeline.submit(TransactionType.DEPOSIT, 1, 100);
+        pipeline.submit(TransactionType.DEPOSIT, 1, 100);
+        assertThrows(PipelineFullException.class, () -> pipeline.submit(TransactionType.DEPOSIT, 1, 100));
+
+        release.countDown();
+        assertEquals(BatchStatus.APPLIED, awaitOutcome(inFlight).getStatus());
+        pipeline.close();
+        assertEquals(0, pipeline.getPending());
+        assertThrows(PipelineFullException.class, () -> pipeline.submit(TransactionType.DEPOSIT, 1, 100));
+    }
+
+    @Test
+    void closeFailsOperationsTheWorkersDidNotReach() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        TransactionService stuck = new TransactionService(dao) {
+            @Override
+            public List<BatchResultDTO> applyBatch(List<BatchTransactionDTO> operations) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of(new BatchResultDTO(operations.get(0).getAccountNumber(), BatchStatus.APPLIED, null));
+            }
+        };
+        pipeline = new AsyncTransactionPipeline(stuck, 10, 1, 1, 10, 50);
+        try {
+            OperationStatusDTO inFlight = pipeline.submit(TransactionType.DEPOSIT, 1, 100);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            OperationStatusDTO queued = pipeline.submit(TransactionType.DEPOSIT, 1, 100);
+
+            pipeline.close();
+
+            OperationStatusDTO failed = pipeline.status(queued.getOperationId());
+            assertEquals(BatchStatus.FAILED, failed.getStatus());
+            assertEquals("Not applied: the pipeline shut down first", failed.getError());
+            assertEquals(0, pipeline.getPending());
+            assertThrows(PipelineFullException.class, () -> pipeline.submit(TransactionType.DEPOSIT, 1, 100));
+
+            release.countDown();
+            assertEquals(BatchStatus.APPLIED, awaitOutcome(inFlight).getStatus());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void forgetsTheOldestOutcomesBeyondRetention() throws InterruptedException {
+        dao.createAccount(new Account(3, "Carol", 0));
+        pipeline = new AsyncTransactionPipeline(new TransactionService(dao), 10, 1, 10, 2);
+
+        OperationStatusDTO first = pipeline.submit(TransactionType.DEPOSIT, 3, 100);
+        awaitOutcome(first);
+        OperationStatusDTO second = awaitOutcome(pipeline.submit(TransactionType.DEPOSIT, 3, 100));
+        OperationStatusDTO third = awaitOutcome(pipeline.submit(TransactionType.DEPOSIT, 3, 100));
+
+        assertNull(pipeline.status(first.getOperationId()));
+        assertEquals(BatchStatus.APPLIED, pipeline.status(second.getOperationId()).getStatus());
+        assertEquals(BatchStatus.APPLIED, pipeline.status(third.getOperationId()).getStatus());
+        assertNull(pipeline.status(12345));
+    }
+
+    private OperationStatusDTO awaitOutcome(OperationStatusDTO submitted) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            OperationStatusDTO status = pipeline.status(submitted.getOperationId());
+            if (status != null && status.getStatus() != BatchStatus.PENDING) {
+                return status;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Operation " + submitted.getOperationId() + " still pending");
+    }
+}
@@ -0,0 +1,153 @@
+package Banking;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// DAO tests against H2 running in MySQL mode with the banking_db.sql schema.
+class BnkAccountDaoImplTest {
+
+    private H2TestDatabase database;
+    private BnkAccountDaoImpl dao;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("banking");
+        dao = database.newAccountDao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void applyDeltaReturnsUpdatedRow() {
+        dao.createAccount(new Account(1, "Alice", 10_000));
+
+        Account updated = dao.applyDelta(1, 2550, AccountDAO.NO_MIN_BALANCE);
+
+        assertEquals("Alice", updated.getCustomerName());
+        assertEquals(12_550, updated.getBalanceCents());
+    }
+
+    @Test
+    void applyDeltaRejectsDebitBelowMinimum() {
+        dao.createAccount(new Account(2, "Bob", 5000));
+
+        assertThrows(InsufficientFundsException.class, () -> dao.applyDelta(2, -6000, 0));
+        assertEquals(5000, dao.getBalance(2));
+    }
+
+    @Test
+    void applyDeltaOnMissingAccountThrowsNotFound() {
+        assertThrows(AccountNotFoundException.class, () -> dao.applyDelta(404, 1000, AccountDAO.NO_MIN_BALANCE));
+    }
+
+    @Test
+    void concurrentDeltasDoNotLoseUpdates() throws InterruptedException {
+        dao.createAccount(new Account(3, "Carol", 0));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            pool.execute(() -> dao.applyDelta(3, 100, AccountDAO.NO_MIN_BALANCE));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(40_000, dao.getBalance(3));
+    }
+
+    @Test
+    void applyBatchRunsMixedOperationsInOrder() {
+        dao.createAccount(new Account(4, "Dan", 1000));
+        dao.createAccount(new Account(5, "Erin", 0));
+
+        BatchStatus[] outcomes = dao.applyBatch(List.of(
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 4, 500),
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 5, 2000),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 4, 1500),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 4, 100),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 99, 100),
+                new BatchTransactionDTO(TransactionType.SET_BALANCE, 5, 725),
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 99, 100)));
+
+        assertArrayEquals(new BatchStatus[] {
+                BatchStatus.APPLIED, BatchStatus.APPLIED, BatchStatus.APPLIED, BatchStatus.INSUFFICIENT_FUNDS,
+                BatchStatus.NOT_FOUND, BatchStatus.APPLIED, BatchStatus.NOT_FOUND}, outcomes);
+        assertEquals(0, dao.getBalance(4));
+        assertEquals(725, dao.getBalance(5));
+    }
+
+    @Test
+    void batchOrderGroupsByTypeWithoutReorderingAnAccount() {
+        List<BatchTransactionDTO> operations = List.of(
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 1, 100),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 2, 100),
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 3, 100),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 4, 100),
+                new BatchTransactionDTO(TransactionType.SET_BALANCE, 5, 100),
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 6, 100),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 1, 150),
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 1, 100));
+
+        long[] keys = BnkAccountDaoImpl.batchOrder(operations);
+
+        // Five batches: deposits, withdrawals and the set for distinct accounts, then account 1's later two.
+        assertArrayEquals(new int[] {0, 2, 5, 1, 3, 4, 6, 7}, Arrays.stream(keys).mapToInt(key -> (int) key).toArray());
+        assertEquals(5, Arrays.stream(keys).map(key -> key >>> 32).distinct().count());
+    }
+
+    @Test
+    void balancesAboveThirtyTwoBitCentsRoundTrip() {
+        // 30,000,000.00: past 2^31 cents, where a 32-bit read of the cents would overflow.
+        long large = 3_000_000_000L;
+        dao.createAccount(new Account(6, "Frank", large));
+        dao.createAccount(new Account(7, "Grace", large));
+
+        assertEquals(large, dao.getBalance(6));
+        assertEquals(large + 1, dao.applyDelta(6, 1, AccountDAO.NO_MIN_BALANCE).getBalanceCents());
+        assertArrayEquals(new BatchStatus[] {BatchStatus.APPLIED},
+                dao.applyBatch(List.of(new BatchTransactionDTO(TransactionType.WITHDRAW, 6, 1))));
+        TransferResultDTO result = dao.transfer(6, 7, large);
+        assertEquals(0, result.getFrom().getBalanceCents());
+        assertEquals(2 * large, result.getTo().getBalanceCents());
+        assertEquals(2 * large, dao.getBalance(7));
+        assertEquals(List.of(0L, 2 * large), dao.listAccounts(5, 10).stream().map(Account::getBalanceCents).toList());
+    }
+
+    @Test
+    void listAccountsPagesByKeysetThroughTheService() {
+        for (int i = 1; i <= 25; i += 2) {
+            dao.createAccount(new Account(i, "Customer " + i, i * 100L));
+        }
+        TransactionService service = new TransactionService(dao);
+
+        AccountPageDTO first = service.listAccounts(null, 5);
+        AccountPageDTO second = service.listAccounts(first.getNextAfter(), 5);
+        AccountPageDTO last = service.listAccounts(second.getNextAfter(), 5);
+
+        assertEquals(List.of(1, 3, 5, 7, 9), accountNumbers(first));
+        assertEquals(9, first.getNextAfter());
+        assertEquals(List.of(11, 13, 15, 17, 19), accountNumbers(second));
+        assertEquals(List.of(21, 23, 25), accountNumbers(last));
+        assertNull(last.getNextAfter());
+        assertNull(service.listAccounts(20, 3).getNextAfter());
+        assertThrows(IllegalArgumentException.class, () -> service.listAccounts(null, 0));
+    }
+
+    private static List<Integer> accountNumbers(AccountPageDTO page) {
+        return page.getAccounts().stream().map(Account::getAccountNumber).toList();
+    }
+}
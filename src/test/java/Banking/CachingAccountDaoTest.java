@@ -0,0 +1,92 @@
+package Banking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cache decorator tests against a counting in-memory DAO.
+class CachingAccountDaoTest {
+
+    private CountingAccountDao store;
+    private AccountCache cache;
+    private CachingAccountDao dao;
+
+    @BeforeEach
+    void setUp() {
+        store = new CountingAccountDao();
+        cache = new AccountCache(32, 60_000);
+        dao = new CachingAccountDao(store, cache);
+        store.createAccount(new Account(1, "Alice", 10_000));
+    }
+
+    @Test
+    void repeatedReadsHitTheCache() {
+        dao.getAccount(1);
+        dao.getAccount(1);
+        dao.getAccount(1);
+
+        assertEquals(1, store.reads);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void writesInvalidateCachedBalance() {
+        dao.getAccount(1);
+
+        dao.applyDelta(1, 2500, AccountDAO.NO_MIN_BALANCE);
+        assertEquals(12_500, dao.getBalance(1));
+
+        dao.updateBalance(1, 700);
+        assertEquals(700, dao.getBalance(1));
+    }
+
+    @Test
+    void fillRacingAWriteIsDiscarded() {
+        long token = cache.fillToken(1);
+        Account stale = store.getAccount(1);
+        dao.applyDelta(1, 100, AccountDAO.NO_MIN_BALANCE);
+
+        cache.fill(stale, token);
+
+        assertEquals(10_100, dao.getBalance(1));
+    }
+
+    @Test
+    void fillSurvivesAWriteToAnotherAccountOfItsSegment() {
+        // 22 hashes to the same cache segment as 1.
+        store.createAccount(new Account(22, "Bob", 500));
+        long token = cache.fillToken(1);
+        Account loaded = store.getAccount(1);
+        dao.applyDelta(22, 100, AccountDAO.NO_MIN_BALANCE);
+
+        cache.fill(loaded, token);
+
+        assertEquals(10_000, dao.getBalance(1));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void sizeBoundEvictsLeastRecentlyUsed() {
+        for (int i = 2; i < 2000; i++) {
+            store.createAccount(new Account(i, "Bulk", i));
+            dao.getAccount(i);
+        }
+
+        assertTrue(cache.size() <= 32);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    // Heap store that counts the reads reaching it.
+    private static class CountingAccountDao extends InMemoryAccountDao {
+        int reads;
+
+        @Override
+        public Account getAccount(int accountNumber) {
+            reads++;
+            return super.getAccount(accountNumber);
+        }
+    }
+}
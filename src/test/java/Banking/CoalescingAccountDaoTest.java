@@ -0,0 +1,138 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Single-flight read tests against a store whose SELECT can be held open.
+class CoalescingAccountDaoTest {
+
+    private static final int READERS = 8;
+
+    private GatedAccountDao store;
+    private BankingMetrics metrics;
+    private CoalescingAccountDao dao;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        store = new GatedAccountDao();
+        metrics = new BankingMetrics();
+        dao = new CoalescingAccountDao(store, new ReplicaRouting(), metrics);
+        pool = Executors.newFixedThreadPool(READERS);
+        store.createAccount(new Account(1, "Merchant", 10_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentReadsShareOneQuery() throws Exception {
+        List<Future<Account>> reads = startReads(1, READERS);
+        awaitCoalesced(READERS - 1);
+        store.release.countDown();
+
+        List<Account> results = new ArrayList<>();
+        for (Future<Account> read : reads) {
+            results.add(read.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, store.reads.get());
+        assertEquals(READERS - 1, metrics.getCoalescedReads());
+        for (Account account : results) {
+            assertEquals(10_000, account.getBalanceCents());
+        }
+        for (int i = 1; i < results.size(); i++) {
+            assertNotSame(results.get(0), results.get(i));
+        }
+    }
+
+    @Test
+    void readAfterAWriteDoesNotJoinAnOlderQuery() throws Exception {
+        Future<Account> before = startReads(1, 1).get(0);
+        assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+
+        dao.updateBalance(1, 700);
+        store.release.countDown();
+        Account after = dao.getAccount(1);
+
+        assertEquals(700, after.getBalanceCents());
+        before.get(5, TimeUnit.SECONDS);
+        assertEquals(2, store.reads.get());
+        assertEquals(0, metrics.getCoalescedReads());
+    }
+
+    @Test
+    void joinersSeeTheLeadersFailure() throws Exception {
+        List<Future<Account>> reads = startReads(42, 3);
+        awaitCoalesced(2);
+        store.release.countDown();
+
+        for (Future<Account> read : reads) {
+            Exception ex = assertThrows(Exception.class, () -> read.get(5, TimeUnit.SECONDS));
+            assertTrue(ex.getCause() instanceof AccountNotFoundException);
+        }
+        assertEquals(1, store.reads.get());
+    }
+
+    @Test
+    void sequentialReadsEachQuery() {
+        store.release.countDown();
+
+        dao.getAccount(1);
+        dao.getAccount(1);
+
+        assertEquals(2, store.reads.get());
+        assertEquals(0, metrics.getCoalescedReads());
+    }
+
+    private List<Future<Account>> startReads(int accountNumber, int count) {
+        List<Future<Account>> reads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reads.add(pool.submit(() -> dao.getAccount(accountNumber)));
+        }
+        return reads;
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metrics.getCoalescedReads() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, metrics.getCoalescedReads());
+    }
+
+    // Every getAccount blocks until release is counted down, which keeps the first query in flight.
+    private static class GatedAccountDao extends InMemoryAccountDao {
+        final AtomicInteger reads = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public Account getAccount(int accountNumber) {
+            reads.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.getAccount(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package Banking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Prefix, typo-tolerant and budget behaviour of the in-memory customer-name index.
+class CustomerNameIndexTest {
+
+    private CustomerNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerNameIndex(1024 * 1024);
+        index.add(1, "John Smith");
+        index.add(2, "Johanna Smythe");
+        index.add(3, "Mary-Jane O'Brien");
+        index.add(4, "Jonathan Smithers");
+        index.add(5, "Élodie Dubois");
+    }
+
+    @Test
+    void prefixMatchesAnyWordInAccountOrder() {
+        assertEquals(List.of(1, 2, 4), accounts(index.search("jo", 10, false)));
+        assertEquals(List.of(3), accounts(index.search("jane", 10, false)));
+        assertEquals(List.of(3), accounts(index.search("o", 10, false)));
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        assertEquals(List.of(1, 4), accounts(index.search("smith j", 10, false)));
+        assertEquals(List.of(4), accounts(index.search("Jonathan SMITHERS", 10, false)));
+        assertEquals(List.of(), accounts(index.search("john brien", 10, false)));
+    }
+
+    @Test
+    void fuzzyToleratesTyposAfterExactMatches() {
+        List<NameMatchDTO> matches = index.search("jhon", 10, true);
+
+        assertEquals(List.of(1), accounts(matches));
+        assertEquals(1, matches.get(0).getEdits());
+        assertEquals("John Smith", matches.get(0).getCustomerName());
+
+        assertEquals(List.of(4), accounts(index.search("smithres", 10, true)));
+        assertEquals(List.of(), accounts(index.search("jhon", 10, false)));
+    }
+
+    @Test
+    void nonAsciiNamesAreSearchable() {
+        assertEquals(List.of(5), accounts(index.search("élo", 10, true)));
+        assertEquals(List.of(5), accounts(index.search("dubios", 10, true)));
+    }
+
+    @Test
+    void limitAndDuplicatesAreHandled() {
+        index.add(1, "John Smith");
+
+        assertEquals(List.of(1, 2), accounts(index.search("jo", 2, true)));
+        assertEquals(List.of(1, 2, 4), accounts(index.search("jo", 10, true)));
+    }
+
+    @Test
+    void stopsIndexingAtTheMemoryBudget() {
+        CustomerNameIndex small = new CustomerNameIndex(200 * 1024);
+        int added = 0;
+        while (small.add(added + 1, "Customer " + added)) {
+            added++;
+        }
+
+        assertTrue(small.isTruncated());
+        assertFalse(small.isComplete());
+        assertEquals(added, small.size());
+        assertTrue(small.getEstimatedBytes() <= 200 * 1024);
+        assertFalse(small.add(added + 2, "Late Arrival"));
+    }
+
+    @Test
+    void fuzzyReadsRareTrigramsFirstWithinThePostingBudget() {
+        CustomerNameIndex common = new CustomerNameIndex(64 * 1024 * 1024, 1_000);
+        for (int i = 0; i < 5_000; i++) {
+            common.add(i + 1, "Smith " + i);
+        }
+        common.add(99_999, "Smyth Rare");
+
+        // "$$s", "$sm" and "th$" list all 5,001 names; only "smy", "myt" and "yth" are rare.
+        int[] candidates = common.fuzzyCandidates("smyth");
+
+        assertTrue(candidates.length <= 1_000);
+        assertEquals(5_000, candidates[0]);
+        assertEquals(List.of(1, 2, 3), accounts(common.search("smiht", 3, true)));
+    }
+
+    @Test
+    void rejectsQueriesWithoutWords() {
+        assertThrows(IllegalArgumentException.class, () -> index.search(" -- ", 10, true));
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsOnce() {
+        assertEquals(1, CustomerNameIndex.editDistance("jhon", "john"));
+        assertEquals(2, CustomerNameIndex.editDistance("smyth", "smith "));
+        assertEquals(0, CustomerNameIndex.editDistance("anna", "anna"));
+    }
+
+    private static List<Integer> accounts(List<NameMatchDTO> matches) {
+        return matches.stream().map(NameMatchDTO::getAccountNumber).toList();
+    }
+}
@@ -0,0 +1,75 @@
+package Banking;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+// Named in-memory H2 database in MySQL mode holding the README schema, shared by the JDBC-backed tests.
+final class H2TestDatabase {
+
+    private final DriverManagerDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceTransactionManager transactionManager;
+
+    // Creates the accounts table; urlOptions are appended to the JDBC URL, e.g. ";LOCK_TIMEOUT=10000".
+    H2TestDatabase(String name, String urlOptions) {
+        this.dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1" + urlOptions, "sa", "");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS accounts ("
+                + "account_number INT PRIMARY KEY, "
+                + "customer_name VARCHAR(255) NOT NULL, "
+                + "balance DECIMAL(15,2) NOT NULL DEFAULT 0)");
+    }
+
+    H2TestDatabase(String name) {
+        this(name, "");
+    }
+
+    // Hot-account deposit slots (README step 3).
+    H2TestDatabase withBalanceSlots() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS account_balance_slots ("
+                + "account_number INT NOT NULL, "
+                + "slot INT NOT NULL, "
+                + "balance DECIMAL(15,2) NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (account_number, slot))");
+        return this;
+    }
+
+    // Accrual run, range and checkpoint tables (README step 4).
+    H2TestDatabase withAccrualTables() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS accrual_runs ("
+                + "run_id VARCHAR(64) PRIMARY KEY, interest_rate_micros BIGINT NOT NULL, "
+                + "fee_cents BIGINT NOT NULL, range_size INT NOT NULL, "
+                + "started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, completed_at TIMESTAMP NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS accrual_checkpoints ("
+                + "run_id VARCHAR(64) NOT NULL, range_start INT NOT NULL, accounts BIGINT NOT NULL, "
+                + "interest_cents BIGINT NOT NULL, fee_cents BIGINT NOT NULL, PRIMARY KEY (run_id, range_start))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS accrual_ranges ("
+                + "run_id VARCHAR(64) NOT NULL, range_start INT NOT NULL, range_end INT NOT NULL, "
+                + "PRIMARY KEY (run_id, range_start))");
+        return this;
+    }
+
+    DriverManagerDataSource getDataSource() {
+        return dataSource;
+    }
+
+    JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    DataSourceTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    BnkAccountDaoImpl newAccountDao() {
+        return new BnkAccountDaoImpl(jdbcTemplate, transactionManager);
+    }
+
+    // Drops every table so the next test starts from an empty schema.
+    void drop() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+}
@@ -0,0 +1,158 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Split-counter balances for hot accounts against H2 running in MySQL mode.
+class HotAccountDaoTest {
+
+    private static final int HOT = 1;
+    private static final int COLD = 2;
+
+    private H2TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private HotAccountDao dao;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("hot").withBalanceSlots();
+        jdbcTemplate = database.getJdbcTemplate();
+        DataSourceTransactionManager transactionManager = database.getTransactionManager();
+        BnkAccountDaoImpl store = database.newAccountDao();
+        dao = new HotAccountDao(store, new HotAccounts(new int[] {HOT}, 4), jdbcTemplate, transactionManager);
+        dao.createAccount(new Account(HOT, "Payroll", 1000));
+        dao.createAccount(new Account(COLD, "Alice", 500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void concurrentDepositsLandInSlotsAndReadsSumThem() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Account>> deposits = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                deposits.add(pool.submit(() -> dao.applyDelta(HOT, 100, AccountDAO.NO_MIN_BALANCE)));
+            }
+            for (Future<Account> deposit : deposits) {
+                deposit.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(21_000, dao.getBalance(HOT));
+        assertEquals(1000, mainRowCents(HOT));
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balance_slots WHERE account_number = ?", Integer.class, HOT));
+    }
+
+    @Test
+    void withdrawalFoldsSlotsAndEnforcesTheWholeBalance() {
+        dao.applyDelta(HOT, 4000, AccountDAO.NO_MIN_BALANCE);
+
+        assertThrows(InsufficientFundsException.class, () -> dao.applyDelta(HOT, -5001, 0));
+        Account after = dao.applyDelta(HOT, -4500, 0);
+
+        assertEquals(500, after.getBalanceCents());
+        assertEquals(500, mainRowCents(HOT));
+        assertEquals(500, dao.getBalance(HOT));
+    }
+
+    @Test
+    void transferAndSetBalanceSeeSlotDeposits() {
+        dao.applyDelta(HOT, 2000, AccountDAO.NO_MIN_BALANCE);
+
+        TransferResultDTO result = dao.transfer(HOT, COLD, 2500);
+        assertEquals(500, result.getFrom().getBalanceCents());
+        assertEquals(3000, dao.getBalance(COLD));
+
+        dao.applyDelta(HOT, 700, AccountDAO.NO_MIN_BALANCE);
+        dao.updateBalance(HOT, 42);
+        assertEquals(42, dao.getBalance(HOT));
+    }
+
+    @Test
+    void transfersBothWaysWithALowerColdAccountNeverDeadlock() throws Exception {
+        // Account 0 sorts below the hot account, so a hot-side fold must not lock the hot row before it.
+        dao.createAccount(new Account(0, "Treasury", 100_000));
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                work.add(pool.submit(() -> dao.transfer(0, HOT, 10)));
+                work.add(pool.submit(() -> dao.transfer(HOT, 0, 10)));
+                work.add(pool.submit(() -> dao.applyDelta(HOT, 10, AccountDAO.NO_MIN_BALANCE)));
+            }
+            for (Future<?> future : work) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(100_000 + 1000 + 150 * 10, dao.getBalance(0) + dao.getBalance(HOT));
+    }
+
+    @Test
+    void listingAddsSlotBalances() {
+        dao.applyDelta(HOT, 250, AccountDAO.NO_MIN_BALANCE);
+
+        List<Account> page = dao.listAccounts(null, 10);
+
+        assertEquals(1250, page.get(0).getBalanceCents());
+        assertEquals(500, page.get(1).getBalanceCents());
+    }
+
+    @Test
+    void exportFiltersOnTheWholeBalanceWithoutFolding() {
+        dao.applyDelta(HOT, 250, AccountDAO.NO_MIN_BALANCE);
+        List<Long> balances = new ArrayList<>();
+
+        dao.exportAccounts(new AccountExportFilter(1100L, null, null), row -> balances.add(row.getBalanceCents()));
+
+        assertEquals(List.of(1250L), balances);
+        assertEquals(1000, mainRowCents(HOT));
+    }
+
+    @Test
+    void slotsExistBeforeTheFirstDepositAndAMissingAccountKeepsThemEmpty() {
+        HotAccountDao missing = new HotAccountDao(database.newAccountDao(),
+                new HotAccounts(new int[] {99}, 4), jdbcTemplate, database.getTransactionManager());
+
+        assertThrows(AccountNotFoundException.class, () -> missing.applyDelta(99, 100, AccountDAO.NO_MIN_BALANCE));
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balance_slots WHERE account_number = 99", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balance_slots WHERE account_number = 99 AND balance <> 0", Integer.class));
+    }
+
+    @Test
+    void coldAccountsUseTheStoreDirectly() {
+        dao.applyDelta(COLD, 100, AccountDAO.NO_MIN_BALANCE);
+
+        assertEquals(600, mainRowCents(COLD));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balance_slots WHERE account_number = ?", Integer.class, COLD));
+    }
+
+    private long mainRowCents(int accountNumber) {
+        return jdbcTemplate.queryForObject(
+                "SELECT ROUND(balance * 100) FROM accounts WHERE account_number = ?", Long.class, accountNumber);
+    }
+}
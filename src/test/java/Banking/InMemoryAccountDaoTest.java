@@ -0,0 +1,105 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Striped primitive-array store: DAO semantics, growth, ordering, and money conservation under concurrency.
+class InMemoryAccountDaoTest {
+
+    @Test
+    void appliesAccountOperationsLikeTheJdbcDao() {
+        InMemoryAccountDao dao = new InMemoryAccountDao();
+        dao.createAccount(new Account(1, "Alice", 10_000));
+        dao.createAccount(new Account(0, "Zero", 0));
+        dao.createAccount(new Account(-7, "Zoë Ångström", 500));
+
+        assertThrows(DuplicateKeyException.class, () -> dao.createAccount(new Account(1, "Again", 0)));
+        assertEquals("Zoë Ångström", dao.getAccount(-7).getCustomerName());
+        assertEquals("Zero", dao.getAccount(0).getCustomerName());
+        assertEquals(12_500, dao.applyDelta(1, 2_500, AccountDAO.NO_MIN_BALANCE).getBalanceCents());
+        assertThrows(InsufficientFundsException.class, () -> dao.applyDelta(-7, -501, 0));
+        assertThrows(AccountNotFoundException.class, () -> dao.getBalance(3));
+        assertThrows(AccountNotFoundException.class, () -> dao.updateBalance(3, 1));
+
+        TransferResultDTO result = dao.transfer(1, -7, 2_000);
+        assertEquals(10_500, result.getFrom().getBalanceCents());
+        assertEquals(2_500, result.getTo().getBalanceCents());
+        assertThrows(InsufficientFundsException.class, () -> dao.transfer(-7, 1, 2_501));
+        assertThrows(AccountNotFoundException.class, () -> dao.transfer(1, 3, 1));
+
+        dao.updateBalance(0, 42);
+        assertEquals(42, dao.getBalance(0));
+        assertEquals(3, dao.getCount());
+    }
+
+    @Test
+    void overflowingWritesLeaveBalancesUntouched() {
+        InMemoryAccountDao dao = new InMemoryAccountDao();
+        dao.createAccount(new Account(1, "Source", 1_000));
+        dao.createAccount(new Account(2, "Nearly full", Long.MAX_VALUE - 10));
+
+        assertThrows(ArithmeticException.class, () -> dao.applyDelta(2, 11, AccountDAO.NO_MIN_BALANCE));
+        assertThrows(ArithmeticException.class, () -> dao.transfer(1, 2, 100));
+        assertEquals(1_000, dao.getBalance(1));
+        assertEquals(Long.MAX_VALUE - 10, dao.getBalance(2));
+        assertEquals(Long.MAX_VALUE - 5, dao.transfer(1, 2, 5).getTo().getBalanceCents());
+        assertEquals(995, dao.transfer(1, 1, 995).getFrom().getBalanceCents());
+    }
+
+    @Test
+    void growsPastItsPresizeAndKeepsAccountOrderForPaging() {
+        InMemoryAccountDao dao = new InMemoryAccountDao(4, 16);
+        for (int i = 200_000; i > 0; i--) {
+            dao.createAccount(new Account(i, i % 10 == 0 ? "Smith " + i : "Jones " + i, i));
+        }
+
+        assertEquals(200_000, dao.getCount());
+        assertEquals("Smith 123450", dao.getAccount(123_450).getCustomerName());
+        assertEquals(List.of(1, 2, 3), dao.listAccounts(null, 3).stream().map(Account::getAccountNumber).toList());
+        assertEquals(List.of(199_999, 200_000),
+                dao.listAccounts(199_998, 10).stream().map(Account::getAccountNumber).toList());
+
+        List<Integer> exported = new ArrayList<>();
+        dao.exportAccounts(new AccountExportFilter(100L, 200L, "SMITH"), row -> exported.add(row.getAccountNumber()));
+        assertEquals(List.of(100, 110, 120, 130, 140, 150, 160, 170, 180, 190, 200), exported);
+    }
+
+    @Test
+    void concurrentTransfersConserveMoney() throws InterruptedException {
+        InMemoryAccountDao dao = new InMemoryAccountDao(8, 0);
+        int accounts = 50;
+        for (int i = 0; i < accounts; i++) {
+            dao.createAccount(new Account(i, "Holder " + i, 1_000));
+        }
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                pool.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        try {
+                            dao.transfer(random.nextInt(accounts), random.nextInt(accounts), random.nextInt(1, 50));
+                        } catch (InsufficientFundsException ignored) {
+                            // Expected for drained accounts.
+                        }
+                        dao.getAccount(random.nextInt(accounts));
+                    }
+                });
+            }
+        }
+
+        long total = 0;
+        for (int i = 0; i < accounts; i++) {
+            total += dao.getBalance(i);
+        }
+        assertEquals(accounts * 1_000L, total);
+    }
+}
@@ -0,0 +1,56 @@
+package Banking;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Primitive map behaviour checked against HashMap, including growth, key 0 and removal inside probe runs.
+class IntLongHashMapTest {
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        IntLongHashMap map = new IntLongHashMap(4);
+        Map<Integer, Long> reference = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range forces collisions, long probe runs and plenty of removals.
+            int key = random.nextInt(5_000) - 100;
+            long value = random.nextInt(1_000_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    map.put(key, value);
+                    reference.put(key, value);
+                }
+                case 1 -> assertEquals(reference.merge(key, value, Long::sum), map.addTo(key, value));
+                case 2 -> assertEquals(reference.remove(key) != null, map.remove(key));
+                default -> {
+                    assertEquals(reference.containsKey(key), map.containsKey(key));
+                    assertEquals(reference.getOrDefault(key, -1L), map.get(key, -1));
+                }
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        Map<Integer, Long> copied = new HashMap<>();
+        map.forEach(copied::put);
+        assertEquals(reference, copied);
+    }
+
+    @Test
+    void keyZeroIsAnOrdinaryKey() {
+        IntLongHashMap map = new IntLongHashMap();
+
+        assertFalse(map.containsKey(0));
+        assertEquals(5, map.addTo(0, 5));
+        assertEquals(7, map.addTo(0, 2));
+        assertTrue(map.containsKey(0));
+        assertEquals(1, map.size());
+        assertTrue(map.remove(0));
+        assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package Banking;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Bucket layout and percentile accuracy of LatencyHistogram, and the service/DAO timers feeding BankingMetrics.
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndWithinThreePercent() {
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++) {
+            assertEquals(LatencyHistogram.highestEquivalentValue(i - 1) + 1, LatencyHistogram.lowestEquivalentValue(i));
+        }
+        for (long value = 1; value < (1L << 36); value = value * 3 + 1) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.lowestEquivalentValue(index) <= value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) - value <= value * 0.032);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void reportsPercentilesOfRecordedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000L);
+        }
+
+        long[] values = histogram.percentiles(50, 99, 99.9, 100);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_000, values[0], 500_000 * 0.032);
+        assertEquals(990_000, values[1], 990_000 * 0.032);
+        assertEquals(999_000, values[2], 999_000 * 0.032);
+        assertEquals(1_000_000, values[3]);
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500, histogram.getMeanNanos(), 1);
+    }
+
+    @Test
+    void serviceAndDaoCallsAreTimedIncludingFailures() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:metrics;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS accounts");
+        jdbcTemplate.execute("CREATE TABLE accounts ("
+                + "account_number INT PRIMARY KEY, "
+                + "customer_name VARCHAR(255) NOT NULL, "
+                + "balance DECIMAL(15,2) NOT NULL DEFAULT 0)");
+        BankingMetrics metrics = new BankingMetrics();
+        AccountDAO dao = new TimedAccountDao(
+                new BnkAccountDaoImpl(jdbcTemplate, new DataSourceTransactionManager(dataSource)), metrics);
+        TransactionService service = new TransactionService(dao, new AccountLockManager(16, false), 10, metrics);
+        service.createAccount(new Account(1, "Alice", 1000));
+
+        service.deposit(1, 500);
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw(1, 10_000));
+        assertThrows(AccountNotFoundException.class, () -> service.viewAccount(2));
+
+        assertEquals(2, metrics.timer("dao.applyDelta").getCount());
+        assertEquals(1, metrics.timer("service.withdraw").getCount());
+        assertEquals(1, metrics.timer("dao.getAccount").getCount());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> deposit = (Map<String, Object>) ((Map<String, Object>) metrics.snapshot().get("operations"))
+                .get("service.deposit");
+        assertEquals(1L, deposit.get("count"));
+    }
+}
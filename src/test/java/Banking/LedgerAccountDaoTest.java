@@ -0,0 +1,263 @@
+package Banking;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ledger engine tests: in-memory single writers group-committing to H2 through the JDBC DAO.
+class LedgerAccountDaoTest {
+
+    private H2TestDatabase database;
+    private BnkAccountDaoImpl store;
+    private LedgerAccountDao ledger;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("ledger");
+        store = database.newAccountDao();
+        ledger = new LedgerAccountDao(new LedgerEngine(store, 4, 1024, 64), 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.close();
+        database.drop();
+    }
+
+    @Test
+    void hotAccountDepositsAreAllCommitted() throws InterruptedException {
+        ledger.createAccount(new Account(1, "Payroll", 0));
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 2000; i++) {
+            pool.execute(() -> ledger.applyDelta(1, 100, AccountDAO.NO_MIN_BALANCE));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(200_000, ledger.getBalance(1));
+        assertEquals(200_000, store.getBalance(1));
+    }
+
+    @Test
+    void withdrawalGuardAndMissingAccountsSurfaceDomainErrors() {
+        store.createAccount(new Account(2, "Existing", 1000));
+
+        assertThrows(InsufficientFundsException.class, () -> ledger.applyDelta(2, -1100, 0));
+        assertEquals(400, ledger.applyDelta(2, -600, 0).getBalanceCents());
+        assertThrows(AccountNotFoundException.class, () -> ledger.getAccount(404));
+        assertEquals(400, store.getBalance(2));
+    }
+
+    @Test
+    void overflowingTransferLeavesBothBalancesUntouched() {
+        // An in-memory store, since no DECIMAL(15,2) row can hold a balance this close to Long.MAX_VALUE.
+        InMemoryAccountDao memory = new InMemoryAccountDao();
+        try (LedgerAccountDao engine = new LedgerAccountDao(new LedgerEngine(memory, 4, 1024, 64), 5000)) {
+            engine.createAccount(new Account(10, "Source", 1_000));
+            engine.createAccount(new Account(14, "Nearly full", Long.MAX_VALUE - 10));
+
+            assertThrows(ArithmeticException.class, () -> engine.transfer(10, 14, 100));
+            assertEquals(1_000, engine.getBalance(10));
+            assertEquals(Long.MAX_VALUE - 10, engine.getBalance(14));
+            assertEquals(Long.MAX_VALUE - 5, engine.transfer(10, 14, 5).getTo().getBalanceCents());
+            assertEquals(995, memory.getBalance(10));
+        }
+    }
+
+    @Test
+    void transfersCommitBothLegsWithinAndAcrossShards() {
+        // Four shards by account number modulo 4: 10 and 14 share a shard, 11 sits on another.
+        ledger.createAccount(new Account(10, "Source", 10_000));
+        ledger.createAccount(new Account(14, "Same shard", 0));
+        ledger.createAccount(new Account(11, "Other shard", 0));
+
+        TransferResultDTO sameShard = ledger.transfer(10, 14, 2_500);
+        TransferResultDTO crossShard = ledger.transfer(10, 11, 1_500);
+
+        assertEquals(7_500, sameShard.getFrom().getBalanceCents());
+        assertEquals(2_500, sameShard.getTo().getBalanceCents());
+        assertEquals(6_000, crossShard.getFrom().getBalanceCents());
+        assertEquals(1_500, crossShard.getTo().getBalanceCents());
+        assertEquals(6_000, store.getBalance(10));
+        assertEquals(2_500, store.getBalance(14));
+        assertEquals(1_500, store.getBalance(11));
+        assertThrows(InsufficientFundsException.class, () -> ledger.transfer(14, 10, 2_501));
+        assertThrows(InsufficientFundsException.class, () -> ledger.transfer(11, 10, 1_501));
+        assertThrows(AccountNotFoundException.class, () -> ledger.transfer(10, 404, 1));
+        assertEquals(6_000, ledger.getBalance(10));
+    }
+
+    @Test
+    void concurrentTransfersAndDepositsConserveMoneyAcrossShards() throws InterruptedException {
+        int accounts = 12;
+        for (int i = 0; i < accounts; i++) {
+            ledger.createAccount(new Account(i, "Holder " + i, 10_000));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger deposits = new AtomicInteger();
+        for (int i = 0; i < 2000; i++) {
+            int from = i % accounts;
+            int to = (i * 7 + 1) % accounts;
+            pool.execute(() -> {
+                if (from == to) {
+                    ledger.applyDelta(from, 1, AccountDAO.NO_MIN_BALANCE);
+                    deposits.incrementAndGet();
+                    return;
+                }
+                try {
+                    ledger.transfer(from, to, 37);
+                } catch (InsufficientFundsException ignored) {
+                    // Expected for drained accounts.
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        long ledgerTotal = 0;
+        long storeTotal = 0;
+        for (int i = 0; i < accounts; i++) {
+            ledgerTotal += ledger.getBalance(i);
+            storeTotal += store.getBalance(i);
+        }
+        assertEquals(accounts * 10_000L + deposits.get(), ledgerTotal);
+        assertEquals(ledgerTotal, storeTotal);
+    }
+
+    @Test
+    void timedOutCommandsThatAreStillQueuedAreNeverApplied() throws Exception {
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        InMemoryAccountDao slowStore = new InMemoryAccountDao() {
+            @Override
+            public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+                commitStarted.countDown();
+                try {
+                    releaseCommit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.applyBatch(operations);
+            }
+        };
+        slowStore.createAccount(new Account(1, "Slow", 0));
+        try (LedgerAccountDao slow = new LedgerAccountDao(new LedgerEngine(slowStore, 1, 16, 1), 100)) {
+            CompletableFuture<Account> first = CompletableFuture.supplyAsync(
+                    () -> slow.applyDelta(1, 100, AccountDAO.NO_MIN_BALANCE));
+            assertTrue(commitStarted.await(5, TimeUnit.SECONDS));
+
+            // The writer is stuck committing the first deposit, so the second times out while still queued.
+            assertThrows(PipelineFullException.class, () -> slow.applyDelta(1, 5_000, AccountDAO.NO_MIN_BALANCE));
+            releaseCommit.countDown();
+
+            assertEquals(100, first.get(5, TimeUnit.SECONDS).getBalanceCents());
+            assertEquals(100, slow.getBalance(1));
+            assertEquals(100, slowStore.getBalance(1));
+        }
+    }
+
+    @Test
+    void failedGroupCommitOnlyFailsTheCommandsItWasCommitting() throws Exception {
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        AtomicInteger commits = new AtomicInteger();
+        InMemoryAccountDao failingStore = new InMemoryAccountDao() {
+            @Override
+            public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+                if (commits.incrementAndGet() > 1) {
+                    throw new IllegalStateException("Disk full");
+                }
+                commitStarted.countDown();
+                try {
+                    releaseCommit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.applyBatch(operations);
+            }
+        };
+        failingStore.createAccount(new Account(1, "First", 0));
+        failingStore.createAccount(new Account(3, "Untouched", 300));
+        failingStore.createAccount(new Account(4, "Touched", 400));
+        try (LedgerEngine engine = new LedgerEngine(failingStore, 1, 16, 16)) {
+            CompletableFuture<Account> first = engine.applyDelta(1, 100, AccountDAO.NO_MIN_BALANCE);
+            assertTrue(commitStarted.await(5, TimeUnit.SECONDS));
+
+            // Queued behind the blocked commit, so the writer drains them into one batch whose commit fails.
+            CompletableFuture<Account> create = engine.create(new Account(2, "Created", 200));
+            CompletableFuture<Account> untouched = engine.get(3);
+            CompletableFuture<Account> delta = engine.applyDelta(4, 50, AccountDAO.NO_MIN_BALANCE);
+            CompletableFuture<Account> touched = engine.get(4);
+            releaseCommit.countDown();
+
+            assertEquals(100, first.get(5, TimeUnit.SECONDS).getBalanceCents());
+            assertEquals(200, create.get(5, TimeUnit.SECONDS).getBalanceCents());
+            assertEquals(300, untouched.get(5, TimeUnit.SECONDS).getBalanceCents());
+            assertThrows(ExecutionException.class, () -> delta.get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> touched.get(5, TimeUnit.SECONDS));
+            assertEquals("Created", failingStore.getAccount(2).getCustomerName());
+            assertEquals(400, engine.get(4).get(5, TimeUnit.SECONDS).getBalanceCents());
+        }
+    }
+
+    @Test
+    void timedOutCrossShardTransferIsNotAppliedAndReleasesTheOtherShard() throws Exception {
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        InMemoryAccountDao slowStore = new InMemoryAccountDao() {
+            @Override
+            public BatchStatus[] applyBatch(List<BatchTransactionDTO> operations) {
+                if (operations.get(0).getAccountNumber() == 2) {
+                    commitStarted.countDown();
+                    try {
+                        releaseCommit.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.applyBatch(operations);
+            }
+        };
+        slowStore.createAccount(new Account(1, "Other shard", 0));
+        slowStore.createAccount(new Account(2, "Slow shard", 1_000));
+        try (LedgerAccountDao slow = new LedgerAccountDao(new LedgerEngine(slowStore, 2, 16, 1), 100)) {
+            CompletableFuture<Account> first = CompletableFuture.supplyAsync(
+                    () -> slow.applyDelta(2, 100, AccountDAO.NO_MIN_BALANCE));
+            assertTrue(commitStarted.await(5, TimeUnit.SECONDS));
+
+            // Account 2's shard is stuck in a commit, so its pause is still queued when the transfer times out.
+            assertThrows(PipelineFullException.class, () -> slow.transfer(2, 1, 500));
+            assertEquals(0, slow.applyDelta(1, 0, AccountDAO.NO_MIN_BALANCE).getBalanceCents());
+            releaseCommit.countDown();
+
+            assertEquals(1_100, first.get(5, TimeUnit.SECONDS).getBalanceCents());
+            assertEquals(1_100, slow.getBalance(2));
+            assertEquals(0, slowStore.getBalance(1));
+            assertEquals(600, slow.transfer(2, 1, 500).getFrom().getBalanceCents());
+        }
+    }
+
+    @Test
+    void commandsSubmittedAfterCloseFailInsteadOfHanging() {
+        LedgerEngine engine = new LedgerEngine(store, 2, 16, 8);
+        engine.close();
+
+        CompletableFuture<Account> late = engine.get(1);
+        assertTrue(late.isCompletedExceptionally());
+        assertFalse(late.isCancelled());
+    }
+}
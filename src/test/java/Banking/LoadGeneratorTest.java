@@ -0,0 +1,132 @@
+package Banking;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// CLI load mode: option parsing, key skew, and a short in-process run against H2 in MySQL mode.
+class LoadGeneratorTest {
+
+    private H2TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BnkAccountDaoImpl dao;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("load");
+        jdbcTemplate = database.getJdbcTemplate();
+        dao = database.newAccountDao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void parsesOptionsAndIgnoresOtherArguments() {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[] {
+                "--load", "--spring.datasource.url=jdbc:h2:mem:x", "--target=http://localhost:8080",
+                "--mix=deposit:3,view:1,transfer:0", "--accounts=50", "--skew=0.5", "--rate=200",
+                "--duration=1.5", "--amount=2.50"});
+
+        assertTrue(options.isHttp());
+        assertEquals(50, options.accounts);
+        assertEquals(1500, options.duration.toMillis());
+        assertEquals(250, options.amountCents);
+        LoadGenerator.Operation[] table = options.mixTable();
+        assertEquals(4, table.length);
+        assertEquals(3, Arrays.stream(table).filter(op -> op == LoadGenerator.Operation.DEPOSIT).count());
+
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[] {"--mix=view:0"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[] {"--concurrency=0"}));
+    }
+
+    @Test
+    void zipfSkewsTowardsLowRanksAndUniformAtZero() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] skewed = new int[100];
+        int[] uniform = new int[100];
+        LoadGenerator.Zipf zipf = new LoadGenerator.Zipf(100, 0.99);
+        LoadGenerator.Zipf flat = new LoadGenerator.Zipf(100, 0);
+        for (int i = 0; i < 100_000; i++) {
+            skewed[zipf.next(random)]++;
+            uniform[flat.next(random)]++;
+        }
+
+        // Rank 0 of Zipf(100, 0.99) draws about 19% of samples; rank 99 about 0.2%.
+        assertTrue(skewed[0] > 15_000, "hottest key got " + skewed[0]);
+        assertTrue(skewed[0] > 20 * skewed[99]);
+        for (int count : uniform) {
+            assertTrue(count > 700 && count < 1300, "uniform bucket got " + count);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator.Zipf(10, 1.0));
+    }
+
+    @Test
+    void runsMixInProcessAndKeepsMoneyConserved() throws Exception {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[] {
+                "--mix=deposit:1,withdraw:1,view:2,transfer:2", "--accounts=20", "--first-account=500",
+                "--concurrency=4", "--duration=0.5", "--warmup=0", "--amount=1.00", "--initial-balance=10.00"});
+
+        LoadGenerator.Report report = new LoadGenerator(options, new LoadGenerator.ServiceTarget(new TransactionService(dao))).run();
+
+        assertTrue(report.getTotalCount() > 0);
+        assertTrue(report.getThroughput() > 0);
+        long errors = 0;
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+            errors += report.count(operation, LoadGenerator.Outcome.ERROR);
+        }
+        long deposits = report.count(LoadGenerator.Operation.DEPOSIT, LoadGenerator.Outcome.OK);
+        long withdrawals = report.count(LoadGenerator.Operation.WITHDRAW, LoadGenerator.Outcome.OK);
+        assertEquals(0, errors);
+        Long total = jdbcTemplate.queryForObject("SELECT CAST(SUM(balance) * 100 AS BIGINT) FROM accounts", Long.class);
+        assertEquals(20 * 1000 + (deposits - withdrawals) * 100, total);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("throughput:"));
+        assertTrue(text.contains("transfer"));
+        assertTrue(text.contains("99.990%"));
+    }
+
+    @Test
+    void rerunCreatesAccountsAboveThoseOfEarlierRuns() throws Exception {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[] {
+                "--mix=create:1", "--accounts=10", "--first-account=700", "--concurrency=2", "--rate=100",
+                "--duration=0.2", "--warmup=0"});
+        LoadGenerator.ServiceTarget target = new LoadGenerator.ServiceTarget(new TransactionService(dao));
+
+        LoadGenerator.Report first = new LoadGenerator(options, target).run();
+        LoadGenerator.Report second = new LoadGenerator(options, target).run();
+
+        assertEquals(20, first.count(LoadGenerator.Operation.CREATE, LoadGenerator.Outcome.OK));
+        assertEquals(20, second.count(LoadGenerator.Operation.CREATE, LoadGenerator.Outcome.OK));
+        assertEquals(749, target.highestAccount(710));
+        assertEquals(749, target.highestAccount(750));
+    }
+
+    @Test
+    void pacesOpenLoopAtTargetRate() throws Exception {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[] {
+                "--mix=view:1", "--accounts=5", "--concurrency=2", "--rate=100", "--duration=0.5", "--warmup=0"});
+
+        LoadGenerator.Report report = new LoadGenerator(options, new LoadGenerator.ServiceTarget(new TransactionService(dao))).run();
+
+        // 100 ops/s for half a second is 50 scheduled operations, all of them sent.
+        assertEquals(50, report.getTotalCount());
+        assertEquals(50, report.count(LoadGenerator.Operation.VIEW, LoadGenerator.Outcome.OK));
+    }
+}
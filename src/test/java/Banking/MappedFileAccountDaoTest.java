@@ -0,0 +1,172 @@
+package Banking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Memory-mapped embedded store: CRUD semantics, reopening, and redo-log replay after an unclean shutdown.
+class MappedFileAccountDaoTest {
+
+    private static final long LOG_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final List<MappedFileAccountDao> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (MappedFileAccountDao dao : opened) {
+            dao.close();
+        }
+    }
+
+    private MappedFileAccountDao open(int capacity) {
+        MappedFileAccountDao dao = new MappedFileAccountDao(directory, capacity, LOG_BYTES, 0);
+        opened.add(dao);
+        return dao;
+    }
+
+    @Test
+    void appliesAccountOperationsLikeTheJdbcDao() {
+        MappedFileAccountDao dao = open(100);
+        dao.createAccount(new Account(1, "Alice", 10_000));
+        dao.createAccount(new Account(2, "Bjørn Ødegård", 500));
+
+        assertThrows(DuplicateKeyException.class, () -> dao.createAccount(new Account(1, "Again", 0)));
+        assertEquals("Bjørn Ødegård", dao.getAccount(2).getCustomerName());
+        assertEquals(12_500, dao.applyDelta(1, 2_500, AccountDAO.NO_MIN_BALANCE).getBalanceCents());
+        assertThrows(InsufficientFundsException.class, () -> dao.applyDelta(2, -501, 0));
+        assertThrows(AccountNotFoundException.class, () -> dao.getAccount(3));
+        assertThrows(AccountNotFoundException.class, () -> dao.updateBalance(3, 1));
+
+        TransferResultDTO result = dao.transfer(1, 2, 2_000);
+        assertEquals(10_500, result.getFrom().getBalanceCents());
+        assertEquals(2_500, result.getTo().getBalanceCents());
+        assertThrows(InsufficientFundsException.class, () -> dao.transfer(2, 1, 2_501));
+        assertThrows(AccountNotFoundException.class, () -> dao.transfer(1, 3, 1));
+
+        dao.updateBalance(2, 42);
+        assertEquals(42, dao.getBalance(2));
+        assertEquals(2, dao.getCount());
+    }
+
+    @Test
+    void listsAndExportsInAccountNumberOrder() {
+        MappedFileAccountDao dao = open(1000);
+        for (int i = 300; i > 0; i--) {
+            dao.createAccount(new Account(i * 7, i % 3 == 0 ? "Smith " + i : "Jones " + i, i * 100L));
+        }
+
+        List<Account> first = dao.listAccounts(null, 5);
+        assertEquals(List.of(7, 14, 21, 28, 35), first.stream().map(Account::getAccountNumber).toList());
+        List<Account> next = dao.listAccounts(35, 3);
+        assertEquals(List.of(42, 49, 56), next.stream().map(Account::getAccountNumber).toList());
+        assertEquals(0, dao.listAccounts(2100, 10).size());
+
+        List<Integer> exported = new ArrayList<>();
+        long sent = dao.exportAccounts(new AccountExportFilter(1_000L, 3_000L, "smith"),
+                row -> exported.add(row.getAccountNumber()));
+        // Balances 1000..3000 are accounts 10..30; every third of them is a Smith.
+        assertEquals(List.of(84, 105, 126, 147, 168, 189, 210), exported);
+        assertEquals(7, sent);
+    }
+
+    @Test
+    void exportsNeverShowHalfATransfer() throws InterruptedException {
+        MappedFileAccountDao dao = open(100);
+        for (int i = 1; i <= 10; i++) {
+            dao.createAccount(new Account(i, "Customer " + i, 1_000));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        Thread mover = new Thread(() -> {
+            for (int i = 0; !done.get(); i++) {
+                dao.transfer(1 + i % 10, 1 + (i + 3) % 10, 1);
+            }
+        });
+        mover.start();
+        try {
+            for (int run = 0; run < 2_000; run++) {
+                long[] total = new long[1];
+                dao.exportAccounts(new AccountExportFilter(), row -> total[0] += row.getBalanceCents());
+                assertEquals(10_000, total[0]);
+                assertEquals(10_000, dao.listAccounts(null, 10).stream().mapToLong(Account::getBalanceCents).sum());
+            }
+        } finally {
+            done.set(true);
+            mover.join();
+        }
+    }
+
+    @Test
+    void reopensWithEverythingIntactAfterClose() {
+        MappedFileAccountDao dao = open(100);
+        dao.createAccount(new Account(5, "Eve", 100));
+        dao.applyDelta(5, 50, AccountDAO.NO_MIN_BALANCE);
+        dao.close();
+
+        // Capacity of an existing table comes from its header, not the argument.
+        MappedFileAccountDao reopened = open(1);
+        assertEquals(150, reopened.getBalance(5));
+        assertEquals("Eve", reopened.getAccount(5).getCustomerName());
+        reopened.createAccount(new Account(6, "Frank", 0));
+        assertEquals(2, reopened.getCount());
+    }
+
+    @Test
+    void replaysTheLogOverTableWritesLostInACrash() throws IOException {
+        MappedFileAccountDao dao = open(100);
+        dao.createAccount(new Account(1, "Alice", 1_000));
+        dao.createAccount(new Account(2, "Bob", 1_000));
+        dao.transfer(1, 2, 300);
+        dao.applyDelta(2, -100, 0);
+
+        // Not closed: simulate the table pages never reaching disk by zeroing every slot.
+        try (FileChannel table = FileChannel.open(directory.resolve(MappedFileAccountDao.TABLE_FILE),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            table.write(ByteBuffer.allocate((int) (table.size() - MappedFileAccountDao.HEADER_BYTES)),
+                    MappedFileAccountDao.HEADER_BYTES);
+        }
+        MappedFileAccountDao recovered = new MappedFileAccountDao(directory, 100, LOG_BYTES, 0);
+
+        assertEquals(700, recovered.getBalance(1));
+        assertEquals(1_200, recovered.getBalance(2));
+        assertEquals("Bob", recovered.getAccount(2).getCustomerName());
+        assertEquals(2, recovered.getCount());
+        recovered.close();
+    }
+
+    @Test
+    void checkpointsWhenTheLogFillsAndRejectsAFullTable() {
+        MappedFileAccountDao dao = open(12);
+        for (int i = 1; i <= 12; i++) {
+            dao.createAccount(new Account(i, "Holder " + i, 0));
+        }
+        // 64 KiB of log holds a few thousand balance records, so this wraps it several times.
+        for (int round = 0; round < 10_000; round++) {
+            dao.applyDelta(1 + round % 12, 1, AccountDAO.NO_MIN_BALANCE);
+        }
+        assertThrows(IllegalStateException.class, () -> dao.createAccount(new Account(99, "Late", 0)));
+        dao.close();
+
+        MappedFileAccountDao reopened = open(12);
+        long total = 0;
+        for (int i = 1; i <= 12; i++) {
+            total += reopened.getBalance(i);
+        }
+        assertEquals(10_000, total);
+    }
+}
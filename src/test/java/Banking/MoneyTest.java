@@ -0,0 +1,56 @@
+package Banking;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Cents parsing/formatting and the JSON binding of Account/TransactionDTO amounts.
+class MoneyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void parsesDecimalTextIntoCents() {
+        assertEquals(12_345, Money.parse("123.45"));
+        assertEquals(12_340, Money.parse("123.4"));
+        assertEquals(12_300, Money.parse("123"));
+        assertEquals(50, Money.parse(".5"));
+        assertEquals(-199, Money.parse("-1.99"));
+        assertEquals(100, Money.parse("1.000"));
+    }
+
+    @Test
+    void rejectsSubCentAndMalformedAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("0.001"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1e3"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("."));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("99999999999999999999"));
+    }
+
+    @Test
+    void formatsCentsAsPlainDecimal() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-1.99", Money.format(-199));
+        assertEquals("-92233720368547758.08", Money.format(Long.MIN_VALUE));
+    }
+
+    @Test
+    void jsonAmountsBindToCentsAndBack() throws Exception {
+        TransactionDTO dto = mapper.readValue("{\"accountNumber\":7,\"amount\":50.25}", TransactionDTO.class);
+        assertEquals(5025, dto.getAmountCents());
+
+        Account account = mapper.readValue("{\"accountNumber\":7,\"customerName\":\"Ann\",\"balance\":100}",
+                Account.class);
+        assertEquals(10_000, account.getBalanceCents());
+        assertEquals("{\"accountNumber\":7,\"customerName\":\"Ann\",\"balance\":100.00}",
+                mapper.writeValueAsString(account));
+
+        assertThrows(JsonMappingException.class,
+                () -> mapper.readValue("{\"amount\":0.001}", TransactionDTO.class));
+    }
+}
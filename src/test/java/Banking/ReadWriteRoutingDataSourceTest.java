@@ -0,0 +1,88 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Read routing against separate H2 databases standing in for a primary and two lagging replicas.
+class ReadWriteRoutingDataSourceTest {
+
+    private final List<H2TestDatabase> databases = new ArrayList<>();
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary", 10_000);
+        replicaA = database("replicaA", 9_000);
+        replicaB = database("replicaB", 8_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (H2TestDatabase database : databases) {
+            database.drop();
+        }
+    }
+
+    @Test
+    void viewAccountReadsReplicasRoundRobinAndWritesGoToPrimary() {
+        ReplicaRouting routing = new ReplicaRouting(true, 60_000);
+        TransactionService service = service(new ReadWriteRoutingDataSource(primary, List.of(replicaA, replicaB), routing, false), routing);
+
+        assertEquals(9_000, service.viewAccount(1).getBalanceCents());
+        assertEquals(8_000, service.viewAccount(1).getBalanceCents());
+
+        service.deposit(2, 500);
+        assertEquals(5_500, new JdbcTemplate(primary).queryForObject(
+                "SELECT ROUND(balance * 100) FROM accounts WHERE account_number = 2", Long.class));
+    }
+
+    @Test
+    void recentlyWrittenAccountIsReadFromPrimaryUntilTheWindowPasses() throws InterruptedException {
+        ReplicaRouting routing = new ReplicaRouting(true, 200);
+        TransactionService service = service(new ReadWriteRoutingDataSource(primary, List.of(replicaA), routing, false), routing);
+
+        service.deposit(1, 500);
+        assertEquals(10_500, service.viewAccount(1).getBalanceCents());
+
+        Thread.sleep(300);
+        assertEquals(9_000, service.viewAccount(1).getBalanceCents());
+    }
+
+    @Test
+    void disabledRoutingAlwaysUsesPrimary() {
+        ReplicaRouting routing = new ReplicaRouting();
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replicaA), routing, true);
+
+        boolean replica = routing.beginRead(1);
+        assertEquals(10_000, service(dataSource, routing).viewAccount(1).getBalanceCents());
+        routing.endRead(replica);
+        assertSame(replicaA, dataSource.selectReplica());
+    }
+
+    private static TransactionService service(ReadWriteRoutingDataSource dataSource, ReplicaRouting routing) {
+        BnkAccountDaoImpl dao = new BnkAccountDaoImpl(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+        return new TransactionService(dao, new AccountLockManager(16, false), 10, new BankingMetrics(), routing);
+    }
+
+    // Each database holds account 1 with the given balance and account 2 with 50.00.
+    private DataSource database(String name, long accountOneCents) {
+        H2TestDatabase database = new H2TestDatabase(name);
+        databases.add(database);
+        database.getJdbcTemplate().update("INSERT INTO accounts VALUES (1, 'Alice', ?)", accountOneCents / 100.0);
+        database.getJdbcTemplate().update("INSERT INTO accounts VALUES (2, 'Bob', 50.00)");
+        return database.getDataSource();
+    }
+}
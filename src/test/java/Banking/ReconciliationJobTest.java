@@ -0,0 +1,206 @@
+package Banking;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Journal-versus-table reconciliation against H2 in MySQL mode.
+class ReconciliationJobTest {
+
+    @TempDir
+    Path directory;
+
+    private H2TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private BnkAccountDaoImpl jdbcDao;
+    private TransactionJournal journal;
+    private TransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("reconciliation");
+        jdbcTemplate = database.getJdbcTemplate();
+        transactionManager = database.getTransactionManager();
+        jdbcDao = database.newAccountDao();
+        journal = new TransactionJournal(directory, 64 * TransactionJournal.RECORD_SIZE, 256, 0);
+        service = new TransactionService(new JournalingAccountDao(jdbcDao, journal, transactionManager));
+        for (int i = 1; i <= 20; i++) {
+            service.createAccount(new Account(i, "Customer " + i, 10_000));
+        }
+        for (int i = 1; i <= 20; i++) {
+            service.deposit(i, i * 10L);
+            service.transfer(i, i % 20 + 1, 250);
+        }
+        service.withdraw(5, 1_000);
+        service.updateBalance(6, 42);
+        service.applyBatch(List.of(new BatchTransactionDTO(TransactionType.WITHDRAW, 7, 99),
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 8, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+        database.drop();
+    }
+
+    @Test
+    void journaledBalancesMatchTheTable() {
+        ReconciliationReportDTO report = new ReconciliationJob(journal, jdbcDao, 3, 10).run();
+
+        assertEquals(20, report.getAccounts());
+        assertEquals(20, report.getMatched());
+        assertEquals(0, report.getUnverified());
+        assertEquals(0, report.getMismatched());
+        assertEquals(journal.getLastSequence(), report.getJournalSequence());
+    }
+
+    @Test
+    void reportsChangedMissingAndUnjournaledRows() {
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 1 WHERE account_number = 3");
+        jdbcTemplate.update("DELETE FROM accounts WHERE account_number = 4");
+        jdbcTemplate.update("INSERT INTO accounts VALUES (99, 'Backfill', 5.00)");
+
+        ReconciliationReportDTO report = new ReconciliationJob(journal, jdbcDao, 4, 1).run();
+
+        assertEquals(20, report.getAccounts());
+        assertEquals(18, report.getMatched());
+        assertEquals(1, report.getUnverified());
+        assertEquals(2, report.getMismatched());
+        BalanceMismatchDTO first = report.getMismatches().get(0);
+        assertEquals(1, report.getMismatches().size());
+        assertEquals(3, first.getAccountNumber());
+        assertEquals(first.getExpectedCents() + 100, first.getActualCents());
+    }
+
+    @Test
+    void missingRowHasNoActualBalance() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE account_number = 4");
+
+        BalanceMismatchDTO missing = new ReconciliationJob(journal, jdbcDao, 2, 10).run().getMismatches().get(0);
+
+        assertEquals(4, missing.getAccountNumber());
+        assertNull(missing.getActualCents());
+    }
+
+    @Test
+    void writesDuringTheScanAreSettled() {
+        // A deposit that commits and is journaled while the table is being streamed.
+        AccountDAO busy = new JournalingAccountDao(jdbcDao, journal, transactionManager) {
+            @Override
+            public long exportAccounts(AccountExportFilter filter, Consumer<Account> sink) {
+                applyDelta(9, 500, NO_MIN_BALANCE);
+                return super.exportAccounts(filter, sink);
+            }
+        };
+
+        ReconciliationReportDTO report = new ReconciliationJob(journal, busy, 2, 10).run();
+
+        assertEquals(20, report.getMatched());
+        assertEquals(0, report.getMismatched());
+    }
+
+    @Test
+    void partitionsSpanManyChunksOfTheSingleJournalRead() {
+        try (TransactionJournal large = new TransactionJournal(directory.resolve("large"),
+                4096 * TransactionJournal.RECORD_SIZE, 4096, 0)) {
+            InMemoryAccountDao store = new InMemoryAccountDao();
+            AccountDAO journaled = new JournalingAccountDao(store, large);
+            for (int i = 0; i < 50; i++) {
+                journaled.createAccount(new Account(i, "Customer " + i, 1_000));
+            }
+            for (int i = 0; i < 30_000; i++) {
+                journaled.applyDelta(i % 50, i % 7, AccountDAO.NO_MIN_BALANCE);
+                journaled.transfer(i % 50, (i * 31) % 50, 1);
+            }
+            store.updateBalance(17, 5);
+
+            ReconciliationReportDTO report = new ReconciliationJob(large, store, 3, 10).run();
+
+            assertEquals(49, report.getMatched());
+            assertEquals(1, report.getMismatched());
+            assertEquals(17, report.getMismatches().get(0).getAccountNumber());
+        }
+    }
+
+    @Test
+    void writeIsRolledBackWhenItsRecordCannotBeAppended() {
+        long before = jdbcDao.getBalance(1);
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> service.deposit(1, 500));
+        assertThrows(IllegalStateException.class, () -> service.transfer(1, 2, 500));
+
+        assertEquals(before, jdbcDao.getBalance(1));
+    }
+
+    @Test
+    void accrualsAreReplayedFromTheJournal() {
+        database.withAccrualTables();
+        new AccrualJob(jdbcTemplate, transactionManager, new HotAccounts(), jdbcDao,
+                new AccountLockManager(64, false), new ReplicaRouting(), journal, 8, 2)
+                .run("eod", 12_345, 75);
+
+        ReconciliationReportDTO report = new ReconciliationJob(journal, jdbcDao, 3, 10).run();
+
+        assertEquals(20, report.getMatched());
+        assertEquals(0, report.getMismatched());
+    }
+
+    @Test
+    void nextRunReplaysOnlyTheRecordsAfterTheSnapshot() throws Exception {
+        ReconciliationReportDTO first = new ReconciliationJob(journal, jdbcDao, 3, 10).run();
+        service.deposit(3, 500);
+        service.transfer(3, 4, 200);
+        // The records the first run covered are no longer needed.
+        Path firstSegment = directory.resolve(TransactionJournal.segmentName(1));
+        assertTrue(Files.deleteIfExists(firstSegment));
+
+        ReconciliationReportDTO second = new ReconciliationJob(journal, jdbcDao, 3, 10).run();
+
+        assertEquals(1, first.getReplayedFrom());
+        assertEquals(first.getJournalSequence() + 1, second.getReplayedFrom());
+        assertEquals(first.getJournalSequence() + 2, second.getJournalSequence());
+        assertEquals(20, second.getMatched());
+        assertEquals(0, second.getMismatched());
+        assertTrue(Files.exists(directory.resolve(ReconciliationSnapshot.fileName(second.getJournalSequence()))));
+        assertFalse(Files.exists(directory.resolve(ReconciliationSnapshot.fileName(first.getJournalSequence()))));
+    }
+
+    @Test
+    void rowsOpenedBeforeTheJournalAreVerifiedFromTheNextRun() {
+        jdbcTemplate.update("INSERT INTO accounts VALUES (98, 'Legacy', 70.00)");
+        jdbcTemplate.update("INSERT INTO accounts VALUES (99, 'Backfill', 5.00)");
+        service.deposit(98, 300);
+        service.transfer(98, 1, 100);
+
+        ReconciliationReportDTO first = new ReconciliationJob(journal, jdbcDao, 3, 10).run();
+        service.withdraw(98, 50);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 1 WHERE account_number = 99");
+        ReconciliationReportDTO second = new ReconciliationJob(journal, jdbcDao, 3, 10).run();
+
+        assertEquals(2, first.getUnverified());
+        assertEquals(20, first.getMatched());
+        assertEquals(0, second.getUnverified());
+        assertEquals(21, second.getMatched());
+        assertEquals(1, second.getMismatched());
+        BalanceMismatchDTO backfill = second.getMismatches().get(0);
+        assertEquals(99, backfill.getAccountNumber());
+        assertEquals(500, backfill.getExpectedCents());
+        assertEquals(600, backfill.getActualCents());
+    }
+}
@@ -1,13 +1,12 @@
 package Banking;
-import java.util.Map;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.HashMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-// Service-level tests using an in-memory DAO stub.
+// Service-level tests over the in-memory DAO.
 class TransactionControllerTest {
 
     private InMemoryAccountDao accountDAO;
@@ -21,72 +20,70 @@ class TransactionControllerTest {
 
     @Test
     void depositIncreasesBalance() {
-        service.createAccount(new Account(1, "Alice", 100.0));
+        service.createAccount(new Account(1, "Alice", 10_000));
 
-        service.deposit(1, 50.0);
+        service.deposit(1, 5000);
 
-        assertEquals(150.0, accountDAO.getBalance(1));
+        assertEquals(15_000, accountDAO.getBalance(1));
     }
 
     @Test
     void withdrawalDecreasesBalanceWhenSufficient() {
-        service.createAccount(new Account(2, "Bob", 200.0));
+        service.createAccount(new Account(2, "Bob", 20_000));
 
-        service.withdraw(2, 75.0);
+        service.withdraw(2, 7500);
 
-        assertEquals(125.0, accountDAO.getBalance(2));
+        assertEquals(12_500, accountDAO.getBalance(2));
     }
 
     @Test
     void withdrawalFailsWhenInsufficient() {
-        service.createAccount(new Account(3, "Carol", 50.0));
+        service.createAccount(new Account(3, "Carol", 5000));
 
-        assertThrows(IllegalArgumentException.class, () -> service.withdraw(3, 60.0));
-        assertEquals(50.0, accountDAO.getBalance(3));
+        assertThrows(IllegalArgumentException.class, () -> service.withdraw(3, 6000));
+        assertEquals(5000, accountDAO.getBalance(3));
     }
 
     @Test
     void updateBalanceSetsExactValue() {
-        service.createAccount(new Account(4, "Dan", 10.0));
+        service.createAccount(new Account(4, "Dan", 1000));
 
-        service.updateBalance(4, 999.0);
+        service.updateBalance(4, 99_900);
 
-        assertEquals(999.0, accountDAO.getBalance(4));
+        assertEquals(99_900, accountDAO.getBalance(4));
     }
 
-    // Simple in-memory DAO for tests
-    private static class InMemoryAccountDao implements AccountDAO {
-        private final Map<Integer, Account> store = new HashMap<>();
-
-        @Override
-        public void createAccount(Account account) {
-            store.put(account.getAccountNumber(), account);
-        }
-
-        @Override
-        public void updateBalance(int accountNumber, double newBalance) {
-            Account acc = store.get(accountNumber);
-            if (acc == null) {
-                throw new IllegalArgumentException("Account not found: " + accountNumber);
-            }
-            acc.setBalance(newBalance);
-        }
-
-        @Override
-        public double getBalance(int accountNumber) {
-            Account acc = store.get(accountNumber);
-            if (acc == null) {
-                throw new IllegalArgumentException("Account not found: " + accountNumber);
-            }
-            return acc.getBalance();
-        }
-        @Override
-        public Account getAccount(int accountNumber) {
-            Account acc = store.get(accountNumber);
-            if (acc == null) {
-                throw new IllegalArgumentException("Account not found: " + accountNumber);
-            }
-            return acc;
-        }
+    @Test
+    void batchReportsOutcomePerOperation() {
+        service.createAccount(new Account(5, "Eve", 10_000));
+        service = new TransactionService(accountDAO, new AccountLockManager(16, false), 2);
+
+        List<BatchResultDTO> results = service.applyBatch(List.of(
+                new BatchTransactionDTO(TransactionType.DEPOSIT, 5, 5000),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 5, 50_000),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 5, -100),
+                new BatchTransactionDTO(TransactionType.WITHDRAW, 5, 3000)));
+
+        assertEquals(BatchStatus.APPLIED, results.get(0).getStatus());
+        assertEquals(BatchStatus.INSUFFICIENT_FUNDS, results.get(1).getStatus());
+        assertEquals(BatchStatus.INVALID, results.get(2).getStatus());
+        assertEquals(BatchStatus.APPLIED, results.get(3).getStatus());
+        assertEquals(12_000, accountDAO.getBalance(5));
+    }
+
+    @Test
+    void hotAccountDepositsSkipTheStripeLock() {
+        AccountLockManager locks = new AccountLockManager(16, false);
+        service = new TransactionService(accountDAO, locks, 2, new BankingMetrics(), new ReplicaRouting(),
+                new HotAccounts(new int[] {6}, 4));
+        service.createAccount(new Account(6, "Payroll", 0));
+        service.createAccount(new Account(7, "Frank", 0));
+
+        service.deposit(6, 100);
+        assertEquals(0, locks.getTotalAcquisitions());
+        service.deposit(7, 100);
+        service.withdraw(6, 50);
+        assertEquals(2, locks.getTotalAcquisitions());
+        assertEquals(50, accountDAO.getBalance(6));
     }
 }
@@ -0,0 +1,126 @@
+package Banking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Journal append/roll/recover and the reader's tail, replay and balance rebuild.
+class TransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsSpanSegmentsAndReplayInOrder() {
+        // Three records per segment forces several rolls.
+        try (TransactionJournal journal = new TransactionJournal(directory, 3 * TransactionJournal.RECORD_SIZE, 1, 0)) {
+            journal.append(JournalRecordType.CREATE, 1, 0, 10_000);
+            journal.append(JournalRecordType.CREATE, 2, 0, 0);
+            journal.append(JournalRecordType.DEPOSIT, 1, 0, 2_500);
+            journal.append(JournalRecordType.WITHDRAW, 1, 0, 500);
+            journal.append(JournalRecordType.TRANSFER, 1, 2, 1_000);
+            journal.append(JournalRecordType.SET_BALANCE, 3, 0, 42);
+            journal.append(JournalRecordType.DEPOSIT, 3, 0, 8);
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(directory)) {
+            assertEquals(7, reader.replay(r -> sequences.add(r.getSequence())));
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), sequences);
+
+        Map<Integer, Long> balances = JournalReader.rebuildBalances(directory);
+        assertEquals(11_000L, balances.get(1));
+        assertEquals(1_000L, balances.get(2));
+        assertEquals(50L, balances.get(3));
+    }
+
+    @Test
+    void reopenedJournalContinuesAfterTornTail() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(directory, 1024 * TransactionJournal.RECORD_SIZE, 1, 0)) {
+            journal.append(JournalRecordType.DEPOSIT, 1, 0, 100);
+            journal.append(JournalRecordType.DEPOSIT, 1, 0, 200);
+        }
+        // Simulate a crash mid-write: a type marker without a matching checksum in the next slot.
+        Path segment = TransactionJournal.listSegments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, JournalRecordType.DEPOSIT.code()),
+                    2L * TransactionJournal.RECORD_SIZE + TransactionJournal.TYPE_OFFSET);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(directory, 1024 * TransactionJournal.RECORD_SIZE, 1, 0)) {
+            assertEquals(2, journal.getLastSequence());
+            assertEquals(3, journal.append(JournalRecordType.DEPOSIT, 1, 0, 300));
+        }
+        assertEquals(600L, JournalReader.rebuildBalances(directory).get(1));
+    }
+
+    @Test
+    void readerTailsRecordsAppendedAfterItCaughtUp() {
+        try (TransactionJournal journal = new TransactionJournal(directory, 2 * TransactionJournal.RECORD_SIZE, 1, 0);
+             JournalReader reader = new JournalReader(directory, 2)) {
+            journal.append(JournalRecordType.DEPOSIT, 1, 0, 1);
+            journal.append(JournalRecordType.DEPOSIT, 1, 0, 2);
+            List<Long> amounts = new ArrayList<>();
+
+            assertEquals(1, reader.poll(r -> amounts.add(r.getAmountCents()), 100));
+            assertEquals(0, reader.poll(r -> amounts.add(r.getAmountCents()), 100));
+
+            journal.append(JournalRecordType.DEPOSIT, 1, 0, 3);
+            assertEquals(1, reader.poll(r -> amounts.add(r.getAmountCents()), 100));
+            assertEquals(List.of(2L, 3L), amounts);
+            assertEquals(3, reader.getLastSequence());
+        }
+    }
+
+    @Test
+    void depositCannotBeJournaledBetweenAnOverwriteAndItsRecord() throws Exception {
+        CountDownLatch overwritten = new CountDownLatch(1);
+        CountDownLatch releaseOverwrite = new CountDownLatch(1);
+        InMemoryAccountDao store = new InMemoryAccountDao() {
+            @Override
+            public void updateBalance(int accountNumber, long newBalanceCents) {
+                super.updateBalance(accountNumber, newBalanceCents);
+                overwritten.countDown();
+                try {
+                    releaseOverwrite.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        try (TransactionJournal journal = new TransactionJournal(directory, 1024 * TransactionJournal.RECORD_SIZE, 1, 0)) {
+            // No transactions here, so only the journaling stripes keep the account's records in write order.
+            JournalingAccountDao dao = new JournalingAccountDao(store, journal);
+            dao.createAccount(new Account(1, "Holder", 0));
+            CompletableFuture<Void> overwrite = CompletableFuture.runAsync(() -> dao.updateBalance(1, 100));
+            assertTrue(overwritten.await(5, TimeUnit.SECONDS));
+
+            // The overwrite is in the store but not yet journaled; the deposit has to wait for its record.
+            CompletableFuture<Account> deposit = CompletableFuture.supplyAsync(
+                    () -> dao.applyDelta(1, 5, AccountDAO.NO_MIN_BALANCE));
+            assertThrows(TimeoutException.class, () -> deposit.get(200, TimeUnit.MILLISECONDS));
+            releaseOverwrite.countDown();
+
+            overwrite.get(5, TimeUnit.SECONDS);
+            assertEquals(105, deposit.get(5, TimeUnit.SECONDS).getBalanceCents());
+        }
+        assertEquals(105L, JournalReader.rebuildBalances(directory).get(1));
+    }
+}
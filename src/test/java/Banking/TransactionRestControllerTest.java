@@ -0,0 +1,31 @@
+package Banking;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prefer header parsing that routes deposits and withdrawals to the async pipeline.
+class TransactionRestControllerTest {
+
+    @Test
+    void findsRespondAsyncAmongOtherPreferences() {
+        assertTrue(TransactionRestController.prefersRespondAsync(List.of("respond-async")));
+        assertTrue(TransactionRestController.prefersRespondAsync(List.of("respond-async", " wait=5")));
+        assertTrue(TransactionRestController.prefersRespondAsync(List.of("wait=5, Respond-Async")));
+        assertTrue(TransactionRestController.prefersRespondAsync(List.of("return=minimal", "respond-async")));
+        assertTrue(TransactionRestController.prefersRespondAsync(List.of("respond-async; level=1, wait=5")));
+    }
+
+    @Test
+    void otherPreferencesStaySynchronous() {
+        assertFalse(TransactionRestController.prefersRespondAsync(null));
+        assertFalse(TransactionRestController.prefersRespondAsync(List.of()));
+        assertFalse(TransactionRestController.prefersRespondAsync(List.of("wait=5", "return=representation")));
+        assertFalse(TransactionRestController.prefersRespondAsync(List.of("respond-asynchronously")));
+        // A parameter of handling, not a preference of its own.
+        assertFalse(TransactionRestController.prefersRespondAsync(List.of("handling=lenient; respond-async")));
+    }
+}
@@ -0,0 +1,132 @@
+package Banking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Concurrent transfers and batches in both directions between overlapping accounts, against H2 in MySQL mode.
+class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 8;
+    private static final int TRANSFERS = 4000;
+    private static final long OPENING_BALANCE = 100_000;
+
+    private H2TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BnkAccountDaoImpl dao;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("transfers", ";LOCK_TIMEOUT=10000");
+        jdbcTemplate = database.getJdbcTemplate();
+        dao = database.newAccountDao();
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            dao.createAccount(new Account(i, "Account " + i, OPENING_BALANCE));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.drop();
+    }
+
+    @Test
+    void daoTransfersNeverDeadlockAndConserveMoney() throws InterruptedException {
+        // Straight at the DAO, so only the database's ordered row locking keeps opposite transfers apart.
+        runTransfers((from, to, amount) -> dao.transfer(from, to, amount));
+    }
+
+    @Test
+    void serviceTransfersNeverDeadlockAndConserveMoney() throws InterruptedException {
+        TransactionService service = new TransactionService(dao);
+        runTransfers(service::transfer);
+    }
+
+    @Test
+    void batchesTouchingAccountsInOppositeOrdersNeverDeadlock() throws InterruptedException {
+        List<BatchTransactionDTO> ascending = new ArrayList<>();
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            ascending.add(new BatchTransactionDTO(TransactionType.DEPOSIT, i, 1));
+        }
+        List<BatchTransactionDTO> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        int batches = 400;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicInteger unexpected = new AtomicInteger();
+        for (int i = 0; i < batches; i++) {
+            List<BatchTransactionDTO> batch = i % 2 == 0 ? ascending : descending;
+            pool.execute(() -> {
+                try {
+                    dao.applyBatch(batch);
+                } catch (RuntimeException e) {
+                    unexpected.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(0, unexpected.get());
+        Long total = jdbcTemplate.queryForObject("SELECT ROUND(SUM(balance) * 100) FROM accounts", Long.class);
+        assertEquals(ACCOUNTS * (OPENING_BALANCE + batches), total);
+    }
+
+    @Test
+    void transferRejectsOverdraftAndMissingAccounts() {
+        TransactionService service = new TransactionService(dao);
+
+        assertThrows(InsufficientFundsException.class, () -> service.transfer(1, 2, OPENING_BALANCE + 1));
+        assertThrows(AccountNotFoundException.class, () -> service.transfer(1, 404, 100));
+        assertThrows(IllegalArgumentException.class, () -> service.transfer(1, 1, 100));
+
+        TransferResultDTO result = service.transfer(1, 2, 2_500);
+        assertEquals(OPENING_BALANCE - 2_500, result.getFrom().getBalanceCents());
+        assertEquals(OPENING_BALANCE + 2_500, result.getTo().getBalanceCents());
+    }
+
+    private void runTransfers(Transfer transfer) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        for (int i = 0; i < TRANSFERS; i++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = 1 + random.nextInt(ACCOUNTS);
+                int to = 1 + (from + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                try {
+                    transfer.apply(from, to, 1 + random.nextInt(5_000));
+                    completed.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    // Legitimate outcome under random traffic.
+                } catch (RuntimeException e) {
+                    unexpected.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(0, unexpected.get());
+        assertTrue(completed.get() > 0);
+        Long total = jdbcTemplate.queryForObject("SELECT ROUND(SUM(balance) * 100) FROM accounts", Long.class);
+        assertEquals(ACCOUNTS * OPENING_BALANCE, total);
+    }
+
+    private interface Transfer {
+        void apply(int from, int to, long amountCents);
+    }
+}